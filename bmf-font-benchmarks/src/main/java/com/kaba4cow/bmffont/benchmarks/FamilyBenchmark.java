@@ -0,0 +1,93 @@
+package com.kaba4cow.bmffont.benchmarks;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.kaba4cow.bmffont.BmfFont;
+import com.kaba4cow.bmffont.BmfFontFamily;
+import com.kaba4cow.bmffont.BmfParser;
+
+/**
+ * Measures resolving the font of each character of a mixed ASCII and CJK text in a fallback chain of an ASCII, a Latin
+ * Extended and a CJK font, by checking each font in turn and by the routing table of a {@link BmfFontFamily}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FamilyBenchmark {
+
+	private static final int TEXT_LENGTH = 256;
+
+	private BmfFont[] fonts;
+
+	private BmfFontFamily family;
+
+	private String text;
+
+	private int[] fontIndices;
+
+	private int[] runEnds;
+
+	private int[] runFonts;
+
+	@Setup
+	public void setup() throws IOException {
+		fonts = new BmfFont[] { BmfParser.parse(SyntheticFont.ASCII.generate(), null),
+				BmfParser.parse(SyntheticFont.LATIN_EXTENDED.generate(), null),
+				BmfParser.parse(SyntheticFont.CJK.generate(), null) };
+		family = new BmfFontFamily(fonts);
+		Random random = new Random(42);
+		StringBuilder builder = new StringBuilder(TEXT_LENGTH);
+		while (builder.length() < TEXT_LENGTH) {
+			SyntheticFont script = random.nextBoolean() ? SyntheticFont.ASCII : SyntheticFont.CJK;
+			builder.append(script.sampleText(1 + random.nextInt(8))).append(' ');
+		}
+		text = builder.substring(0, TEXT_LENGTH);
+		fontIndices = new int[TEXT_LENGTH];
+		runEnds = new int[TEXT_LENGTH + 1];
+		runFonts = new int[TEXT_LENGTH + 1];
+	}
+
+	@Benchmark
+	public void chainedLookup(Blackhole blackhole) {
+		BmfFont[] fonts = this.fonts;
+		for (int i = 0; i < TEXT_LENGTH; i++) {
+			char code = text.charAt(i);
+			int index = -1;
+			for (int font = 0; font < fonts.length; font++)
+				if (fonts[font].hasCharacter(code)) {
+					index = font;
+					break;
+				}
+			fontIndices[i] = index;
+		}
+		blackhole.consume(fontIndices);
+	}
+
+	@Benchmark
+	public int resolve() {
+		return family.resolve(text, 0, TEXT_LENGTH, fontIndices);
+	}
+
+	@Benchmark
+	public int resolveRuns() {
+		return family.resolveRuns(text, 0, TEXT_LENGTH, runEnds, runFonts);
+	}
+
+}
@@ -0,0 +1,92 @@
+package com.kaba4cow.bmffont.benchmarks;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.kaba4cow.bmffont.BmfFont;
+import com.kaba4cow.bmffont.BmfParser;
+import com.kaba4cow.bmffont.BmfQuadBatch;
+import com.kaba4cow.bmffont.BmfTextLayout;
+
+/**
+ * Measures whole-string measurement, layout and batched vertex generation on synthetic fonts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LayoutBenchmark {
+
+	@Param
+	private SyntheticFont font;
+
+	@Param({ "16", "256" })
+	private int length;
+
+	private BmfTextLayout layout;
+
+	private String text;
+
+	private float[] quads;
+
+	private BmfQuadBatch batch;
+
+	private CharSequence[] texts;
+
+	private float[] origins;
+
+	private ByteBuffer vertices;
+
+	private int[] pageOffsets;
+
+	@Setup
+	public void setup() throws IOException {
+		BmfFont bmfFont = BmfParser.parse(font.generate(), null);
+		layout = new BmfTextLayout(bmfFont);
+		text = font.sampleText(length);
+		quads = new float[length * BmfTextLayout.QUAD_STRIDE];
+		batch = new BmfQuadBatch(bmfFont);
+		texts = new CharSequence[16];
+		origins = new float[texts.length * 2];
+		for (int i = 0; i < texts.length; i++) {
+			texts[i] = text;
+			origins[i * 2 + 1] = i * bmfFont.getLineHeight();
+		}
+		vertices = ByteBuffer.allocateDirect(texts.length * length * BmfQuadBatch.BYTES_PER_QUAD)
+				.order(ByteOrder.nativeOrder());
+		pageOffsets = new int[batch.getPageCount() + 1];
+	}
+
+	@Benchmark
+	public int measureWidth() {
+		return layout.measureWidth(text);
+	}
+
+	@Benchmark
+	public int layout() {
+		return layout.layout(text, quads);
+	}
+
+	@Benchmark
+	public int writeBatch() {
+		vertices.clear();
+		return batch.write(texts, origins, texts.length, vertices, pageOffsets);
+	}
+
+}
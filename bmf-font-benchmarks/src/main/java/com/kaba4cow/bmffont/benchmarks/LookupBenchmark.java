@@ -0,0 +1,75 @@
+package com.kaba4cow.bmffont.benchmarks;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.kaba4cow.bmffont.BmfFont;
+import com.kaba4cow.bmffont.BmfParser;
+
+/**
+ * Measures character and kerning lookups on synthetic fonts. Each invocation performs {@value #LOOKUPS} lookups of random
+ * codes or pairs from the character range of the font.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LookupBenchmark {
+
+	private static final int LOOKUPS = 1024;
+
+	@Param
+	private SyntheticFont font;
+
+	private BmfFont bmfFont;
+
+	private int[] codes;
+
+	@Setup
+	public void setup() throws IOException {
+		bmfFont = BmfParser.parse(font.generate(), null);
+		Random random = new Random(42);
+		codes = new int[LOOKUPS + 1];
+		for (int i = 0; i < codes.length; i++)
+			codes[i] = font.getFirstCode() + random.nextInt(font.getEndCode() - font.getFirstCode());
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(LOOKUPS)
+	public void getCharacter(Blackhole blackhole) {
+		for (int i = 0; i < LOOKUPS; i++)
+			blackhole.consume(bmfFont.getCharacter(codes[i]));
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(LOOKUPS)
+	public void getKerning(Blackhole blackhole) {
+		for (int i = 0; i < LOOKUPS; i++)
+			blackhole.consume(bmfFont.getKerning(codes[i], codes[i + 1]));
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(LOOKUPS)
+	public void getKerningAmount(Blackhole blackhole) {
+		for (int i = 0; i < LOOKUPS; i++)
+			blackhole.consume(bmfFont.getKerningAmount(codes[i], codes[i + 1]));
+	}
+
+}
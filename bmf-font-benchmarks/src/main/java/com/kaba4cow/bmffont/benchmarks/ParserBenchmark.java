@@ -0,0 +1,73 @@
+package com.kaba4cow.bmffont.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.kaba4cow.bmffont.BmfFont;
+import com.kaba4cow.bmffont.BmfParser;
+
+/**
+ * Measures parsing of synthetic text fonts from the different source types.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParserBenchmark {
+
+	@Param
+	private SyntheticFont font;
+
+	private String text;
+
+	private byte[] bytes;
+
+	private ByteBuffer buffer;
+
+	@Setup
+	public void setup() {
+		text = font.generate();
+		bytes = text.getBytes(StandardCharsets.UTF_8);
+		buffer = ByteBuffer.allocateDirect(bytes.length);
+		buffer.put(bytes).flip();
+	}
+
+	@Benchmark
+	public BmfFont parseString() throws IOException {
+		return BmfParser.parse(text, null);
+	}
+
+	@Benchmark
+	public BmfFont parseInputStream() throws IOException {
+		return BmfParser.parse(new ByteArrayInputStream(bytes), null);
+	}
+
+	@Benchmark
+	public BmfFont parseReader() throws IOException {
+		return BmfParser.parse(new StringReader(text), null);
+	}
+
+	@Benchmark
+	public BmfFont parseByteBuffer() throws IOException {
+		return BmfParser.parse(buffer, null);
+	}
+
+}
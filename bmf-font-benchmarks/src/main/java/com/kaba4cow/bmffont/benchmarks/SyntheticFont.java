@@ -0,0 +1,124 @@
+package com.kaba4cow.bmffont.benchmarks;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Generators of synthetic text BMFont data with different character set sizes and kerning densities.
+ */
+public enum SyntheticFont {
+
+	/**
+	 * The printable ASCII range with a few hundred kerning pairs.
+	 */
+	ASCII(0x20, 0x7F, 300),
+	/**
+	 * The printable ASCII, Latin-1 and Latin Extended-A/B ranges with a few thousand kerning pairs.
+	 */
+	LATIN_EXTENDED(0x20, 0x250, 3000),
+	/**
+	 * The CJK Unified Ideographs block without kerning.
+	 */
+	CJK(0x4E00, 0xA000, 0),
+	/**
+	 * The printable ASCII, Latin-1 and Latin Extended-A/B ranges with 50 000 kerning pairs.
+	 */
+	KERNING_HEAVY(0x20, 0x250, 50000);
+
+	private static final int SIZE = 32;
+	private static final int PAGE_SIZE = 1024;
+
+	private final int firstCode;
+	private final int endCode;
+	private final int kernings;
+
+	SyntheticFont(int firstCode, int endCode, int kernings) {
+		this.firstCode = firstCode;
+		this.endCode = endCode;
+		this.kernings = kernings;
+	}
+
+	/**
+	 * Returns the code of the first character in the font.
+	 *
+	 * @return the first character code
+	 */
+	public int getFirstCode() {
+		return firstCode;
+	}
+
+	/**
+	 * Returns the code after the last character in the font.
+	 *
+	 * @return the end character code, exclusive
+	 */
+	public int getEndCode() {
+		return endCode;
+	}
+
+	/**
+	 * Generates the text BMFont data of this font.
+	 *
+	 * @return the generated data
+	 */
+	public String generate() {
+		Random random = new Random(ordinal());
+		int perRow = PAGE_SIZE / SIZE;
+		int perPage = perRow * perRow;
+		int characters = endCode - firstCode;
+		int pages = (characters + perPage - 1) / perPage;
+		StringBuilder builder = new StringBuilder(characters * 120 + kernings * 40);
+		builder.append("info face=\"Synthetic ").append(name()).append("\" size=").append(SIZE)
+				.append(" bold=0 italic=0 charset=\"\" unicode=1 stretchH=100 smooth=1 aa=1 padding=0,0,0,0 spacing=1,1 outline=0\n");
+		builder.append("common lineHeight=").append(SIZE + 4).append(" base=").append(SIZE - 6).append(" scaleW=")
+				.append(PAGE_SIZE).append(" scaleH=").append(PAGE_SIZE).append(" pages=").append(pages)
+				.append(" packed=0 alphaChnl=0 redChnl=4 greenChnl=4 blueChnl=4\n");
+		for (int page = 0; page < pages; page++)
+			builder.append("page id=").append(page).append(" file=\"synthetic_").append(page).append(".png\"\n");
+		builder.append("chars count=").append(characters).append('\n');
+		for (int code = firstCode; code < endCode; code++) {
+			int index = code - firstCode;
+			int cell = index % perPage;
+			builder.append("char id=").append(code);
+			builder.append(" x=").append(cell % perRow * SIZE);
+			builder.append(" y=").append(cell / perRow * SIZE);
+			builder.append(" width=").append(SIZE - 4 - random.nextInt(8));
+			builder.append(" height=").append(SIZE - random.nextInt(8));
+			builder.append(" xoffset=").append(random.nextInt(5) - 2);
+			builder.append(" yoffset=").append(random.nextInt(8));
+			builder.append(" xadvance=").append(SIZE - 6 - random.nextInt(6));
+			builder.append(" page=").append(index / perPage);
+			builder.append(" chnl=15\n");
+		}
+		if (kernings > 0) {
+			builder.append("kernings count=").append(kernings).append('\n');
+			Set<Long> used = new HashSet<>(kernings << 1);
+			while (used.size() < kernings) {
+				int first = firstCode + random.nextInt(characters);
+				int second = firstCode + random.nextInt(characters);
+				if (!used.add((long) first << 32 | second))
+					continue;
+				builder.append("kerning first=").append(first).append(" second=").append(second).append(" amount=")
+						.append(-1 - random.nextInt(4)).append('\n');
+			}
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Generates a sample text made of characters of this font.
+	 *
+	 * @param length the number of characters in the text
+	 *
+	 * @return the generated text
+	 */
+	public String sampleText(int length) {
+		Random random = new Random(ordinal() + 1000);
+		StringBuilder builder = new StringBuilder(length * 2);
+		for (int i = 0; i < length; i++)
+			builder.appendCodePoint(firstCode + random.nextInt(endCode - firstCode));
+		return builder.toString();
+	}
+
+}
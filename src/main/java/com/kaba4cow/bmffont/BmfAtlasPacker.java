@@ -0,0 +1,379 @@
+package com.kaba4cow.bmffont;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Repacks the glyph rectangles of a {@link BmfFont} into as few texture pages of a fixed size as possible. Rectangles are
+ * placed with a skyline packer, tallest first, on the first page where they fit, at the lowest position on that page. Glyph
+ * rectangles already include the padding of the font, and the spacing of the font is kept between neighboring rectangles.
+ * Characters that share a rectangle on the same page, as packed fonts may do in different channels, keep sharing it.
+ * <p>
+ * {@link #pack(BmfFont, String)} creates a repacked copy of a font with new texture coordinates, page indices and page file
+ * names; the source font is not modified. {@link #copyPixels(BmfFont, BmfFont, BmfPage...)} optionally builds the images of the
+ * new pages from the decoded pages of the source font.
+ */
+public class BmfAtlasPacker {
+
+	private final int pageWidth;
+
+	private final int pageHeight;
+
+	/**
+	 * Creates a new atlas packer for pages of the specified size.
+	 *
+	 * @param pageWidth  the width of the pages in pixels
+	 * @param pageHeight the height of the pages in pixels
+	 *
+	 * @throws IllegalArgumentException if the width or height is not positive
+	 */
+	public BmfAtlasPacker(int pageWidth, int pageHeight) {
+		if (pageWidth <= 0 || pageHeight <= 0)
+			throw new IllegalArgumentException(String.format("Invalid page size %sx%s", pageWidth, pageHeight));
+		this.pageWidth = pageWidth;
+		this.pageHeight = pageHeight;
+	}
+
+	/**
+	 * Creates a repacked copy of the specified font. The copy keeps the properties, characters and kernings of the font, with
+	 * the texture coordinates and page of each character rewritten, the scale dimensions set to the page size and one page per
+	 * packed page. Characters with an empty rectangle are moved to the origin of the first page.
+	 *
+	 * @param font     the font to repack
+	 * @param pageName the format of the page file names, passed to {@link String#format(String, Object...)} with the page ID, for
+	 *                 example {@code "font_%d.png"}
+	 *
+	 * @return the repacked font
+	 *
+	 * @throws IllegalArgumentException if a glyph rectangle is larger than a page
+	 */
+	public BmfFont pack(BmfFont font, String pageName) {
+		Objects.requireNonNull(font, "Font must not be null");
+		Objects.requireNonNull(pageName, "Page name must not be null");
+		Collection<BmfCharacter> characters = font.getCharacters();
+		int[] spacing = font.getSpacing();
+		int spacingX = Math.max(spacing.length > 0 ? spacing[0] : 0, 0);
+		int spacingY = Math.max(spacing.length > 1 ? spacing[1] : 0, 0);
+
+		Map<Rectangle, Rectangle> unique = new HashMap<>();
+		Rectangle[] rectangles = new Rectangle[characters.size()];
+		int index = 0;
+		for (BmfCharacter character : characters) {
+			Rectangle rectangle = new Rectangle(character);
+			if (rectangle.width > pageWidth || rectangle.height > pageHeight)
+				throw new IllegalArgumentException(String.format("Glyph of character %s with size %sx%s does not fit on a %sx%s page",
+						character.getId(), rectangle.width, rectangle.height, pageWidth, pageHeight));
+			rectangles[index++] = unique.computeIfAbsent(rectangle, key -> key);
+		}
+		Rectangle[] order = unique.keySet().toArray(new Rectangle[0]);
+		Arrays.sort(order, (a, b) -> a.height != b.height ? Integer.compare(b.height, a.height)
+				: a.width != b.width ? Integer.compare(b.width, a.width) : Integer.compare(a.id, b.id));
+
+		Skyline[] pages = new Skyline[1];
+		int pageCount = 0;
+		for (Rectangle rectangle : order) {
+			if (rectangle.width == 0 || rectangle.height == 0)
+				continue;
+			int width = rectangle.width + spacingX;
+			int height = rectangle.height + spacingY;
+			int page = 0;
+			while (page < pageCount && !pages[page].insert(width, height, rectangle))
+				page++;
+			if (page == pageCount) {
+				if (pageCount == pages.length)
+					pages = Arrays.copyOf(pages, pageCount * 2);
+				pages[pageCount++] = new Skyline(pageWidth + spacingX, pageHeight + spacingY);
+				pages[page].insert(width, height, rectangle);
+			}
+			rectangle.packedPage = page;
+		}
+		if (pageCount == 0 && rectangles.length > 0)
+			pageCount = 1;
+
+		BmfFont packed = new BmfFont().copyProperties(font);
+		packed.getScaleDimensions().setWidth(pageWidth).setHeight(pageHeight);
+		for (int page = 0; page < pageCount; page++)
+			packed.addPage(page, String.format(pageName, page));
+		index = 0;
+		for (BmfCharacter character : characters) {
+			Rectangle rectangle = rectangles[index++];
+			BmfCoordinates offsetCoordinates = character.getOffsetCoordinates();
+			packed.addCharacter(BmfFontBuilder.createCharacter(character.getId(), rectangle.packedX, rectangle.packedY,
+					rectangle.width, rectangle.height, offsetCoordinates.getX(), offsetCoordinates.getY(), character.getAdvance(),
+					rectangle.packedPage, character.getChannel()));
+		}
+		for (BmfKerning kerning : font.getKernings())
+			packed.addKerning(new BmfKerning(kerning.getFirst(), kerning.getSecond()).setAmount(kerning.getAmount()));
+		return packed;
+	}
+
+	/**
+	 * Builds the pages of a repacked font by copying the glyph rectangles of each character from the decoded pages of its
+	 * source font. Only the channels of a character are copied, so characters sharing a rectangle in different channels keep
+	 * their pixels. Pixels of source pages without an alpha channel take their alpha from their luminance. Parts of a glyph
+	 * outside of its source page, and pixels not covered by any glyph, are transparent.
+	 *
+	 * @param source the font that was repacked
+	 * @param packed the font created from it by {@link #pack(BmfFont, String)}
+	 * @param pages  the decoded pages of the source font, indexed by page ID
+	 *
+	 * @return the images of the pages of the repacked font, of type {@link BufferedImage#TYPE_INT_ARGB}
+	 *
+	 * @throws IllegalArgumentException if a character of the source font is missing from the repacked font, or a source page
+	 *                                  is missing
+	 * @throws IllegalStateException    if a page handle is closed
+	 */
+	public BufferedImage[] copyPixels(BmfFont source, BmfFont packed, BmfPage... pages) {
+		Objects.requireNonNull(source, "Source font must not be null");
+		Objects.requireNonNull(packed, "Packed font must not be null");
+		Objects.requireNonNull(pages, "Pages must not be null");
+		BufferedImage[] images = new BufferedImage[packed.getPages().size()];
+		int[][] targets = new int[images.length][];
+		for (int page = 0; page < images.length; page++) {
+			images[page] = new BufferedImage(pageWidth, pageHeight, BufferedImage.TYPE_INT_ARGB);
+			targets[page] = ((DataBufferInt) images[page].getRaster().getDataBuffer()).getData();
+		}
+		ByteBuffer[] pixels = new ByteBuffer[pages.length];
+		byte[] row = new byte[0];
+		for (BmfCharacter character : source.getCharacters()) {
+			BmfCharacter target = packed.getCharacter(character.getId());
+			if (Objects.isNull(target))
+				throw new IllegalArgumentException(
+						String.format("Character %s is missing from the packed font", character.getId()));
+			int page = character.getPage();
+			BmfCoordinates sourceCoordinates = character.getTextureCoordinates();
+			BmfCoordinates targetCoordinates = target.getTextureCoordinates();
+			BmfDimensions dimensions = character.getTextureDimensions();
+			if (dimensions.getWidth() <= 0 || dimensions.getHeight() <= 0)
+				continue;
+			if (page < 0 || page >= pages.length || Objects.isNull(pages[page]))
+				throw new IllegalArgumentException(
+						String.format("Page %s of character %s is missing", page, character.getId()));
+			if (Objects.isNull(pixels[page]))
+				pixels[page] = pages[page].getPixels();
+			int sourceWidth = pages[page].getWidth();
+			int sourceX = sourceCoordinates.getX();
+			int sourceY = sourceCoordinates.getY();
+			int from = Math.max(-sourceX, 0);
+			int to = Math.min(dimensions.getWidth(), sourceWidth - sourceX);
+			int top = Math.max(-sourceY, 0);
+			int bottom = Math.min(Math.min(dimensions.getHeight(), pages[page].getHeight() - sourceY),
+					pageHeight - targetCoordinates.getY());
+			to = Math.min(to, pageWidth - targetCoordinates.getX());
+			if (from >= to || top >= bottom)
+				continue;
+			int mask = channelMask(character.getChannel());
+			int[] data = targets[target.getPage()];
+			if (row.length < (to - from) * BmfPage.BYTES_PER_PIXEL)
+				row = new byte[(to - from) * BmfPage.BYTES_PER_PIXEL];
+			ByteBuffer buffer = pixels[page];
+			boolean alpha = pages[page].hasAlpha();
+			for (int line = top; line < bottom; line++) {
+				buffer.position(((sourceY + line) * sourceWidth + sourceX + from) * BmfPage.BYTES_PER_PIXEL);
+				buffer.get(row, 0, (to - from) * BmfPage.BYTES_PER_PIXEL);
+				int offset = (targetCoordinates.getY() + line) * pageWidth + targetCoordinates.getX() + from;
+				for (int i = 0, s = 0; i < to - from; i++, s += BmfPage.BYTES_PER_PIXEL) {
+					int a = alpha ? row[s + 3] & 0xFF : BmfImageReader.luminance(row, s);
+					int argb = a << 24 | (row[s] & 0xFF) << 16 | (row[s + 1] & 0xFF) << 8 | row[s + 2] & 0xFF;
+					data[offset + i] = data[offset + i] & ~mask | argb & mask;
+				}
+			}
+		}
+		return images;
+	}
+
+	private static int channelMask(int channel) {
+		int mask = 0;
+		if ((channel & 1) != 0)
+			mask |= 0x000000FF;
+		if ((channel & 2) != 0)
+			mask |= 0x0000FF00;
+		if ((channel & 4) != 0)
+			mask |= 0x00FF0000;
+		if ((channel & 8) != 0)
+			mask |= 0xFF000000;
+		return mask == 0 ? 0xFFFFFFFF : mask;
+	}
+
+	/**
+	 * Returns the width of the pages.
+	 *
+	 * @return the width in pixels
+	 */
+	public int getPageWidth() {
+		return pageWidth;
+	}
+
+	/**
+	 * Returns the height of the pages.
+	 *
+	 * @return the height in pixels
+	 */
+	public int getPageHeight() {
+		return pageHeight;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("BmfAtlasPacker [pageWidth=%s, pageHeight=%s]", pageWidth, pageHeight);
+	}
+
+	private static final class Rectangle {
+
+		final int id;
+
+		final int page;
+
+		final int x;
+
+		final int y;
+
+		final int width;
+
+		final int height;
+
+		int packedX;
+
+		int packedY;
+
+		int packedPage;
+
+		Rectangle(BmfCharacter character) {
+			this.id = character.getId();
+			this.page = character.getPage();
+			this.x = character.getTextureCoordinates().getX();
+			this.y = character.getTextureCoordinates().getY();
+			this.width = Math.max(character.getTextureDimensions().getWidth(), 0);
+			this.height = Math.max(character.getTextureDimensions().getHeight(), 0);
+		}
+
+		@Override
+		public int hashCode() {
+			return (((page * 31 + x) * 31 + y) * 31 + width) * 31 + height;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof Rectangle))
+				return false;
+			Rectangle other = (Rectangle) obj;
+			return page == other.page && x == other.x && y == other.y && width == other.width && height == other.height;
+		}
+
+	}
+
+	/**
+	 * A bottom-left skyline of one page: the tops of the placed rectangles as a list of horizontal segments from left to right.
+	 */
+	private static final class Skyline {
+
+		private final int width;
+
+		private final int height;
+
+		private int[] segmentX;
+
+		private int[] segmentY;
+
+		private int[] segmentWidth;
+
+		private int segments;
+
+		Skyline(int width, int height) {
+			this.width = width;
+			this.height = height;
+			this.segmentX = new int[16];
+			this.segmentY = new int[16];
+			this.segmentWidth = new int[16];
+			this.segmentWidth[0] = width;
+			this.segments = 1;
+		}
+
+		boolean insert(int rectangleWidth, int rectangleHeight, Rectangle rectangle) {
+			int best = -1;
+			int bestTop = Integer.MAX_VALUE;
+			int bestWidth = Integer.MAX_VALUE;
+			for (int segment = 0; segment < segments; segment++) {
+				int y = fit(segment, rectangleWidth, rectangleHeight);
+				if (y < 0)
+					continue;
+				int top = y + rectangleHeight;
+				if (top < bestTop || top == bestTop && segmentWidth[segment] < bestWidth) {
+					best = segment;
+					bestTop = top;
+					bestWidth = segmentWidth[segment];
+				}
+			}
+			if (best < 0)
+				return false;
+			rectangle.packedX = segmentX[best];
+			rectangle.packedY = bestTop - rectangleHeight;
+			add(best, rectangleWidth, bestTop);
+			return true;
+		}
+
+		private int fit(int segment, int rectangleWidth, int rectangleHeight) {
+			int x = segmentX[segment];
+			if (x + rectangleWidth > width)
+				return -1;
+			int y = 0;
+			int remaining = rectangleWidth;
+			for (int i = segment; remaining > 0; i++) {
+				y = Math.max(y, segmentY[i]);
+				if (y + rectangleHeight > height)
+					return -1;
+				remaining -= segmentWidth[i];
+			}
+			return y;
+		}
+
+		private void add(int segment, int rectangleWidth, int top) {
+			if (segments == segmentX.length) {
+				segmentX = Arrays.copyOf(segmentX, segments * 2);
+				segmentY = Arrays.copyOf(segmentY, segments * 2);
+				segmentWidth = Arrays.copyOf(segmentWidth, segments * 2);
+			}
+			int x = segmentX[segment];
+			System.arraycopy(segmentX, segment, segmentX, segment + 1, segments - segment);
+			System.arraycopy(segmentY, segment, segmentY, segment + 1, segments - segment);
+			System.arraycopy(segmentWidth, segment, segmentWidth, segment + 1, segments - segment);
+			segments++;
+			segmentX[segment] = x;
+			segmentY[segment] = top;
+			segmentWidth[segment] = rectangleWidth;
+			int end = x + rectangleWidth;
+			int next = segment + 1;
+			while (next < segments && segmentX[next] < end) {
+				int shrink = Math.min(end - segmentX[next], segmentWidth[next]);
+				segmentX[next] += shrink;
+				segmentWidth[next] -= shrink;
+				if (segmentWidth[next] > 0)
+					break;
+				remove(next);
+			}
+			for (int i = 0; i + 1 < segments;)
+				if (segmentY[i] == segmentY[i + 1]) {
+					segmentWidth[i] += segmentWidth[i + 1];
+					remove(i + 1);
+				} else
+					i++;
+		}
+
+		private void remove(int segment) {
+			segments--;
+			System.arraycopy(segmentX, segment + 1, segmentX, segment, segments - segment);
+			System.arraycopy(segmentY, segment + 1, segmentY, segment, segments - segment);
+			System.arraycopy(segmentWidth, segment + 1, segmentWidth, segment, segments - segment);
+		}
+
+	}
+
+}
@@ -0,0 +1,201 @@
+package com.kaba4cow.bmffont;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Decodes the binary BMFont format (version 3). The data consists of the {@code BMF} magic, a version byte and a sequence of
+ * typed blocks, each prefixed with its type and its size in bytes. All values are little-endian.
+ */
+final class BmfBinaryReader {
+
+	static final int VERSION = 3;
+
+	static final int BLOCK_INFO = 1;
+	static final int BLOCK_COMMON = 2;
+	static final int BLOCK_PAGES = 3;
+	static final int BLOCK_CHARS = 4;
+	static final int BLOCK_KERNINGS = 5;
+
+	static final int CHAR_SIZE = 20;
+	static final int KERNING_SIZE = 10;
+
+	private BmfBinaryReader() {}
+
+	/**
+	 * Checks whether the data at the current position of the specified buffer starts with the binary BMFont magic. The
+	 * position of the buffer is not changed.
+	 *
+	 * @param buffer the buffer to check
+	 *
+	 * @return {@code true} if the buffer contains binary BMFont data, {@code false} otherwise
+	 */
+	static boolean isBinary(ByteBuffer buffer) {
+		int position = buffer.position();
+		return buffer.remaining() >= 4 && buffer.get(position) == 'B' && buffer.get(position + 1) == 'M'
+				&& buffer.get(position + 2) == 'F';
+	}
+
+	/**
+	 * Decodes the binary BMFont data from the current position of the specified buffer and reports its contents to the
+	 * listener. The position of the buffer is not changed.
+	 *
+	 * @param source   the buffer to read from
+	 * @param listener the listener to report to
+	 *
+	 * @throws IOException if the data is malformed or has an unsupported version
+	 */
+	static void read(ByteBuffer source, BmfParseListener listener) throws IOException {
+		ByteBuffer buffer = source.slice().order(ByteOrder.LITTLE_ENDIAN);
+		readHeader(buffer);
+		while (buffer.remaining() >= 5) {
+			int type = buffer.get() & 0xFF;
+			int size = buffer.getInt();
+			int start = buffer.position();
+			if (size < 0 || size > buffer.remaining())
+				throw new IOException(String.format("Truncated binary BMFont block %s", type));
+			switch (type) {
+				case BLOCK_CHARS:
+					for (int i = size / CHAR_SIZE; i > 0; i--)
+						readCharacter(buffer, listener);
+					break;
+				case BLOCK_KERNINGS:
+					for (int i = size / KERNING_SIZE; i > 0; i--)
+						readKerning(buffer, listener);
+					break;
+				default:
+					readBlock(type, buffer, start + size, listener);
+					break;
+			}
+			buffer.position(start + size);
+		}
+	}
+
+	/**
+	 * Reads and validates the magic and the version at the current position of the specified buffer.
+	 *
+	 * @param buffer the buffer to read from
+	 *
+	 * @throws IOException if the header is missing or has an unsupported version
+	 */
+	static void readHeader(ByteBuffer buffer) throws IOException {
+		if (!isBinary(buffer))
+			throw new IOException("Missing binary BMFont header");
+		buffer.position(buffer.position() + 3);
+		int version = buffer.get() & 0xFF;
+		if (version != VERSION)
+			throw new IOException(String.format("Unsupported binary BMFont version %s", version));
+	}
+
+	/**
+	 * Reads the info, common or pages block at the current position of the specified buffer and reports its contents to the
+	 * listener. Blocks of other types are ignored.
+	 *
+	 * @param type     the block type
+	 * @param buffer   the buffer to read from, in little-endian order
+	 * @param end      the position of the end of the block
+	 * @param listener the listener to report to
+	 *
+	 * @throws IOException if the block is truncated
+	 */
+	static void readBlock(int type, ByteBuffer buffer, int end, BmfParseListener listener) throws IOException {
+		try {
+			switch (type) {
+				case BLOCK_INFO:
+					readInfo(buffer, end, listener);
+					break;
+				case BLOCK_COMMON:
+					readCommon(buffer, listener);
+					break;
+				case BLOCK_PAGES:
+					readPages(buffer, end, listener);
+					break;
+				default:
+					break;
+			}
+		} catch (BufferUnderflowException exception) {
+			throw new IOException(String.format("Truncated binary BMFont block %s", type));
+		}
+	}
+
+	/**
+	 * Reads a character record at the current position of the specified buffer and reports it to the listener.
+	 *
+	 * @param buffer   the buffer to read from, in little-endian order
+	 * @param listener the listener to report to
+	 */
+	static void readCharacter(ByteBuffer buffer, BmfParseListener listener) {
+		int id = buffer.getInt();
+		int x = buffer.getShort() & 0xFFFF;
+		int y = buffer.getShort() & 0xFFFF;
+		int width = buffer.getShort() & 0xFFFF;
+		int height = buffer.getShort() & 0xFFFF;
+		int offsetX = buffer.getShort();
+		int offsetY = buffer.getShort();
+		int advance = buffer.getShort();
+		int page = buffer.get() & 0xFF;
+		int channel = buffer.get() & 0xFF;
+		listener.onChar(id, x, y, width, height, offsetX, offsetY, advance, page, channel);
+	}
+
+	/**
+	 * Reads a kerning record at the current position of the specified buffer and reports it to the listener.
+	 *
+	 * @param buffer   the buffer to read from, in little-endian order
+	 * @param listener the listener to report to
+	 */
+	static void readKerning(ByteBuffer buffer, BmfParseListener listener) {
+		int first = buffer.getInt();
+		int second = buffer.getInt();
+		listener.onKerning(first, second, buffer.getShort());
+	}
+
+	private static void readInfo(ByteBuffer buffer, int end, BmfParseListener listener) {
+		int size = buffer.getShort();
+		int flags = buffer.get() & 0xFF;
+		boolean unicode = (flags & 0x40) != 0;
+		int charset = buffer.get() & 0xFF;
+		int stretchH = buffer.getShort() & 0xFFFF;
+		boolean antiAliased = (buffer.get() & 0xFF) != 0;
+		int[] padding = new int[4];
+		for (int i = 0; i < padding.length; i++)
+			padding[i] = buffer.get() & 0xFF;
+		int[] spacing = new int[2];
+		for (int i = 0; i < spacing.length; i++)
+			spacing[i] = buffer.get() & 0xFF;
+		buffer.get();
+		String face = readString(buffer, end);
+		listener.onInfo(face, size, (flags & 0x10) != 0, (flags & 0x20) != 0, unicode ? "" : BmfCharsets.name(charset),
+				unicode, stretchH, (flags & 0x80) != 0, antiAliased, padding, spacing);
+	}
+
+	private static void readCommon(ByteBuffer buffer, BmfParseListener listener) {
+		int lineHeight = buffer.getShort() & 0xFFFF;
+		int base = buffer.getShort() & 0xFFFF;
+		int scaleW = buffer.getShort() & 0xFFFF;
+		int scaleH = buffer.getShort() & 0xFFFF;
+		buffer.getShort();
+		listener.onCommon(lineHeight, base, scaleW, scaleH, (buffer.get() & 0x01) != 0);
+	}
+
+	private static void readPages(ByteBuffer buffer, int end, BmfParseListener listener) {
+		int id = 0;
+		while (buffer.position() < end)
+			listener.onPage(id++, readString(buffer, end));
+	}
+
+	private static String readString(ByteBuffer buffer, int end) {
+		int start = buffer.position();
+		int terminator = start;
+		while (terminator < end && buffer.get(terminator) != 0)
+			terminator++;
+		byte[] bytes = new byte[terminator - start];
+		buffer.get(bytes);
+		buffer.position(Math.min(terminator + 1, end));
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+}
@@ -0,0 +1,67 @@
+package com.kaba4cow.bmffont;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A {@link BmfTokenizer} that reads lines of ASCII or UTF-8 text directly from a {@link ByteBuffer}. Bytes are widened into the
+ * line buffer as they are; only the string values are decoded as UTF-8.
+ */
+final class BmfByteBufferTokenizer extends BmfTokenizer {
+
+	private final ByteBuffer buffer;
+
+	private int position;
+
+	private final int limit;
+
+	/**
+	 * Creates a new tokenizer reading the remaining bytes of the specified buffer, skipping a leading UTF-8 byte order mark. The
+	 * position of the buffer is not changed.
+	 *
+	 * @param buffer the buffer to read from
+	 */
+	BmfByteBufferTokenizer(ByteBuffer buffer) {
+		this.buffer = buffer;
+		this.position = buffer.position();
+		this.limit = buffer.limit();
+		if (limit - position >= 3 && buffer.get(position) == (byte) 0xEF && buffer.get(position + 1) == (byte) 0xBB
+				&& buffer.get(position + 2) == (byte) 0xBF)
+			position += 3;
+	}
+
+	/**
+	 * Moves this tokenizer to the specified absolute position of its buffer, so that the next line is read from there.
+	 *
+	 * @param position the position to read the next line from
+	 */
+	void seek(int position) {
+		this.position = position;
+	}
+
+	@Override
+	protected boolean readLine() {
+		length = 0;
+		if (position >= limit)
+			return false;
+		ByteBuffer buffer = this.buffer;
+		int limit = this.limit;
+		while (position < limit) {
+			byte b = buffer.get(position++);
+			if (b == '\n')
+				break;
+			if (b != '\r')
+				append((char) (b & 0xFF));
+		}
+		return true;
+	}
+
+	@Override
+	protected String createString(int start, int end) {
+		byte[] bytes = new byte[end - start];
+		for (int i = 0; i < bytes.length; i++)
+			bytes[i] = (byte) line[start + i];
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+}
@@ -0,0 +1,203 @@
+package com.kaba4cow.bmffont;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Writes bytes to a {@link WritableByteChannel} through a reusable buffer. Integers are written as decimal digits or as
+ * little-endian binary values and strings are encoded as UTF-8 directly into the buffer, without intermediate objects.
+ */
+final class BmfByteSink {
+
+	private static final int BUFFER_SIZE = 8192;
+
+	private final WritableByteChannel channel;
+
+	private final ByteBuffer buffer;
+
+	/**
+	 * Creates a new sink writing to the specified channel.
+	 *
+	 * @param channel the channel to write to
+	 */
+	BmfByteSink(WritableByteChannel channel) {
+		this.channel = channel;
+		this.buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	/**
+	 * Returns the number of bytes the specified string occupies when encoded as UTF-8 by {@link #utf8(String)}. Unpaired
+	 * surrogates count as one byte, since they are written as {@code ?}.
+	 *
+	 * @param string the string to measure
+	 *
+	 * @return the number of bytes
+	 */
+	static int utf8Length(String string) {
+		int length = 0;
+		for (int i = 0; i < string.length(); i++) {
+			char c = string.charAt(i);
+			if (c < 0x80)
+				length += 1;
+			else if (c < 0x800)
+				length += 2;
+			else if (Character.isHighSurrogate(c) && i + 1 < string.length()
+					&& Character.isLowSurrogate(string.charAt(i + 1))) {
+				length += 4;
+				i++;
+			} else if (Character.isSurrogate(c))
+				length += 1;
+			else
+				length += 3;
+		}
+		return length;
+	}
+
+	/**
+	 * Writes a single byte.
+	 *
+	 * @param value the byte to write
+	 *
+	 * @return a reference to this object
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	BmfByteSink write(int value) throws IOException {
+		ensure(1);
+		buffer.put((byte) value);
+		return this;
+	}
+
+	/**
+	 * Writes a string containing only ASCII characters, one byte per character.
+	 *
+	 * @param string the string to write
+	 *
+	 * @return a reference to this object
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	BmfByteSink ascii(String string) throws IOException {
+		for (int i = 0; i < string.length(); i++) {
+			ensure(1);
+			buffer.put((byte) string.charAt(i));
+		}
+		return this;
+	}
+
+	/**
+	 * Writes a string encoded as UTF-8. Unpaired surrogates are written as {@code ?}.
+	 *
+	 * @param string the string to write
+	 *
+	 * @return a reference to this object
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	BmfByteSink utf8(String string) throws IOException {
+		for (int i = 0; i < string.length(); i++) {
+			char c = string.charAt(i);
+			if (c < 0x80)
+				write(c);
+			else if (c < 0x800) {
+				ensure(2);
+				buffer.put((byte) (0xC0 | c >> 6));
+				buffer.put((byte) (0x80 | c & 0x3F));
+			} else if (Character.isSurrogate(c)) {
+				if (Character.isHighSurrogate(c) && i + 1 < string.length()
+						&& Character.isLowSurrogate(string.charAt(i + 1))) {
+					int code = Character.toCodePoint(c, string.charAt(++i));
+					ensure(4);
+					buffer.put((byte) (0xF0 | code >> 18));
+					buffer.put((byte) (0x80 | code >> 12 & 0x3F));
+					buffer.put((byte) (0x80 | code >> 6 & 0x3F));
+					buffer.put((byte) (0x80 | code & 0x3F));
+				} else
+					write('?');
+			} else {
+				ensure(3);
+				buffer.put((byte) (0xE0 | c >> 12));
+				buffer.put((byte) (0x80 | c >> 6 & 0x3F));
+				buffer.put((byte) (0x80 | c & 0x3F));
+			}
+		}
+		return this;
+	}
+
+	/**
+	 * Writes an integer as decimal digits.
+	 *
+	 * @param value the integer to write
+	 *
+	 * @return a reference to this object
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	BmfByteSink decimal(int value) throws IOException {
+		ensure(11);
+		long remaining = value;
+		if (remaining < 0) {
+			buffer.put((byte) '-');
+			remaining = -remaining;
+		}
+		long divisor = 1;
+		while (divisor * 10 <= remaining)
+			divisor *= 10;
+		while (divisor > 0) {
+			buffer.put((byte) ('0' + remaining / divisor));
+			remaining %= divisor;
+			divisor /= 10;
+		}
+		return this;
+	}
+
+	/**
+	 * Writes the lowest 16 bits of an integer in little-endian order.
+	 *
+	 * @param value the integer to write
+	 *
+	 * @return a reference to this object
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	BmfByteSink int16(int value) throws IOException {
+		ensure(2);
+		buffer.putShort((short) value);
+		return this;
+	}
+
+	/**
+	 * Writes an integer in little-endian order.
+	 *
+	 * @param value the integer to write
+	 *
+	 * @return a reference to this object
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	BmfByteSink int32(int value) throws IOException {
+		ensure(4);
+		buffer.putInt(value);
+		return this;
+	}
+
+	/**
+	 * Writes all buffered bytes to the channel.
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	void flush() throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining())
+			channel.write(buffer);
+		buffer.clear();
+	}
+
+	private void ensure(int bytes) throws IOException {
+		if (buffer.remaining() < bytes)
+			flush();
+	}
+
+}
@@ -26,10 +26,22 @@ public class BmfCharacter {
 	 * @param id the unique identifier of the character, typically its ASCII or Unicode value
 	 */
 	public BmfCharacter(int id) {
+		this(id, new BmfCoordinates(), new BmfDimensions(), new BmfCoordinates());
+	}
+
+	/**
+	 * Creates a new bitmap font character with the specified ID and metric objects.
+	 *
+	 * @param id                 the unique identifier of the character
+	 * @param textureCoordinates the texture coordinates
+	 * @param textureDimensions  the texture dimensions
+	 * @param offsetCoordinates  the offset coordinates
+	 */
+	BmfCharacter(int id, BmfCoordinates textureCoordinates, BmfDimensions textureDimensions, BmfCoordinates offsetCoordinates) {
 		this.id = id;
-		this.textureCoordinates = new BmfCoordinates();
-		this.textureDimensions = new BmfDimensions();
-		this.offsetCoordinates = new BmfCoordinates();
+		this.textureCoordinates = textureCoordinates;
+		this.textureDimensions = textureDimensions;
+		this.offsetCoordinates = offsetCoordinates;
 		this.advance = 0;
 		this.page = 0;
 		this.channel = 0;
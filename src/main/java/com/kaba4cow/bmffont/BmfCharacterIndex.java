@@ -0,0 +1,151 @@
+package com.kaba4cow.bmffont;
+
+import java.util.Arrays;
+
+/**
+ * A primitive-keyed lookup table for {@link BmfCharacter} objects. Characters in the Latin-1 range are stored in a dense array
+ * indexed directly by their code; all other characters are stored in an open-addressing hash table.
+ */
+final class BmfCharacterIndex {
+
+	private static final int DENSE_SIZE = 256;
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	private final BmfCharacter[] dense;
+
+	private int[] keys;
+
+	private BmfCharacter[] values;
+
+	private int sparseSize;
+
+	private int mask;
+
+	/**
+	 * Creates a new empty character index.
+	 */
+	BmfCharacterIndex() {
+		this.dense = new BmfCharacter[DENSE_SIZE];
+		this.keys = new int[INITIAL_CAPACITY];
+		this.values = new BmfCharacter[INITIAL_CAPACITY];
+		this.sparseSize = 0;
+		this.mask = INITIAL_CAPACITY - 1;
+	}
+
+	private static int hash(int key) {
+		int h = key * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * Returns the character with the specified code, or {@code null} if not found.
+	 *
+	 * @param code the character code
+	 *
+	 * @return the {@link BmfCharacter}, or {@code null} if not found
+	 */
+	BmfCharacter get(int code) {
+		if ((code & ~(DENSE_SIZE - 1)) == 0)
+			return dense[code];
+		int[] keys = this.keys;
+		BmfCharacter[] values = this.values;
+		int mask = this.mask;
+		int slot = hash(code) & mask;
+		BmfCharacter value;
+		while ((value = values[slot]) != null) {
+			if (keys[slot] == code)
+				return value;
+			slot = (slot + 1) & mask;
+		}
+		return null;
+	}
+
+	/**
+	 * Puts a character into this index, replacing any character with the same code.
+	 *
+	 * @param character the character to put
+	 */
+	void put(BmfCharacter character) {
+		int code = character.getId();
+		if ((code & ~(DENSE_SIZE - 1)) == 0) {
+			dense[code] = character;
+			return;
+		}
+		if (sparseSize >= (values.length >> 1) + (values.length >> 2))
+			resize(values.length << 1);
+		int slot = hash(code) & mask;
+		while (values[slot] != null) {
+			if (keys[slot] == code) {
+				values[slot] = character;
+				return;
+			}
+			slot = (slot + 1) & mask;
+		}
+		keys[slot] = code;
+		values[slot] = character;
+		sparseSize++;
+	}
+
+	/**
+	 * Removes the character with the specified code.
+	 *
+	 * @param code the character code
+	 */
+	void remove(int code) {
+		if ((code & ~(DENSE_SIZE - 1)) == 0) {
+			dense[code] = null;
+			return;
+		}
+		int slot = hash(code) & mask;
+		while (values[slot] != null) {
+			if (keys[slot] == code) {
+				shift(slot);
+				sparseSize--;
+				return;
+			}
+			slot = (slot + 1) & mask;
+		}
+	}
+
+	/**
+	 * Removes all characters from this index.
+	 */
+	void clear() {
+		Arrays.fill(dense, null);
+		Arrays.fill(values, null);
+		sparseSize = 0;
+	}
+
+	private void shift(int slot) {
+		int mask = this.mask;
+		int next = (slot + 1) & mask;
+		while (values[next] != null) {
+			int home = hash(keys[next]) & mask;
+			if (((next - home) & mask) >= ((next - slot) & mask)) {
+				keys[slot] = keys[next];
+				values[slot] = values[next];
+				slot = next;
+			}
+			next = (next + 1) & mask;
+		}
+		values[slot] = null;
+	}
+
+	private void resize(int capacity) {
+		int[] oldKeys = keys;
+		BmfCharacter[] oldValues = values;
+		keys = new int[capacity];
+		values = new BmfCharacter[capacity];
+		mask = capacity - 1;
+		for (int i = 0; i < oldValues.length; i++)
+			if (oldValues[i] != null) {
+				int slot = hash(oldKeys[i]) & mask;
+				while (values[slot] != null)
+					slot = (slot + 1) & mask;
+				keys[slot] = oldKeys[i];
+				values[slot] = oldValues[i];
+			}
+	}
+
+}
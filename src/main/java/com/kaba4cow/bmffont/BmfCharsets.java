@@ -0,0 +1,49 @@
+package com.kaba4cow.bmffont;
+
+/**
+ * Maps between the character set names used by the text and XML BMFont formats and the Windows character set identifiers used
+ * by the binary format.
+ */
+final class BmfCharsets {
+
+	private static final String[] NAMES = { "ANSI", "DEFAULT", "SYMBOL", "MAC", "SHIFTJIS", "HANGUL", "JOHAB", "GB2312",
+			"CHINESEBIG5", "GREEK", "TURKISH", "VIETNAMESE", "HEBREW", "ARABIC", "BALTIC", "RUSSIAN", "THAI", "EASTEUROPE",
+			"OEM" };
+
+	private static final int[] IDS = { 0, 1, 2, 77, 128, 129, 130, 134, 136, 161, 162, 163, 177, 178, 186, 204, 222, 238, 255 };
+
+	private BmfCharsets() {}
+
+	/**
+	 * Returns the name of the character set with the specified identifier.
+	 *
+	 * @param id the character set identifier
+	 *
+	 * @return the character set name, or the identifier as a decimal string if it is not known
+	 */
+	static String name(int id) {
+		for (int i = 0; i < IDS.length; i++)
+			if (IDS[i] == id)
+				return NAMES[i];
+		return Integer.toString(id);
+	}
+
+	/**
+	 * Returns the identifier of the character set with the specified name.
+	 *
+	 * @param name the character set name
+	 *
+	 * @return the character set identifier, or {@code 0} if the name is not known
+	 */
+	static int id(String name) {
+		for (int i = 0; i < NAMES.length; i++)
+			if (NAMES[i].equalsIgnoreCase(name))
+				return IDS[i];
+		try {
+			return Integer.parseInt(name) & 0xFF;
+		} catch (NumberFormatException exception) {
+			return 0;
+		}
+	}
+
+}
@@ -0,0 +1,284 @@
+package com.kaba4cow.bmffont;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link BmfMetrics} that sum all events into in-memory counters, for tests and for exporting to a monitoring system
+ * periodically. Missing characters are counted per code point, and {@link #getTopMissingCharacters(int)} returns the most
+ * frequently missing ones, which tells which characters a font subset lacks. The counters may be updated and read by any
+ * number of threads.
+ */
+public class BmfCountingMetrics implements BmfMetrics {
+
+	private final LongAdder parses;
+	private final LongAdder bytes;
+	private final LongAdder durationNanos;
+	private final LongAdder characters;
+	private final LongAdder kernings;
+
+	private final LongAdder infoLines;
+	private final LongAdder commonLines;
+	private final LongAdder pageLines;
+	private final LongAdder charLines;
+	private final LongAdder kerningLines;
+	private final LongAdder otherLines;
+
+	private final Map<Integer, LongAdder> missingCharacters;
+	private final LongAdder missingLookups;
+
+	private final LongAdder kerningLookups;
+	private final LongAdder kerningHits;
+
+	/**
+	 * Creates new counting metrics with all counters at zero.
+	 */
+	public BmfCountingMetrics() {
+		this.parses = new LongAdder();
+		this.bytes = new LongAdder();
+		this.durationNanos = new LongAdder();
+		this.characters = new LongAdder();
+		this.kernings = new LongAdder();
+		this.infoLines = new LongAdder();
+		this.commonLines = new LongAdder();
+		this.pageLines = new LongAdder();
+		this.charLines = new LongAdder();
+		this.kerningLines = new LongAdder();
+		this.otherLines = new LongAdder();
+		this.missingCharacters = new ConcurrentHashMap<>();
+		this.missingLookups = new LongAdder();
+		this.kerningLookups = new LongAdder();
+		this.kerningHits = new LongAdder();
+	}
+
+	@Override
+	public void onParse(long bytes, long durationNanos, int characters, int kernings) {
+		this.parses.increment();
+		this.bytes.add(bytes);
+		this.durationNanos.add(durationNanos);
+		this.characters.add(characters);
+		this.kernings.add(kernings);
+	}
+
+	@Override
+	public void onTextLines(int infoLines, int commonLines, int pageLines, int charLines, int kerningLines, int otherLines) {
+		this.infoLines.add(infoLines);
+		this.commonLines.add(commonLines);
+		this.pageLines.add(pageLines);
+		this.charLines.add(charLines);
+		this.kerningLines.add(kerningLines);
+		this.otherLines.add(otherLines);
+	}
+
+	@Override
+	public void onMissingCharacter(int code) {
+		missingLookups.increment();
+		missingCharacters.computeIfAbsent(code, key -> new LongAdder()).increment();
+	}
+
+	@Override
+	public void onKerningLookup(int first, int second, boolean hit) {
+		kerningLookups.increment();
+		if (hit)
+			kerningHits.increment();
+	}
+
+	/**
+	 * Returns the number of parsed fonts.
+	 *
+	 * @return the number of parses
+	 */
+	public long getParseCount() {
+		return parses.sum();
+	}
+
+	/**
+	 * Returns the total number of parsed bytes, counting characters for {@link java.io.Reader} and {@link String} sources.
+	 *
+	 * @return the number of bytes
+	 */
+	public long getBytesParsed() {
+		return bytes.sum();
+	}
+
+	/**
+	 * Returns the total duration of all parses.
+	 *
+	 * @return the duration in nanoseconds
+	 */
+	public long getParseNanos() {
+		return durationNanos.sum();
+	}
+
+	/**
+	 * Returns the total number of characters in all parsed fonts.
+	 *
+	 * @return the number of characters
+	 */
+	public long getCharacterCount() {
+		return characters.sum();
+	}
+
+	/**
+	 * Returns the total number of kernings in all parsed fonts.
+	 *
+	 * @return the number of kernings
+	 */
+	public long getKerningCount() {
+		return kernings.sum();
+	}
+
+	/**
+	 * Returns the number of parsed {@code info} lines.
+	 *
+	 * @return the number of lines
+	 */
+	public long getInfoLines() {
+		return infoLines.sum();
+	}
+
+	/**
+	 * Returns the number of parsed {@code common} lines.
+	 *
+	 * @return the number of lines
+	 */
+	public long getCommonLines() {
+		return commonLines.sum();
+	}
+
+	/**
+	 * Returns the number of parsed {@code page} lines.
+	 *
+	 * @return the number of lines
+	 */
+	public long getPageLines() {
+		return pageLines.sum();
+	}
+
+	/**
+	 * Returns the number of parsed {@code char} lines.
+	 *
+	 * @return the number of lines
+	 */
+	public long getCharLines() {
+		return charLines.sum();
+	}
+
+	/**
+	 * Returns the number of parsed {@code kerning} lines.
+	 *
+	 * @return the number of lines
+	 */
+	public long getKerningLines() {
+		return kerningLines.sum();
+	}
+
+	/**
+	 * Returns the number of parsed lines with other tags.
+	 *
+	 * @return the number of lines
+	 */
+	public long getOtherLines() {
+		return otherLines.sum();
+	}
+
+	/**
+	 * Returns the total number of lookups of missing characters.
+	 *
+	 * @return the number of lookups
+	 */
+	public long getMissingCharacterLookups() {
+		return missingLookups.sum();
+	}
+
+	/**
+	 * Returns the number of lookups of the missing character with the specified code.
+	 *
+	 * @param code the character code
+	 *
+	 * @return the number of lookups
+	 */
+	public long getMissingCharacterLookups(int code) {
+		LongAdder counter = missingCharacters.get(code);
+		return counter == null ? 0L : counter.sum();
+	}
+
+	/**
+	 * Returns the codes of the most frequently missing characters, ordered by descending number of lookups and then by code.
+	 *
+	 * @param limit the maximum number of codes to return
+	 *
+	 * @return the codes of the missing characters
+	 */
+	public int[] getTopMissingCharacters(int limit) {
+		List<long[]> entries = new ArrayList<>(missingCharacters.size());
+		for (Map.Entry<Integer, LongAdder> entry : missingCharacters.entrySet())
+			entries.add(new long[] { entry.getKey(), entry.getValue().sum() });
+		entries.sort((a, b) -> a[1] != b[1] ? Long.compare(b[1], a[1]) : Long.compare(a[0], b[0]));
+		int[] codes = new int[Math.max(0, Math.min(limit, entries.size()))];
+		for (int i = 0; i < codes.length; i++)
+			codes[i] = (int) entries.get(i)[0];
+		return codes;
+	}
+
+	/**
+	 * Returns the number of kerning lookups.
+	 *
+	 * @return the number of lookups
+	 */
+	public long getKerningLookups() {
+		return kerningLookups.sum();
+	}
+
+	/**
+	 * Returns the number of kerning lookups that found a kerning.
+	 *
+	 * @return the number of hits
+	 */
+	public long getKerningHits() {
+		return kerningHits.sum();
+	}
+
+	/**
+	 * Returns the fraction of kerning lookups that found a kerning.
+	 *
+	 * @return the hit rate between {@code 0} and {@code 1}, or {@code 0} if there were no lookups
+	 */
+	public double getKerningHitRate() {
+		long lookups = kerningLookups.sum();
+		return lookups == 0L ? 0.0 : (double) kerningHits.sum() / lookups;
+	}
+
+	/**
+	 * Resets all counters to zero. Events reported concurrently with a reset may be partially counted.
+	 */
+	public void reset() {
+		parses.reset();
+		bytes.reset();
+		durationNanos.reset();
+		characters.reset();
+		kernings.reset();
+		infoLines.reset();
+		commonLines.reset();
+		pageLines.reset();
+		charLines.reset();
+		kerningLines.reset();
+		otherLines.reset();
+		missingCharacters.clear();
+		missingLookups.reset();
+		kerningLookups.reset();
+		kerningHits.reset();
+	}
+
+	@Override
+	public String toString() {
+		return String.format(
+				"BmfCountingMetrics [parses=%s, bytes=%s, parseNanos=%s, characters=%s, kernings=%s, missingLookups=%s, kerningLookups=%s, kerningHitRate=%s]",
+				getParseCount(), getBytesParsed(), getParseNanos(), getCharacterCount(), getKerningCount(),
+				getMissingCharacterLookups(), getKerningLookups(), getKerningHitRate());
+	}
+
+}
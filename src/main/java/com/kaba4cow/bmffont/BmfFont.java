@@ -7,20 +7,37 @@ import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.function.IntConsumer;
 
 /**
  * Represents a bitmap font with all its properties and character data. This class holds information about the font's
  * appearance, metrics, and character mappings.
+ * <p>
+ * Fonts created by {@link BmfParser#parseLazy(java.nio.file.Path, BmfFont)} decode each character when it is first requested
+ * and all kernings when they are first accessed, so even read operations may modify their internal state. Decoding is
+ * synchronized on the font, so a lazily parsed font can be read by several threads at the same time like any other font.
+ * Character lookups only take the lock to decode a pending character; characters that are already decoded are found without
+ * locking. A malformed {@code char} or {@code kerning} line is only detected when it is decoded, and is reported by an
+ * {@link java.io.UncheckedIOException} thrown from the read operation that decodes it.
  */
-public class BmfFont {
+public class BmfFont implements BmfFontView {
 
 	private final Map<Integer, BmfCharacter> characters;
 
+	private volatile BmfCharacterIndex characterIndex;
+
 	private final Set<BmfKerning> kernings;
 
+	private final BmfKerningIndex kerningIndex;
+
+	private volatile BmfLazyCharacters lazyCharacters;
+
+	private volatile BmfLazyCharacters lazyKernings;
+
 	private final List<String> pages;
 
 	private String face;
@@ -44,12 +61,18 @@ public class BmfFont {
 	private boolean antiAliased;
 	private boolean packed;
 
+	private BmfMetrics metrics;
+
 	/**
 	 * Creates a new empty bitmap font with default values.
 	 */
 	public BmfFont() {
 		this.characters = new TreeMap<>();
+		this.characterIndex = new BmfCharacterIndex();
 		this.kernings = new LinkedHashSet<>();
+		this.kerningIndex = new BmfKerningIndex();
+		this.lazyCharacters = null;
+		this.lazyKernings = null;
 		this.pages = new ArrayList<>();
 		this.face = "";
 		this.charset = "";
@@ -66,6 +89,7 @@ public class BmfFont {
 		this.smooth = false;
 		this.antiAliased = false;
 		this.packed = false;
+		this.metrics = BmfMetrics.NONE;
 	}
 
 	/**
@@ -73,7 +97,9 @@ public class BmfFont {
 	 *
 	 * @return an unmodifiable map of character codes to {@link BmfCharacter} objects
 	 */
+	@Override
 	public Map<Integer, BmfCharacter> getCharacterMap() {
+		materializeCharacters();
 		return Collections.unmodifiableMap(characters);
 	}
 
@@ -82,7 +108,9 @@ public class BmfFont {
 	 *
 	 * @return an unmodifiable set of character codes
 	 */
+	@Override
 	public Set<Integer> getCharacterCodes() {
+		materializeCharacters();
 		return Collections.unmodifiableSet(characters.keySet());
 	}
 
@@ -91,7 +119,9 @@ public class BmfFont {
 	 *
 	 * @return an unmodifiable collection of {@link BmfCharacter} objects
 	 */
+	@Override
 	public Collection<BmfCharacter> getCharacters() {
+		materializeCharacters();
 		return Collections.unmodifiableCollection(characters.values());
 	}
 
@@ -102,19 +132,30 @@ public class BmfFont {
 	 * 
 	 * @return {@code true} if the character exists, {@code false} otherwise
 	 */
+	@Override
 	public boolean hasCharacter(int code) {
-		return characters.containsKey(Integer.valueOf(code));
+		BmfLazyCharacters lazy = lazyCharacters;
+		if (characterIndex.get(code) != null)
+			return true;
+		return Objects.nonNull(lazy) && (lazy.contains(code) || lazy.get(code) != null);
 	}
 
 	/**
-	 * Returns the character with the specified code, or {@code null} if not found.
+	 * Returns the character with the specified code, or {@code null} if not found. Lookups of missing characters are reported to
+	 * the metrics of this font.
 	 *
 	 * @param code the character code to get
 	 * 
 	 * @return the {@link BmfCharacter} object, or {@code null} if not found
+	 *
+	 * @throws java.io.UncheckedIOException if the character is pending in a lazily parsed font and its line is malformed
 	 */
+	@Override
 	public BmfCharacter getCharacter(int code) {
-		return characters.get(Integer.valueOf(code));
+		BmfCharacter character = lookupCharacter(code);
+		if (character == null)
+			metrics.onMissingCharacter(code);
+		return character;
 	}
 
 	/**
@@ -125,10 +166,23 @@ public class BmfFont {
 	 * @return a reference to this object
 	 */
 	public BmfFont addCharacter(BmfCharacter character) {
-		characters.put(character.getId(), character);
+		BmfLazyCharacters lazy = lazyCharacters;
+		if (Objects.nonNull(lazy))
+			lazy.remove(character.getId());
+		putCharacter(character);
 		return this;
 	}
 
+	/**
+	 * Adds a character to this font without affecting pending characters of a lazily parsed font.
+	 *
+	 * @param character the character to add
+	 */
+	void putCharacter(BmfCharacter character) {
+		characters.put(character.getId(), character);
+		characterIndex.put(character);
+	}
+
 	/**
 	 * Removes the character with the specified code.
 	 *
@@ -137,7 +191,11 @@ public class BmfFont {
 	 * @return a reference to this object
 	 */
 	public BmfFont removeCharacter(int code) {
+		BmfLazyCharacters lazy = lazyCharacters;
+		if (Objects.nonNull(lazy))
+			lazy.remove(code);
 		characters.remove(Integer.valueOf(code));
+		characterIndex.remove(code);
 		return this;
 	}
 
@@ -148,42 +206,89 @@ public class BmfFont {
 	 */
 	public BmfFont clearCharacters() {
 		characters.clear();
+		characterIndex.clear();
+		lazyCharacters = null;
 		return this;
 	}
 
 	/**
-	 * Returns an unmodifiable set of all kernings in this font.
+	 * Returns an unmodifiable set of all kernings in this font, in the order they were added. The set holds at most one kerning
+	 * for each pair of characters.
 	 *
 	 * @return an unmodifiable set of kernings
 	 */
+	@Override
 	public Set<BmfKerning> getKernings() {
+		materializeKernings();
 		return Collections.unmodifiableSet(kernings);
 	}
 
 	/**
-	 * Finds kerning for a pair of characters.
+	 * Finds kerning for a pair of characters. The lookup is reported to the metrics of this font.
 	 *
 	 * @param first  the code of the first character
 	 * @param second the code of the second character
 	 * 
 	 * @return an {@link Optional} containing the kerning
 	 */
+	@Override
 	public Optional<BmfKerning> getKerning(int first, int second) {
-		return kernings.stream().filter(kerning -> kerning.getFirst() == first && kerning.getSecond() == second).findAny();
+		materializeKernings();
+		BmfKerning kerning = kerningIndex.get(first, second);
+		metrics.onKerningLookup(first, second, Objects.nonNull(kerning));
+		return Optional.ofNullable(kerning);
+	}
+
+	/**
+	 * Returns the kerning amount for a pair of characters without allocating. The lookup is reported to the metrics of this
+	 * font.
+	 *
+	 * @param first  the code of the first character
+	 * @param second the code of the second character
+	 * 
+	 * @return the kerning amount, or {@code 0} if the pair has no kerning
+	 */
+	@Override
+	public int getKerningAmount(int first, int second) {
+		if (Objects.nonNull(lazyKernings))
+			materializeKernings();
+		BmfMetrics metrics = this.metrics;
+		if (metrics == BmfMetrics.NONE)
+			return kerningIndex.getAmount(first, second);
+		BmfKerning kerning = kerningIndex.get(first, second);
+		metrics.onKerningLookup(first, second, Objects.nonNull(kerning));
+		return Objects.isNull(kerning) ? 0 : kerning.getAmount();
 	}
 
 	/**
-	 * Adds a kerning to this font.
+	 * Adds a kerning to this font. If the font already contains a kerning for the same pair of characters, that kerning is
+	 * removed and the added one takes its place in lookups and at the end of the kerning set.
 	 *
 	 * @param kerning the kerning to add
 	 * 
 	 * @return a reference to this object
 	 */
 	public BmfFont addKerning(BmfKerning kerning) {
-		kernings.add(kerning);
+		materializeKernings();
+		putKerning(kerning);
 		return this;
 	}
 
+	/**
+	 * Adds a kerning to this font without decoding pending kernings of a lazily parsed font.
+	 *
+	 * @param kerning the kerning to add
+	 */
+	void putKerning(BmfKerning kerning) {
+		BmfKerning previous = kerningIndex.get(kerning.getFirst(), kerning.getSecond());
+		if (previous == kerning)
+			return;
+		if (Objects.nonNull(previous))
+			kernings.remove(previous);
+		kernings.add(kerning);
+		kerningIndex.put(kerning);
+	}
+
 	/**
 	 * Removes a kerning from this font.
 	 *
@@ -192,7 +297,9 @@ public class BmfFont {
 	 * @return a reference to this object
 	 */
 	public BmfFont removeKerning(BmfKerning kerning) {
-		kernings.remove(kerning);
+		materializeKernings();
+		if (kernings.remove(kerning))
+			kerningIndex.remove(kerning);
 		return this;
 	}
 
@@ -203,6 +310,8 @@ public class BmfFont {
 	 */
 	public BmfFont clearKernings() {
 		kernings.clear();
+		kerningIndex.clear();
+		lazyKernings = null;
 		return this;
 	}
 
@@ -211,6 +320,7 @@ public class BmfFont {
 	 *
 	 * @return an unmodifiable list of page file names
 	 */
+	@Override
 	public List<String> getPages() {
 		return Collections.unmodifiableList(pages);
 	}
@@ -222,6 +332,7 @@ public class BmfFont {
 	 * 
 	 * @return the page file name
 	 */
+	@Override
 	public String getPage(int id) {
 		return pages.get(id);
 	}
@@ -278,6 +389,7 @@ public class BmfFont {
 	 *
 	 * @return the font face name
 	 */
+	@Override
 	public String getFace() {
 		return face;
 	}
@@ -299,6 +411,7 @@ public class BmfFont {
 	 *
 	 * @return the character set
 	 */
+	@Override
 	public String getCharset() {
 		return charset;
 	}
@@ -320,6 +433,7 @@ public class BmfFont {
 	 *
 	 * @return the font size
 	 */
+	@Override
 	public int getSize() {
 		return size;
 	}
@@ -341,6 +455,7 @@ public class BmfFont {
 	 *
 	 * @return the stretch height
 	 */
+	@Override
 	public int getStretchH() {
 		return stretchH;
 	}
@@ -350,6 +465,7 @@ public class BmfFont {
 	 * 
 	 * @return the texture dimensions
 	 */
+	@Override
 	public BmfDimensions getScaleDimensions() {
 		return scaleDimensions;
 	}
@@ -371,6 +487,7 @@ public class BmfFont {
 	 *
 	 * @return the line height
 	 */
+	@Override
 	public int getLineHeight() {
 		return lineHeight;
 	}
@@ -392,6 +509,7 @@ public class BmfFont {
 	 *
 	 * @return the baseline
 	 */
+	@Override
 	public int getBase() {
 		return base;
 	}
@@ -413,6 +531,7 @@ public class BmfFont {
 	 *
 	 * @return array of padding values [up, right, down, left]
 	 */
+	@Override
 	public int[] getPadding() {
 		return padding;
 	}
@@ -434,6 +553,7 @@ public class BmfFont {
 	 *
 	 * @return array of spacing values [horizontal, vertical]
 	 */
+	@Override
 	public int[] getSpacing() {
 		return spacing;
 	}
@@ -455,6 +575,7 @@ public class BmfFont {
 	 *
 	 * @return {@code true} if bold, {@code false} otherwise
 	 */
+	@Override
 	public boolean isBold() {
 		return bold;
 	}
@@ -476,6 +597,7 @@ public class BmfFont {
 	 *
 	 * @return {@code true} if italic, {@code false} otherwise
 	 */
+	@Override
 	public boolean isItalic() {
 		return italic;
 	}
@@ -497,6 +619,7 @@ public class BmfFont {
 	 *
 	 * @return {@code true} if unicode, {@code false} otherwise
 	 */
+	@Override
 	public boolean isUnicode() {
 		return unicode;
 	}
@@ -518,6 +641,7 @@ public class BmfFont {
 	 *
 	 * @return {@code true} if smoothing enabled, {@code false} otherwise
 	 */
+	@Override
 	public boolean isSmooth() {
 		return smooth;
 	}
@@ -539,6 +663,7 @@ public class BmfFont {
 	 *
 	 * @return {@code true} if anti-aliasing enabled, {@code false} otherwise
 	 */
+	@Override
 	public boolean isAntiAliased() {
 		return antiAliased;
 	}
@@ -560,6 +685,7 @@ public class BmfFont {
 	 *
 	 * @return {@code true} if packed, {@code false} otherwise
 	 */
+	@Override
 	public boolean isPacked() {
 		return packed;
 	}
@@ -576,11 +702,219 @@ public class BmfFont {
 		return this;
 	}
 
+	/**
+	 * Returns the number of characters in this font without decoding pending characters.
+	 *
+	 * @return the number of characters
+	 */
+	int getCharacterCount() {
+		if (Objects.isNull(lazyCharacters))
+			return characters.size();
+		synchronized (this) {
+			BmfLazyCharacters lazy = lazyCharacters;
+			return characters.size() + (Objects.nonNull(lazy) ? lazy.size() : 0);
+		}
+	}
+
+	/**
+	 * Returns the number of kernings in this font without decoding pending kernings.
+	 *
+	 * @return the number of kernings
+	 */
+	int getKerningCount() {
+		if (Objects.isNull(lazyKernings))
+			return kernings.size();
+		synchronized (this) {
+			BmfLazyCharacters lazy = lazyKernings;
+			return kernings.size() + (Objects.nonNull(lazy) ? lazy.kerningCount() : 0);
+		}
+	}
+
+	/**
+	 * Passes the code of each character in this font to the specified consumer without decoding pending characters.
+	 *
+	 * @param action the consumer to pass the codes to
+	 */
+	void forEachCharacterCode(IntConsumer action) {
+		if (Objects.isNull(lazyCharacters)) {
+			for (Integer code : characters.keySet())
+				action.accept(code);
+			return;
+		}
+		synchronized (this) {
+			for (Integer code : characters.keySet())
+				action.accept(code);
+			BmfLazyCharacters lazy = lazyCharacters;
+			if (Objects.nonNull(lazy))
+				lazy.forEachCode(action);
+		}
+	}
+
+	/**
+	 * Copies the properties of the specified font to this font, leaving the characters, kernings and pages unchanged.
+	 *
+	 * @param source the font to copy the properties of
+	 *
+	 * @return a reference to this object
+	 */
+	BmfFont copyProperties(BmfFont source) {
+		scaleDimensions.setWidth(source.scaleDimensions.getWidth()).setHeight(source.scaleDimensions.getHeight());
+		return setFace(source.face)
+				.setCharset(source.charset)
+				.setSize(source.size)
+				.setStretchH(source.stretchH)
+				.setLineHeight(source.lineHeight)
+				.setBase(source.base)
+				.setPadding(source.padding.clone())
+				.setSpacing(source.spacing.clone())
+				.setBold(source.bold)
+				.setItalic(source.italic)
+				.setUnicode(source.unicode)
+				.setSmooth(source.smooth)
+				.setAntiAliased(source.antiAliased)
+				.setPacked(source.packed);
+	}
+
+	/**
+	 * Returns the kerning index of this font.
+	 *
+	 * @return the kerning index
+	 */
+	BmfKerningIndex getKerningIndex() {
+		materializeKernings();
+		return kerningIndex;
+	}
+
+	/**
+	 * Returns the character with the specified code from the specified font without reporting a missing character to the metrics
+	 * of a {@link BmfFont}, for lookups that repeat or probe ahead of a reported one.
+	 *
+	 * @param font the font
+	 * @param code the character code to get
+	 *
+	 * @return the {@link BmfCharacter} object, or {@code null} if not found
+	 */
+	static BmfCharacter findCharacter(BmfFontView font, int code) {
+		if (!(font instanceof BmfFont))
+			return font.getCharacter(code);
+		return ((BmfFont) font).lookupCharacter(code);
+	}
+
+	/**
+	 * Returns the kerning amount for a pair of characters from the specified font without reporting the lookup to the metrics of
+	 * a {@link BmfFont}.
+	 *
+	 * @param font   the font
+	 * @param first  the code of the first character
+	 * @param second the code of the second character
+	 *
+	 * @return the kerning amount, or {@code 0} if the pair has no kerning
+	 */
+	static int findKerningAmount(BmfFontView font, int first, int second) {
+		if (!(font instanceof BmfFont))
+			return font.getKerningAmount(first, second);
+		return ((BmfFont) font).getKerningIndex().getAmount(first, second);
+	}
+
+	/**
+	 * Sets the pending characters and kernings of a lazily parsed font, which are decoded when they are first accessed.
+	 *
+	 * @param lazy the pending characters and kernings
+	 */
+	void setLazyCharacters(BmfLazyCharacters lazy) {
+		this.lazyCharacters = lazy;
+		this.lazyKernings = lazy;
+	}
+
+	private BmfCharacter lookupCharacter(int code) {
+		// decoding never modifies the index read here, decoded characters stay in the pending characters until published
+		BmfLazyCharacters lazy = lazyCharacters;
+		BmfCharacter character = characterIndex.get(code);
+		if (Objects.isNull(character) && Objects.nonNull(lazy))
+			return lazy.contains(code) ? materializeCharacter(code) : lazy.get(code);
+		return character;
+	}
+
+	private synchronized BmfCharacter materializeCharacter(int code) {
+		BmfLazyCharacters lazy = lazyCharacters;
+		if (Objects.isNull(lazy))
+			return characterIndex.get(code);
+		BmfCharacter character = lazy.take(code);
+		if (Objects.isNull(character))
+			return lazy.get(code);
+		characters.put(character.getId(), character);
+		if (lazy.size() == 0)
+			publishCharacters();
+		return character;
+	}
+
+	private void materializeCharacters() {
+		if (Objects.nonNull(lazyCharacters))
+			synchronized (this) {
+				BmfLazyCharacters lazy = lazyCharacters;
+				if (Objects.nonNull(lazy)) {
+					lazy.takeAll(character -> characters.put(character.getId(), character));
+					publishCharacters();
+				}
+			}
+	}
+
+	private void publishCharacters() {
+		BmfCharacterIndex index = new BmfCharacterIndex();
+		for (BmfCharacter character : characters.values())
+			index.put(character);
+		characterIndex = index;
+		lazyCharacters = null;
+	}
+
+	private void materializeKernings() {
+		if (Objects.nonNull(lazyKernings))
+			synchronized (this) {
+				BmfLazyCharacters lazy = lazyKernings;
+				if (Objects.nonNull(lazy)) {
+					lazy.takeKernings(this);
+					lazyKernings = null;
+				}
+			}
+	}
+
+	/**
+	 * Returns the metrics that lookups of this font are reported to.
+	 *
+	 * @return the metrics, {@link BmfMetrics#NONE} by default
+	 */
+	public BmfMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * Sets the metrics that lookups of missing characters and kernings of this font are reported to. Metrics are not copied to
+	 * snapshots created by {@link #freeze()}.
+	 *
+	 * @param metrics the metrics to report to, or {@link BmfMetrics#NONE} to stop reporting
+	 * 
+	 * @return a reference to this object
+	 */
+	public BmfFont setMetrics(BmfMetrics metrics) {
+		this.metrics = Objects.requireNonNull(metrics, "Metrics must not be null");
+		return this;
+	}
+
+	/**
+	 * Creates an immutable snapshot of this font. The snapshot does not change when this font is modified afterwards and can be
+	 * shared between threads without synchronization.
+	 *
+	 * @return the {@link FrozenBmfFont} snapshot
+	 */
+	public FrozenBmfFont freeze() {
+		return new FrozenBmfFont(this);
+	}
+
 	@Override
 	public String toString() {
 		return String.format(
 				"BmfFont [characters=%s, kernings=%s, pages=%s, face=%s, charset=%s, size=%s, stretchH=%s, scaleDimensions=%s, lineHeight=%s, base=%s, padding=%s, spacing=%s, bold=%s, italic=%s, unicode=%s, smooth=%s, antiAliased=%s, packed=%s]",
-				characters.size(), kernings.size(), pages, face, charset, size, stretchH, scaleDimensions, lineHeight, base,
+				getCharacterCount(), getKerningCount(), pages, face, charset, size, stretchH, scaleDimensions, lineHeight, base,
 				Arrays.toString(padding), Arrays.toString(spacing), bold, italic, unicode, smooth, antiAliased, packed);
 	}
 
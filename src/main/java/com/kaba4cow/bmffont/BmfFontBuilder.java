@@ -0,0 +1,84 @@
+package com.kaba4cow.bmffont;
+
+/**
+ * A {@link BmfParseListener} that applies the parsed data to a {@link BmfFont}.
+ */
+final class BmfFontBuilder implements BmfParseListener {
+
+	private final BmfFont target;
+
+	/**
+	 * Creates a new builder filling the specified font.
+	 *
+	 * @param target the font to fill
+	 */
+	BmfFontBuilder(BmfFont target) {
+		this.target = target;
+	}
+
+	/**
+	 * Creates a new {@link BmfCharacter} with the specified metrics.
+	 *
+	 * @param id      the character code
+	 * @param x       the X coordinate in the texture
+	 * @param y       the Y coordinate in the texture
+	 * @param width   the width in the texture
+	 * @param height  the height in the texture
+	 * @param offsetX the X rendering offset
+	 * @param offsetY the Y rendering offset
+	 * @param advance the advance value
+	 * @param page    the texture page index
+	 * @param channel the texture channel
+	 *
+	 * @return the created {@link BmfCharacter}
+	 */
+	static BmfCharacter createCharacter(int id, int x, int y, int width, int height, int offsetX, int offsetY, int advance,
+			int page, int channel) {
+		BmfCharacter character = new BmfCharacter(id);
+		character.getTextureCoordinates().setX(x).setY(y);
+		character.getTextureDimensions().setWidth(width).setHeight(height);
+		character.getOffsetCoordinates().setX(offsetX).setY(offsetY);
+		return character.setAdvance(advance).setPage(page).setChannel(channel);
+	}
+
+	@Override
+	public void onInfo(String face, int size, boolean bold, boolean italic, String charset, boolean unicode, int stretchH,
+			boolean smooth, boolean antiAliased, int[] padding, int[] spacing) {
+		target.setFace(face);
+		target.setSize(size);
+		target.setBold(bold);
+		target.setItalic(italic);
+		target.setCharset(charset);
+		target.setUnicode(unicode);
+		target.setStretchH(stretchH);
+		target.setSmooth(smooth);
+		target.setAntiAliased(antiAliased);
+		target.setPadding(padding);
+		target.setSpacing(spacing);
+	}
+
+	@Override
+	public void onCommon(int lineHeight, int base, int scaleW, int scaleH, boolean packed) {
+		target.setLineHeight(lineHeight);
+		target.setBase(base);
+		target.getScaleDimensions().setWidth(scaleW).setHeight(scaleH);
+		target.setPacked(packed);
+	}
+
+	@Override
+	public void onPage(int id, String file) {
+		target.addPage(id, file);
+	}
+
+	@Override
+	public void onChar(int id, int x, int y, int width, int height, int offsetX, int offsetY, int advance, int page,
+			int channel) {
+		target.addCharacter(createCharacter(id, x, y, width, height, offsetX, offsetY, advance, page, channel));
+	}
+
+	@Override
+	public void onKerning(int first, int second, int amount) {
+		target.addKerning(new BmfKerning(first, second).setAmount(amount));
+	}
+
+}
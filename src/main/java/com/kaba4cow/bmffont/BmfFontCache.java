@@ -0,0 +1,291 @@
+package com.kaba4cow.bmffont;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.zip.CRC32;
+
+/**
+ * A utility class for caching parsed fonts as precompiled binary images next to their source files. An image has a fixed,
+ * versioned layout holding the font properties, the page list, the character metrics and the kerning pairs as flat integer
+ * arrays, so loading an image is a bulk copy instead of a parse. Each image records the size and the modification time of its
+ * source file and a CRC-32 checksum of its contents; an image is only reused if all three match.
+ * <p>
+ * An image is not used in place. It holds no prebuilt character or kerning hash tables, and lookups are not served from the
+ * mapped file: {@link #read(Path, long, long)} copies the arrays into a regular {@link BmfFont}, which rebuilds its character
+ * and kerning indexes with one pass over the stored entries. This keeps the image layout independent of the hash layout of
+ * the indexes, at the cost of allocating the font's object graph on every load. Kerning pairs are stored in their original
+ * order, so the rebuilt font iterates them in the same order as the source.
+ */
+public class BmfFontCache {
+
+	private static final int MAGIC = 0x43464D42;
+
+	private static final int VERSION = 2;
+
+	private static final int HEADER_SIZE = 28;
+
+	private static final String EXTENSION = ".cache";
+
+	private static final int CHARACTER_STRIDE = 9;
+
+	private static final int KERNING_STRIDE = 3;
+
+	private BmfFontCache() {}
+
+	/**
+	 * Returns the path of the image for the specified source file, which is the source path with {@code .cache} appended.
+	 *
+	 * @param source the path of the source file
+	 *
+	 * @return the path of the image
+	 */
+	public static Path getImagePath(Path source) {
+		Objects.requireNonNull(source, "Source Path must not be null");
+		return source.resolveSibling(source.getFileName() + EXTENSION);
+	}
+
+	/**
+	 * Loads the font from the specified source file, reusing its image if the image is valid for the current state of the
+	 * source. Otherwise the source is parsed with {@link BmfParser#parse(Path, BmfFont)} and a new image is written; if the
+	 * image cannot be written, for example because the directory is read-only, the parsed font is still returned.
+	 *
+	 * @param source the path of the source file
+	 *
+	 * @return the loaded font
+	 *
+	 * @throws IOException if the source cannot be read or parsed
+	 */
+	public static BmfFont load(Path source) throws IOException {
+		Objects.requireNonNull(source, "Source Path must not be null");
+		BasicFileAttributes attributes = Files.readAttributes(source, BasicFileAttributes.class);
+		long sourceSize = attributes.size();
+		long sourceModified = attributes.lastModifiedTime().toMillis();
+		Path image = getImagePath(source);
+		BmfFont font = read(image, sourceSize, sourceModified);
+		if (Objects.nonNull(font))
+			return font;
+		font = BmfParser.parse(source, null);
+		Path temporary = null;
+		try {
+			temporary = Files.createTempFile(image.toAbsolutePath().getParent(), image.getFileName().toString(), ".tmp");
+			write(font, temporary, sourceSize, sourceModified);
+			Files.move(temporary, image, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException exception) {
+			// the cache is an optimization, the parsed font is still valid
+		} finally {
+			if (Objects.nonNull(temporary))
+				try {
+					Files.deleteIfExists(temporary);
+				} catch (IOException exception) {
+					// nothing left to clean up
+				}
+		}
+		return font;
+	}
+
+	/**
+	 * Writes an image of the specified font to the specified file.
+	 *
+	 * @param font           the font to write
+	 * @param image          the path of the image file
+	 * @param sourceSize     the size of the source file in bytes
+	 * @param sourceModified the modification time of the source file in milliseconds since the epoch
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static void write(BmfFont font, Path image, long sourceSize, long sourceModified) throws IOException {
+		Objects.requireNonNull(font, "Font must not be null");
+		Objects.requireNonNull(image, "Image Path must not be null");
+		byte[] face = font.getFace().getBytes(StandardCharsets.UTF_8);
+		byte[] charset = font.getCharset().getBytes(StandardCharsets.UTF_8);
+		List<String> pages = font.getPages();
+		byte[][] pageNames = new byte[pages.size()][];
+		int pagesSize = 0;
+		for (int i = 0; i < pageNames.length; i++) {
+			pageNames[i] = pages.get(i).getBytes(StandardCharsets.UTF_8);
+			pagesSize += 4 + pageNames[i].length;
+		}
+		int[] padding = font.getPadding();
+		int[] spacing = font.getSpacing();
+		Collection<BmfCharacter> characters = font.getCharacters();
+		Collection<BmfKerning> kernings = font.getKernings();
+
+		int payloadSize = 4 * 7 + 4 + 4 * padding.length + 4 + 4 * spacing.length + 4 + face.length + 4 + charset.length + 4
+				+ pagesSize + 4 + 4 * characters.size() * (1 + CHARACTER_STRIDE) + 4 + 4 * KERNING_STRIDE * kernings.size();
+		ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + payloadSize).order(ByteOrder.LITTLE_ENDIAN);
+		buffer.position(HEADER_SIZE);
+
+		buffer.putInt(font.getSize());
+		buffer.putInt(font.getStretchH());
+		buffer.putInt(font.getScaleDimensions().getWidth());
+		buffer.putInt(font.getScaleDimensions().getHeight());
+		buffer.putInt(font.getLineHeight());
+		buffer.putInt(font.getBase());
+		buffer.putInt((font.isBold() ? 0x01 : 0) | (font.isItalic() ? 0x02 : 0) | (font.isUnicode() ? 0x04 : 0)
+				| (font.isSmooth() ? 0x08 : 0) | (font.isAntiAliased() ? 0x10 : 0) | (font.isPacked() ? 0x20 : 0));
+		putIntArray(buffer, padding);
+		putIntArray(buffer, spacing);
+		putBytes(buffer, face);
+		putBytes(buffer, charset);
+		buffer.putInt(pageNames.length);
+		for (byte[] page : pageNames)
+			putBytes(buffer, page);
+
+		buffer.putInt(characters.size());
+		for (BmfCharacter character : characters)
+			buffer.putInt(character.getId());
+		for (BmfCharacter character : characters) {
+			buffer.putInt(character.getTextureCoordinates().getX());
+			buffer.putInt(character.getTextureCoordinates().getY());
+			buffer.putInt(character.getTextureDimensions().getWidth());
+			buffer.putInt(character.getTextureDimensions().getHeight());
+			buffer.putInt(character.getOffsetCoordinates().getX());
+			buffer.putInt(character.getOffsetCoordinates().getY());
+			buffer.putInt(character.getAdvance());
+			buffer.putInt(character.getPage());
+			buffer.putInt(character.getChannel());
+		}
+
+		buffer.putInt(kernings.size());
+		for (BmfKerning kerning : kernings) {
+			buffer.putInt(kerning.getFirst());
+			buffer.putInt(kerning.getSecond());
+			buffer.putInt(kerning.getAmount());
+		}
+
+		CRC32 crc = new CRC32();
+		crc.update(buffer.array(), HEADER_SIZE, payloadSize);
+		buffer.position(0);
+		buffer.putInt(MAGIC);
+		buffer.putInt(VERSION);
+		buffer.putLong(sourceSize);
+		buffer.putLong(sourceModified);
+		buffer.putInt((int) crc.getValue());
+		buffer.position(0);
+		try (FileChannel channel = FileChannel.open(image, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			while (buffer.hasRemaining())
+				channel.write(buffer);
+		}
+	}
+
+	/**
+	 * Reads the font from the specified image file if the image is valid for a source file of the specified size and
+	 * modification time.
+	 *
+	 * @param image          the path of the image file
+	 * @param sourceSize     the expected size of the source file in bytes
+	 * @param sourceModified the expected modification time of the source file in milliseconds since the epoch
+	 *
+	 * @return the font, or {@code null} if the image does not exist, is stale, has a different version or is corrupted
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static BmfFont read(Path image, long sourceSize, long sourceModified) throws IOException {
+		Objects.requireNonNull(image, "Image Path must not be null");
+		MappedByteBuffer mapped;
+		try (FileChannel channel = FileChannel.open(image, StandardOpenOption.READ)) {
+			mapped = channel.map(MapMode.READ_ONLY, 0L, channel.size());
+		} catch (NoSuchFileException exception) {
+			return null;
+		}
+		ByteBuffer buffer = mapped.order(ByteOrder.LITTLE_ENDIAN);
+		if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC || buffer.getInt() != VERSION
+				|| buffer.getLong() != sourceSize || buffer.getLong() != sourceModified)
+			return null;
+		int checksum = buffer.getInt();
+		CRC32 crc = new CRC32();
+		crc.update(buffer.duplicate());
+		if ((int) crc.getValue() != checksum)
+			return null;
+		try {
+			return read(buffer);
+		} catch (RuntimeException exception) {
+			return null;
+		}
+	}
+
+	private static BmfFont read(ByteBuffer buffer) {
+		BmfFont font = new BmfFont();
+		font.setSize(buffer.getInt());
+		font.setStretchH(buffer.getInt());
+		font.getScaleDimensions().setWidth(buffer.getInt()).setHeight(buffer.getInt());
+		font.setLineHeight(buffer.getInt());
+		font.setBase(buffer.getInt());
+		int flags = buffer.getInt();
+		font.setBold((flags & 0x01) != 0);
+		font.setItalic((flags & 0x02) != 0);
+		font.setUnicode((flags & 0x04) != 0);
+		font.setSmooth((flags & 0x08) != 0);
+		font.setAntiAliased((flags & 0x10) != 0);
+		font.setPacked((flags & 0x20) != 0);
+		font.setPadding(getIntArray(buffer));
+		font.setSpacing(getIntArray(buffer));
+		font.setFace(getString(buffer));
+		font.setCharset(getString(buffer));
+		int pages = buffer.getInt();
+		for (int id = 0; id < pages; id++)
+			font.addPage(id, getString(buffer));
+
+		int count = buffer.getInt();
+		IntBuffer ints = buffer.asIntBuffer();
+		int[] ids = new int[count];
+		int[] data = new int[count * CHARACTER_STRIDE];
+		ints.get(ids).get(data);
+		buffer.position(buffer.position() + 4 * (ids.length + data.length));
+		for (int i = 0, offset = 0; i < count; i++, offset += CHARACTER_STRIDE) {
+			BmfCharacter character = new BmfCharacter(ids[i]);
+			character.getTextureCoordinates().setX(data[offset]).setY(data[offset + 1]);
+			character.getTextureDimensions().setWidth(data[offset + 2]).setHeight(data[offset + 3]);
+			character.getOffsetCoordinates().setX(data[offset + 4]).setY(data[offset + 5]);
+			character.setAdvance(data[offset + 6]).setPage(data[offset + 7]).setChannel(data[offset + 8]);
+			font.putCharacter(character);
+		}
+
+		int[] kernings = new int[buffer.getInt() * KERNING_STRIDE];
+		buffer.asIntBuffer().get(kernings);
+		for (int offset = 0; offset < kernings.length; offset += KERNING_STRIDE)
+			font.putKerning(new BmfKerning(kernings[offset], kernings[offset + 1]).setAmount(kernings[offset + 2]));
+		return font;
+	}
+
+	private static void putIntArray(ByteBuffer buffer, int[] array) {
+		buffer.putInt(array.length);
+		for (int value : array)
+			buffer.putInt(value);
+	}
+
+	private static int[] getIntArray(ByteBuffer buffer) {
+		int[] array = new int[buffer.getInt()];
+		for (int i = 0; i < array.length; i++)
+			array[i] = buffer.getInt();
+		return array;
+	}
+
+	private static void putBytes(ByteBuffer buffer, byte[] bytes) {
+		buffer.putInt(bytes.length);
+		buffer.put(bytes);
+	}
+
+	private static String getString(ByteBuffer buffer) {
+		byte[] bytes = new byte[buffer.getInt()];
+		buffer.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+}
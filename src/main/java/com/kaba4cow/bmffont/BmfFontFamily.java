@@ -0,0 +1,252 @@
+package com.kaba4cow.bmffont;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A fallback chain of {@link BmfFontView} fonts, for example Latin, Cyrillic and CJK fonts used together. Each character is taken
+ * from the first font of the chain that contains it.
+ * <p>
+ * When a family is created, the character codes of all fonts are merged into a two-level routing table that maps each code
+ * point to the index of its font: the high bits of the code point select a block of 256 entries and the low eight bits select
+ * the entry. Blocks without any character share a single empty block, so the table stays small for fonts that cover a few
+ * scripts. Finding the font of a character is then two array reads instead of one lookup per font, and a string of mixed
+ * scripts is resolved in a single pass. Pending characters of lazily parsed fonts are routed without being decoded.
+ * <p>
+ * The routing table is a snapshot of the character codes of the fonts when the family is created, so characters added to or
+ * removed from the fonts later are not reflected. The table itself is never modified, so a family may be shared between
+ * threads as long as its fonts are.
+ */
+public class BmfFontFamily {
+
+	/**
+	 * The maximum number of fonts in a family.
+	 */
+	public static final int MAX_FONTS = 255;
+
+	private static final int BLOCK_BITS = 8;
+	private static final int BLOCK_SIZE = 1 << BLOCK_BITS;
+	private static final int BLOCK_MASK = BLOCK_SIZE - 1;
+	private static final int BLOCK_COUNT = (Character.MAX_CODE_POINT + 1) >>> BLOCK_BITS;
+
+	private static final byte[] EMPTY_BLOCK = new byte[BLOCK_SIZE];
+
+	private final BmfFontView[] fonts;
+
+	private final byte[][] blocks;
+
+	private final int blockCount;
+
+	/**
+	 * Creates a new family of the specified fonts, in fallback order.
+	 *
+	 * @param fonts the fonts of the family, the first of which is preferred
+	 *
+	 * @throws IllegalArgumentException if there are no fonts or more than {@link #MAX_FONTS} fonts
+	 */
+	public BmfFontFamily(BmfFontView... fonts) {
+		this(Arrays.asList(Objects.requireNonNull(fonts, "Fonts must not be null")));
+	}
+
+	/**
+	 * Creates a new family of the specified fonts, in fallback order.
+	 *
+	 * @param fonts the fonts of the family, the first of which is preferred
+	 *
+	 * @throws IllegalArgumentException if there are no fonts or more than {@link #MAX_FONTS} fonts
+	 */
+	public BmfFontFamily(List<? extends BmfFontView> fonts) {
+		Objects.requireNonNull(fonts, "Fonts must not be null");
+		if (fonts.isEmpty() || fonts.size() > MAX_FONTS)
+			throw new IllegalArgumentException(
+					String.format("Font family must have between 1 and %s fonts, got %s", MAX_FONTS, fonts.size()));
+		this.fonts = new BmfFontView[fonts.size()];
+		for (int index = 0; index < this.fonts.length; index++)
+			this.fonts[index] = Objects.requireNonNull(fonts.get(index), "Font must not be null");
+		byte[][] blocks = new byte[BLOCK_COUNT][];
+		Arrays.fill(blocks, EMPTY_BLOCK);
+		for (int index = 0; index < this.fonts.length; index++) {
+			byte entry = (byte) (index + 1);
+			BmfFontView font = this.fonts[index];
+			if (font instanceof BmfFont)
+				((BmfFont) font).forEachCharacterCode(code -> route(blocks, code, entry));
+			else
+				for (Integer code : font.getCharacterCodes())
+					route(blocks, code, entry);
+		}
+		int blockCount = 0;
+		for (byte[] block : blocks)
+			if (block != EMPTY_BLOCK)
+				blockCount++;
+		this.blocks = blocks;
+		this.blockCount = blockCount;
+	}
+
+	/**
+	 * Returns the number of fonts in this family.
+	 *
+	 * @return the number of fonts
+	 */
+	public int getFontCount() {
+		return fonts.length;
+	}
+
+	/**
+	 * Returns the font at the specified position in the fallback chain.
+	 *
+	 * @param index the index of the font
+	 *
+	 * @return the font
+	 */
+	public BmfFontView getFont(int index) {
+		return fonts[index];
+	}
+
+	/**
+	 * Returns an unmodifiable list of the fonts of this family, in fallback order.
+	 *
+	 * @return the fonts
+	 */
+	public List<BmfFontView> getFonts() {
+		return Collections.unmodifiableList(Arrays.asList(fonts));
+	}
+
+	/**
+	 * Returns the index of the first font that contains a character with the specified code.
+	 *
+	 * @param code the character code
+	 *
+	 * @return the index of the font, or {@code -1} if no font contains the character
+	 */
+	public int getFontIndex(int code) {
+		int block = code >>> BLOCK_BITS;
+		if (block >= BLOCK_COUNT)
+			return -1;
+		return (blocks[block][code & BLOCK_MASK] & 0xFF) - 1;
+	}
+
+	/**
+	 * Returns the first font that contains a character with the specified code.
+	 *
+	 * @param code the character code
+	 *
+	 * @return the font, or {@code null} if no font contains the character
+	 */
+	public BmfFontView getFontFor(int code) {
+		int index = getFontIndex(code);
+		return index < 0 ? null : fonts[index];
+	}
+
+	/**
+	 * Checks if any font of this family contains a character with the specified code.
+	 *
+	 * @param code the character code to check
+	 *
+	 * @return {@code true} if the character exists, {@code false} otherwise
+	 */
+	public boolean hasCharacter(int code) {
+		return getFontIndex(code) >= 0;
+	}
+
+	/**
+	 * Returns the character with the specified code from the first font that contains it.
+	 *
+	 * @param code the character code to get
+	 *
+	 * @return the {@link BmfCharacter} object, or {@code null} if no font contains the character
+	 */
+	public BmfCharacter getCharacter(int code) {
+		int index = getFontIndex(code);
+		return index < 0 ? null : fonts[index].getCharacter(code);
+	}
+
+	/**
+	 * Resolves the font of each character in a range of the specified text. The second character of a surrogate pair receives
+	 * the same font index as the first.
+	 *
+	 * @param text        the text to resolve
+	 * @param start       the start index, inclusive
+	 * @param end         the end index, exclusive
+	 * @param fontIndices the array to receive the font index of each character, or {@code -1} for characters that no font
+	 *                        contains, starting at index {@code 0} for the character at {@code start}
+	 *
+	 * @return the number of characters that no font contains
+	 */
+	public int resolve(CharSequence text, int start, int end, int[] fontIndices) {
+		byte[][] blocks = this.blocks;
+		int missing = 0;
+		int index = start;
+		while (index < end) {
+			int code = Character.codePointAt(text, index);
+			int font = (blocks[code >>> BLOCK_BITS][code & BLOCK_MASK] & 0xFF) - 1;
+			if (font < 0)
+				missing++;
+			fontIndices[index - start] = font;
+			if (code >= Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+				if (index + 1 < end)
+					fontIndices[index + 1 - start] = font;
+				index += 2;
+			} else
+				index++;
+		}
+		return missing;
+	}
+
+	/**
+	 * Splits a range of the specified text into runs of consecutive characters taken from the same font. Characters that no
+	 * font contains never start a new run and belong to the run they appear in, so each run can be laid out with the font of
+	 * its first resolved character as a whole.
+	 *
+	 * @param text     the text to split
+	 * @param start    the start index, inclusive
+	 * @param end      the end index, exclusive
+	 * @param runEnds  the array to receive the end index of each run, exclusive; each run starts at the end of the previous
+	 *                     one, and the first run starts at {@code start}
+	 * @param runFonts the array to receive the font index of each run, or {@code -1} for a run without any character that a
+	 *                     font contains
+	 *
+	 * @return the number of runs, which is at least {@code 1}
+	 */
+	public int resolveRuns(CharSequence text, int start, int end, int[] runEnds, int[] runFonts) {
+		byte[][] blocks = this.blocks;
+		int runs = 0;
+		int current = -1;
+		int index = start;
+		while (index < end) {
+			int code = Character.codePointAt(text, index);
+			int font = (blocks[code >>> BLOCK_BITS][code & BLOCK_MASK] & 0xFF) - 1;
+			if (font >= 0 && font != current) {
+				if (current >= 0) {
+					runEnds[runs] = index;
+					runFonts[runs] = current;
+					runs++;
+				}
+				current = font;
+			}
+			index += Character.charCount(code);
+		}
+		runEnds[runs] = end;
+		runFonts[runs] = current;
+		return runs + 1;
+	}
+
+	private static void route(byte[][] blocks, int code, byte entry) {
+		if (code < 0 || code > Character.MAX_CODE_POINT)
+			return;
+		byte[] block = blocks[code >>> BLOCK_BITS];
+		if (block == EMPTY_BLOCK) {
+			block = new byte[BLOCK_SIZE];
+			blocks[code >>> BLOCK_BITS] = block;
+		}
+		if (block[code & BLOCK_MASK] == 0)
+			block[code & BLOCK_MASK] = entry;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("BmfFontFamily [fonts=%s, blocks=%s]", fonts.length, blockCount);
+	}
+
+}
@@ -0,0 +1,53 @@
+package com.kaba4cow.bmffont;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Signals that one or more fonts of a {@link BmfFontLoader} batch failed to load. Each failure is reported individually, keyed
+ * by the name of its font, and is also attached as a suppressed exception. The fonts that did load are available through
+ * {@link #getFonts()}.
+ */
+public class BmfFontLoadException extends IOException {
+
+	private static final long serialVersionUID = 1L;
+
+	private final transient Map<String, BmfFont> fonts;
+
+	private final transient Map<String, Throwable> failures;
+
+	/**
+	 * Creates a new exception for the specified loaded fonts and failures.
+	 *
+	 * @param fonts    the fonts that loaded successfully, keyed by name
+	 * @param failures the failures, keyed by font name
+	 */
+	public BmfFontLoadException(Map<String, BmfFont> fonts, Map<String, Throwable> failures) {
+		super(String.format("Failed to load %s of %s fonts: %s", failures.size(), fonts.size() + failures.size(),
+				failures.keySet()));
+		this.fonts = Collections.unmodifiableMap(fonts);
+		this.failures = Collections.unmodifiableMap(failures);
+		for (Throwable failure : failures.values())
+			addSuppressed(failure);
+	}
+
+	/**
+	 * Returns an unmodifiable map of the fonts that loaded successfully, keyed by name.
+	 *
+	 * @return the loaded fonts
+	 */
+	public Map<String, BmfFont> getFonts() {
+		return fonts;
+	}
+
+	/**
+	 * Returns an unmodifiable map of the failures, keyed by font name.
+	 *
+	 * @return the failures
+	 */
+	public Map<String, Throwable> getFailures() {
+		return failures;
+	}
+
+}
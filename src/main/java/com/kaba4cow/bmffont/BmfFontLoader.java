@@ -0,0 +1,146 @@
+package com.kaba4cow.bmffont;
+
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Loads batches of fonts concurrently. At most {@code parallelism} fonts are parsed at the same time, each on a worker task
+ * submitted to the configured {@link Executor}. By default the executor runs tasks on virtual threads when the runtime supports
+ * them and on the {@link ForkJoinPool#commonPool() common pool} otherwise.
+ * <p>
+ * The returned futures complete with the loaded fonts keyed by name, in the order of the sources. If any font fails to load
+ * the future completes exceptionally with a {@link BmfFontLoadException} that reports every failure along with the fonts that
+ * did load. Exceptions and {@link LinkageError linkage errors} thrown while loading a font are reported as failures of that
+ * font and do not stop the worker. Any other {@link Error}, such as an {@link OutOfMemoryError}, is not caught; it stops the
+ * worker and the future completes exceptionally with that error.
+ */
+public class BmfFontLoader {
+
+	private final Executor executor;
+
+	private final int parallelism;
+
+	/**
+	 * Creates a new font loader using the default executor and the number of available processors as parallelism.
+	 */
+	public BmfFontLoader() {
+		this(DefaultExecutor.INSTANCE, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Creates a new font loader using the specified executor and parallelism.
+	 *
+	 * @param executor    the executor to run the worker tasks on
+	 * @param parallelism the maximum number of fonts to parse at the same time
+	 *
+	 * @throws IllegalArgumentException if {@code parallelism} is not positive
+	 */
+	public BmfFontLoader(Executor executor, int parallelism) {
+		if (parallelism < 1)
+			throw new IllegalArgumentException("Parallelism must be positive");
+		this.executor = Objects.requireNonNull(executor, "Executor must not be null");
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Loads the font files at the specified paths. Each font is keyed by the string representation of its path.
+	 *
+	 * @param paths the paths of the font files
+	 *
+	 * @return a future completing with the loaded fonts
+	 */
+	public CompletableFuture<Map<String, BmfFont>> load(Collection<Path> paths) {
+		Objects.requireNonNull(paths, "Paths must not be null");
+		List<String> names = new ArrayList<>(paths.size());
+		List<Callable<BmfFont>> tasks = new ArrayList<>(paths.size());
+		for (Path path : paths) {
+			names.add(path.toString());
+			tasks.add(() -> BmfParser.parse(path, null));
+		}
+		return load(names, tasks);
+	}
+
+	/**
+	 * Loads the fonts from the specified sources. Each source opens a new {@link InputStream} with the font data, which is closed
+	 * after parsing.
+	 *
+	 * @param sources the sources of the fonts, keyed by name
+	 *
+	 * @return a future completing with the loaded fonts
+	 */
+	public CompletableFuture<Map<String, BmfFont>> load(Map<String, ? extends Callable<? extends InputStream>> sources) {
+		Objects.requireNonNull(sources, "Sources must not be null");
+		List<String> names = new ArrayList<>(sources.size());
+		List<Callable<BmfFont>> tasks = new ArrayList<>(sources.size());
+		for (Map.Entry<String, ? extends Callable<? extends InputStream>> entry : sources.entrySet()) {
+			Callable<? extends InputStream> source = entry.getValue();
+			names.add(entry.getKey());
+			tasks.add(() -> BmfParser.parse(source.call(), null));
+		}
+		return load(names, tasks);
+	}
+
+	private CompletableFuture<Map<String, BmfFont>> load(List<String> names, List<Callable<BmfFont>> tasks) {
+		int count = tasks.size();
+		BmfFont[] fonts = new BmfFont[count];
+		Throwable[] failures = new Throwable[count];
+		AtomicInteger next = new AtomicInteger();
+		Runnable worker = () -> {
+			int index;
+			while ((index = next.getAndIncrement()) < count)
+				try {
+					fonts[index] = tasks.get(index).call();
+				} catch (Exception | LinkageError exception) {
+					failures[index] = exception;
+				}
+		};
+		CompletableFuture<?>[] workers = new CompletableFuture<?>[Math.min(parallelism, count)];
+		for (int i = 0; i < workers.length; i++)
+			workers[i] = CompletableFuture.runAsync(worker, executor);
+		return CompletableFuture.allOf(workers).thenApply(ignored -> {
+			Map<String, BmfFont> loaded = new LinkedHashMap<>();
+			Map<String, Throwable> failed = new LinkedHashMap<>();
+			for (int i = 0; i < count; i++)
+				if (Objects.nonNull(failures[i]))
+					failed.put(names.get(i), failures[i]);
+				else
+					loaded.put(names.get(i), fonts[i]);
+			if (!failed.isEmpty())
+				throw new CompletionException(new BmfFontLoadException(loaded, failed));
+			return loaded;
+		});
+	}
+
+	@Override
+	public String toString() {
+		return String.format("BmfFontLoader [executor=%s, parallelism=%s]", executor, parallelism);
+	}
+
+	private static final class DefaultExecutor {
+
+		private static final Executor INSTANCE = create();
+
+		private static Executor create() {
+			try {
+				return (Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+			} catch (ReflectiveOperationException | RuntimeException exception) {
+				return ForkJoinPool.commonPool();
+			}
+		}
+
+	}
+
+}
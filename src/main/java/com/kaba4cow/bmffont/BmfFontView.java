@@ -0,0 +1,204 @@
+package com.kaba4cow.bmffont;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * The read API of a bitmap font. It is implemented by the mutable {@link BmfFont} and by the immutable {@link FrozenBmfFont}
+ * created by {@link BmfFont#freeze()}. Layout and rendering classes such as {@link BmfTextLayout}, {@link BmfLineBreaker},
+ * {@link BmfQuadBatch}, {@link BmfLayoutCache}, {@link BmfRasterizer} and {@link BmfFontFamily} accept either, so worker threads
+ * can share a frozen snapshot instead of a mutable font.
+ */
+public interface BmfFontView {
+
+	/**
+	 * Returns an unmodifiable map of all characters in this font, keyed by their character codes.
+	 *
+	 * @return an unmodifiable map of character codes to {@link BmfCharacter} objects
+	 */
+	Map<Integer, BmfCharacter> getCharacterMap();
+
+	/**
+	 * Returns an unmodifiable set of all character codes in this font.
+	 *
+	 * @return an unmodifiable set of character codes
+	 */
+	Set<Integer> getCharacterCodes();
+
+	/**
+	 * Returns an unmodifiable collection of all characters in this font, in ascending order of their codes.
+	 *
+	 * @return an unmodifiable collection of {@link BmfCharacter} objects
+	 */
+	Collection<BmfCharacter> getCharacters();
+
+	/**
+	 * Checks if a character with the specified code exists in this font.
+	 *
+	 * @param code the character code to check
+	 *
+	 * @return {@code true} if the character exists, {@code false} otherwise
+	 */
+	boolean hasCharacter(int code);
+
+	/**
+	 * Returns the character with the specified code, or {@code null} if not found.
+	 *
+	 * @param code the character code to get
+	 *
+	 * @return the {@link BmfCharacter} object, or {@code null} if not found
+	 */
+	BmfCharacter getCharacter(int code);
+
+	/**
+	 * Returns an unmodifiable set of all kernings in this font.
+	 *
+	 * @return an unmodifiable set of kernings
+	 */
+	Set<BmfKerning> getKernings();
+
+	/**
+	 * Finds kerning for a pair of characters.
+	 *
+	 * @param first  the code of the first character
+	 * @param second the code of the second character
+	 *
+	 * @return an {@link Optional} containing the kerning
+	 */
+	Optional<BmfKerning> getKerning(int first, int second);
+
+	/**
+	 * Returns the kerning amount for a pair of characters without allocating.
+	 *
+	 * @param first  the code of the first character
+	 * @param second the code of the second character
+	 *
+	 * @return the kerning amount, or {@code 0} if the pair has no kerning
+	 */
+	int getKerningAmount(int first, int second);
+
+	/**
+	 * Returns an unmodifiable list of texture page file names.
+	 *
+	 * @return an unmodifiable list of page file names
+	 */
+	List<String> getPages();
+
+	/**
+	 * Returns the file name of the texture page with the specified ID.
+	 *
+	 * @param id the page ID
+	 *
+	 * @return the page file name
+	 */
+	String getPage(int id);
+
+	/**
+	 * Returns the font face name.
+	 *
+	 * @return the font face name
+	 */
+	String getFace();
+
+	/**
+	 * Returns the font character set.
+	 *
+	 * @return the character set
+	 */
+	String getCharset();
+
+	/**
+	 * Returns the font size in pixels.
+	 *
+	 * @return the font size
+	 */
+	int getSize();
+
+	/**
+	 * Returns the font stretch height percentage.
+	 *
+	 * @return the stretch height
+	 */
+	int getStretchH();
+
+	/**
+	 * Returns dimensions of the texture.
+	 *
+	 * @return the texture dimensions
+	 */
+	BmfDimensions getScaleDimensions();
+
+	/**
+	 * Returns the line height in pixels.
+	 *
+	 * @return the line height
+	 */
+	int getLineHeight();
+
+	/**
+	 * Returns the font baseline in pixels.
+	 *
+	 * @return the baseline
+	 */
+	int getBase();
+
+	/**
+	 * Returns the font padding values.
+	 *
+	 * @return array of padding values [up, right, down, left]
+	 */
+	int[] getPadding();
+
+	/**
+	 * Returns the font spacing values.
+	 *
+	 * @return array of spacing values [horizontal, vertical]
+	 */
+	int[] getSpacing();
+
+	/**
+	 * Returns whether the font is bold.
+	 *
+	 * @return {@code true} if bold, {@code false} otherwise
+	 */
+	boolean isBold();
+
+	/**
+	 * Returns whether the font is italic.
+	 *
+	 * @return {@code true} if italic, {@code false} otherwise
+	 */
+	boolean isItalic();
+
+	/**
+	 * Returns whether the font uses unicode.
+	 *
+	 * @return {@code true} if unicode, {@code false} otherwise
+	 */
+	boolean isUnicode();
+
+	/**
+	 * Returns whether smoothing is enabled.
+	 *
+	 * @return {@code true} if smoothing enabled, {@code false} otherwise
+	 */
+	boolean isSmooth();
+
+	/**
+	 * Returns whether anti-aliasing is enabled.
+	 *
+	 * @return {@code true} if anti-aliasing enabled, {@code false} otherwise
+	 */
+	boolean isAntiAliased();
+
+	/**
+	 * Returns whether the font texture is packed.
+	 *
+	 * @return {@code true} if packed, {@code false} otherwise
+	 */
+	boolean isPacked();
+
+}
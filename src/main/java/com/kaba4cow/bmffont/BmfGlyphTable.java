@@ -0,0 +1,207 @@
+package com.kaba4cow.bmffont;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * An immutable, compact snapshot of the characters of a {@link BmfFontView}. Character metrics are packed into a single primitive
+ * array instead of an object graph of {@link BmfCharacter}, {@link BmfCoordinates} and {@link BmfDimensions} objects. Characters
+ * are addressed by an index between {@code 0} and {@link #size()}, in ascending order of their codes; use
+ * {@link #indexOf(int)} to find the index of a character code.
+ */
+public final class BmfGlyphTable {
+
+	private static final int X = 0;
+	private static final int Y = 1;
+	private static final int WIDTH = 2;
+	private static final int HEIGHT = 3;
+	private static final int OFFSET_X = 4;
+	private static final int OFFSET_Y = 5;
+	private static final int ADVANCE = 6;
+	private static final int PAGE = 7;
+	private static final int CHANNEL = 8;
+	private static final int STRIDE = 9;
+
+	private final int[] ids;
+
+	private final int[] data;
+
+	/**
+	 * Creates a new glyph table containing a snapshot of all characters of the specified font.
+	 *
+	 * @param font the font to take the characters from
+	 */
+	public BmfGlyphTable(BmfFontView font) {
+		Objects.requireNonNull(font, "Font must not be null");
+		int size = font.getCharacterMap().size();
+		this.ids = new int[size];
+		this.data = new int[size * STRIDE];
+		int index = 0;
+		for (BmfCharacter character : font.getCharacters()) {
+			ids[index] = character.getId();
+			int offset = index * STRIDE;
+			data[offset + X] = character.getTextureCoordinates().getX();
+			data[offset + Y] = character.getTextureCoordinates().getY();
+			data[offset + WIDTH] = character.getTextureDimensions().getWidth();
+			data[offset + HEIGHT] = character.getTextureDimensions().getHeight();
+			data[offset + OFFSET_X] = character.getOffsetCoordinates().getX();
+			data[offset + OFFSET_Y] = character.getOffsetCoordinates().getY();
+			data[offset + ADVANCE] = character.getAdvance();
+			data[offset + PAGE] = character.getPage();
+			data[offset + CHANNEL] = character.getChannel();
+			index++;
+		}
+	}
+
+	/**
+	 * Returns the number of characters in this table.
+	 *
+	 * @return the number of characters
+	 */
+	public int size() {
+		return ids.length;
+	}
+
+	/**
+	 * Returns the index of the character with the specified code.
+	 *
+	 * @param code the character code to find
+	 *
+	 * @return the index of the character, or a negative value if not found
+	 */
+	public int indexOf(int code) {
+		return Arrays.binarySearch(ids, code);
+	}
+
+	/**
+	 * Returns the code of the character at the specified index.
+	 *
+	 * @param index the character index
+	 *
+	 * @return the character code
+	 */
+	public int getId(int index) {
+		return ids[index];
+	}
+
+	/**
+	 * Returns the X coordinate of the character at the specified index in the texture.
+	 *
+	 * @param index the character index
+	 *
+	 * @return the X coordinate
+	 */
+	public int getX(int index) {
+		return data[index * STRIDE + X];
+	}
+
+	/**
+	 * Returns the Y coordinate of the character at the specified index in the texture.
+	 *
+	 * @param index the character index
+	 *
+	 * @return the Y coordinate
+	 */
+	public int getY(int index) {
+		return data[index * STRIDE + Y];
+	}
+
+	/**
+	 * Returns the width of the character at the specified index in the texture.
+	 *
+	 * @param index the character index
+	 *
+	 * @return the width
+	 */
+	public int getWidth(int index) {
+		return data[index * STRIDE + WIDTH];
+	}
+
+	/**
+	 * Returns the height of the character at the specified index in the texture.
+	 *
+	 * @param index the character index
+	 *
+	 * @return the height
+	 */
+	public int getHeight(int index) {
+		return data[index * STRIDE + HEIGHT];
+	}
+
+	/**
+	 * Returns the X rendering offset of the character at the specified index.
+	 *
+	 * @param index the character index
+	 *
+	 * @return the X offset
+	 */
+	public int getOffsetX(int index) {
+		return data[index * STRIDE + OFFSET_X];
+	}
+
+	/**
+	 * Returns the Y rendering offset of the character at the specified index.
+	 *
+	 * @param index the character index
+	 *
+	 * @return the Y offset
+	 */
+	public int getOffsetY(int index) {
+		return data[index * STRIDE + OFFSET_Y];
+	}
+
+	/**
+	 * Returns the advance value of the character at the specified index.
+	 *
+	 * @param index the character index
+	 *
+	 * @return the advance value
+	 */
+	public int getAdvance(int index) {
+		return data[index * STRIDE + ADVANCE];
+	}
+
+	/**
+	 * Returns the texture page index of the character at the specified index.
+	 *
+	 * @param index the character index
+	 *
+	 * @return the page index
+	 */
+	public int getPage(int index) {
+		return data[index * STRIDE + PAGE];
+	}
+
+	/**
+	 * Returns the texture channel of the character at the specified index.
+	 *
+	 * @param index the character index
+	 *
+	 * @return the channel index
+	 */
+	public int getChannel(int index) {
+		return data[index * STRIDE + CHANNEL];
+	}
+
+	/**
+	 * Creates a new {@link BmfCharacter} with the metrics of the character at the specified index.
+	 *
+	 * @param index the character index
+	 *
+	 * @return the created {@link BmfCharacter}
+	 */
+	public BmfCharacter toCharacter(int index) {
+		int offset = index * STRIDE;
+		BmfCharacter character = new BmfCharacter(ids[index]);
+		character.getTextureCoordinates().setX(data[offset + X]).setY(data[offset + Y]);
+		character.getTextureDimensions().setWidth(data[offset + WIDTH]).setHeight(data[offset + HEIGHT]);
+		character.getOffsetCoordinates().setX(data[offset + OFFSET_X]).setY(data[offset + OFFSET_Y]);
+		return character.setAdvance(data[offset + ADVANCE]).setPage(data[offset + PAGE]).setChannel(data[offset + CHANNEL]);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("BmfGlyphTable [size=%s]", ids.length);
+	}
+
+}
@@ -0,0 +1,209 @@
+package com.kaba4cow.bmffont;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import javax.imageio.ImageIO;
+
+/**
+ * Decodes texture page images into direct buffers of 8-bit RGBA pixels, stored row by row from the top. TGA images are decoded
+ * by this class; PNG and any other format supported by {@link ImageIO} are decoded with {@link ImageIO}. Grayscale images are
+ * expanded to opaque gray pixels with their stored values, and images without an alpha channel are reported as such, so that
+ * consumers can take the coverage of single-channel pages from their luminance.
+ */
+final class BmfImageReader {
+
+	static final int BYTES_PER_PIXEL = 4;
+
+	static final int WIDTH = 0;
+	static final int HEIGHT = 1;
+	static final int ALPHA = 2;
+
+	private static final int TGA_HEADER_SIZE = 18;
+
+	private static final int TGA_COLOR_MAPPED = 1;
+	private static final int TGA_TRUE_COLOR = 2;
+	private static final int TGA_GRAYSCALE = 3;
+	private static final int TGA_RLE = 8;
+
+	private static final int TGA_TOP_TO_BOTTOM = 0x20;
+
+	private BmfImageReader() {}
+
+	/**
+	 * Decodes the image file at the specified path.
+	 *
+	 * @param path       the path of the image file
+	 * @param dimensions the array to receive the width and height of the image, and {@code 1} if the image has an alpha channel
+	 *                   or {@code 0} otherwise
+	 *
+	 * @return a direct buffer containing the pixels
+	 *
+	 * @throws IOException if an I/O error occurs, or if the image is malformed or its format is not supported
+	 */
+	static ByteBuffer read(Path path, int[] dimensions) throws IOException {
+		String name = path.getFileName().toString();
+		if (name.regionMatches(true, name.length() - 4, ".tga", 0, 4))
+			try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+				return readTga(channel.map(MapMode.READ_ONLY, 0L, channel.size()), dimensions);
+			}
+		BufferedImage image = ImageIO.read(path.toFile());
+		if (image == null)
+			throw new IOException(String.format("Unsupported image format: %s", path));
+		return readImage(image, dimensions);
+	}
+
+	private static ByteBuffer readImage(BufferedImage image, int[] dimensions) {
+		int width = image.getWidth();
+		int height = image.getHeight();
+		ByteBuffer pixels = ByteBuffer.allocateDirect(width * height * BYTES_PER_PIXEL);
+		int[] row = new int[width];
+		boolean gray = image.getType() == BufferedImage.TYPE_BYTE_GRAY;
+		for (int y = 0; y < height; y++) {
+			if (gray) {
+				image.getRaster().getSamples(0, y, width, 1, 0, row);
+				for (int x = 0; x < width; x++) {
+					byte value = (byte) row[x];
+					pixels.put(value).put(value).put(value).put((byte) 0xFF);
+				}
+			} else {
+				image.getRGB(0, y, width, 1, row, 0, width);
+				for (int x = 0; x < width; x++) {
+					int argb = row[x];
+					pixels.put((byte) (argb >>> 16)).put((byte) (argb >>> 8)).put((byte) argb).put((byte) (argb >>> 24));
+				}
+			}
+		}
+		pixels.flip();
+		dimensions[WIDTH] = width;
+		dimensions[HEIGHT] = height;
+		dimensions[ALPHA] = image.getColorModel().hasAlpha() ? 1 : 0;
+		return pixels;
+	}
+
+	/**
+	 * Decodes a TGA image. Uncompressed and run-length encoded color-mapped, true-color and grayscale images with 8, 24 or 32
+	 * bits per pixel are supported.
+	 *
+	 * @param source     the buffer containing the image
+	 * @param dimensions the array to receive the width and height of the image, and {@code 1} if the image has an alpha channel
+	 *                   or {@code 0} otherwise
+	 *
+	 * @return a direct buffer containing the pixels
+	 *
+	 * @throws IOException if the image is malformed or not supported
+	 */
+	static ByteBuffer readTga(ByteBuffer source, int[] dimensions) throws IOException {
+		ByteBuffer buffer = source.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+		if (buffer.remaining() < TGA_HEADER_SIZE)
+			throw new IOException("Truncated TGA header");
+		int idLength = buffer.get() & 0xFF;
+		int colorMapType = buffer.get() & 0xFF;
+		int imageType = buffer.get() & 0xFF;
+		int colorMapFirst = buffer.getShort() & 0xFFFF;
+		int colorMapLength = buffer.getShort() & 0xFFFF;
+		int colorMapDepth = buffer.get() & 0xFF;
+		buffer.getShort();
+		buffer.getShort();
+		int width = buffer.getShort() & 0xFFFF;
+		int height = buffer.getShort() & 0xFFFF;
+		int depth = buffer.get() & 0xFF;
+		int descriptor = buffer.get() & 0xFF;
+		int type = imageType & ~TGA_RLE;
+		boolean rle = (imageType & TGA_RLE) != 0;
+		boolean supported = type == TGA_COLOR_MAPPED && colorMapType == 1 && depth == 8
+				&& (colorMapDepth == 24 || colorMapDepth == 32) || type == TGA_TRUE_COLOR && (depth == 24 || depth == 32)
+				|| type == TGA_GRAYSCALE && depth == 8;
+		if (!supported)
+			throw new IOException(String.format("Unsupported TGA image type %s with %s bits per pixel", imageType, depth));
+		if ((long) width * height * BYTES_PER_PIXEL > Integer.MAX_VALUE)
+			throw new IOException(String.format("TGA image of %sx%s pixels is too large", width, height));
+		try {
+			buffer.position(buffer.position() + idLength);
+			byte[] colorMap = null;
+			if (colorMapType == 1) {
+				int entrySize = (colorMapDepth + 7) >>> 3;
+				if (type == TGA_COLOR_MAPPED) {
+					colorMap = new byte[(colorMapFirst + colorMapLength) * BYTES_PER_PIXEL];
+					for (int entry = 0; entry < colorMapLength; entry++)
+						readPixel(buffer, colorMapDepth, colorMap, (colorMapFirst + entry) * BYTES_PER_PIXEL);
+				} else
+					buffer.position(buffer.position() + colorMapLength * entrySize);
+			}
+			ByteBuffer pixels = ByteBuffer.allocateDirect(width * height * BYTES_PER_PIXEL);
+			boolean topToBottom = (descriptor & TGA_TOP_TO_BOTTOM) != 0;
+			byte[] pixel = new byte[BYTES_PER_PIXEL];
+			int count = width * height;
+			int index = 0;
+			while (index < count) {
+				int run = 1;
+				boolean repeat = false;
+				if (rle) {
+					int packet = buffer.get() & 0xFF;
+					run = (packet & 0x7F) + 1;
+					repeat = (packet & 0x80) != 0;
+				}
+				for (int i = 0; i < run && index < count; i++, index++) {
+					if (i == 0 || !repeat)
+						readPixel(buffer, type, depth, colorMap, pixel);
+					int y = index / width;
+					int x = index - y * width;
+					int offset = ((topToBottom ? y : height - 1 - y) * width + x) * BYTES_PER_PIXEL;
+					pixels.put(offset, pixel[0]).put(offset + 1, pixel[1]).put(offset + 2, pixel[2]).put(offset + 3, pixel[3]);
+				}
+			}
+			dimensions[WIDTH] = width;
+			dimensions[HEIGHT] = height;
+			dimensions[ALPHA] = depth == 32 || type == TGA_COLOR_MAPPED && colorMapDepth == 32 ? 1 : 0;
+			return pixels;
+		} catch (BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException exception) {
+			throw new IOException("Truncated or malformed TGA image data", exception);
+		}
+	}
+
+	/**
+	 * Returns the luminance of an RGBA pixel, used as the coverage of pages without an alpha channel.
+	 *
+	 * @param pixels the array containing the pixel
+	 * @param offset the offset of the pixel in the array
+	 *
+	 * @return the luminance, from {@code 0} to {@code 255}
+	 */
+	static int luminance(byte[] pixels, int offset) {
+		return (pixels[offset] & 0xFF) * 77 + (pixels[offset + 1] & 0xFF) * 150 + (pixels[offset + 2] & 0xFF) * 29 >>> 8;
+	}
+
+	private static void readPixel(ByteBuffer buffer, int type, int depth, byte[] colorMap, byte[] pixel) throws IOException {
+		if (type == TGA_COLOR_MAPPED) {
+			int entry = (buffer.get() & 0xFF) * BYTES_PER_PIXEL;
+			if (entry + BYTES_PER_PIXEL > colorMap.length)
+				throw new IOException(String.format("TGA color map index %s out of range", entry / BYTES_PER_PIXEL));
+			System.arraycopy(colorMap, entry, pixel, 0, BYTES_PER_PIXEL);
+		} else if (type == TGA_GRAYSCALE) {
+			byte gray = buffer.get();
+			pixel[0] = gray;
+			pixel[1] = gray;
+			pixel[2] = gray;
+			pixel[3] = (byte) 0xFF;
+		} else
+			readPixel(buffer, depth, pixel, 0);
+	}
+
+	private static void readPixel(ByteBuffer buffer, int depth, byte[] target, int offset) {
+		byte blue = buffer.get();
+		byte green = buffer.get();
+		byte red = buffer.get();
+		target[offset] = red;
+		target[offset + 1] = green;
+		target[offset + 2] = blue;
+		target[offset + 3] = depth == 32 ? buffer.get() : (byte) 0xFF;
+	}
+
+}
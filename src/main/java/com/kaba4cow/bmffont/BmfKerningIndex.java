@@ -0,0 +1,217 @@
+package com.kaba4cow.bmffont;
+
+import java.util.Arrays;
+
+/**
+ * An open-addressing hash table mapping kerning pairs to {@link BmfKerning} objects. Each pair is packed into a single
+ * {@code long} key, so lookups neither box nor allocate.
+ */
+final class BmfKerningIndex {
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	private long[] keys;
+
+	private BmfKerning[] values;
+
+	private int size;
+
+	private int mask;
+
+	/**
+	 * Creates a new empty kerning index.
+	 */
+	BmfKerningIndex() {
+		this.keys = new long[INITIAL_CAPACITY];
+		this.values = new BmfKerning[INITIAL_CAPACITY];
+		this.size = 0;
+		this.mask = INITIAL_CAPACITY - 1;
+	}
+
+	/**
+	 * Returns the kerning index of the specified font. The indices of {@link BmfFont} and {@link FrozenBmfFont} are returned
+	 * directly; for other fonts a new index is built from their kernings, with later kernings of the same pair taking
+	 * precedence.
+	 *
+	 * @param font the font
+	 *
+	 * @return the kerning index, which must not be modified
+	 */
+	static BmfKerningIndex of(BmfFontView font) {
+		if (font instanceof BmfFont)
+			return ((BmfFont) font).getKerningIndex();
+		if (font instanceof FrozenBmfFont)
+			return ((FrozenBmfFont) font).getKerningIndex();
+		BmfKerningIndex index = new BmfKerningIndex();
+		for (BmfKerning kerning : font.getKernings())
+			index.put(kerning);
+		return index;
+	}
+
+	/**
+	 * Packs a pair of character codes into a single key.
+	 *
+	 * @param first  the code of the first character
+	 * @param second the code of the second character
+	 *
+	 * @return the packed key
+	 */
+	static long key(int first, int second) {
+		return ((long) first << 32) | (second & 0xFFFFFFFFL);
+	}
+
+	private static int hash(long key) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+
+	/**
+	 * Returns the number of pairs in this index.
+	 *
+	 * @return the number of pairs
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the kerning for a pair of characters, or {@code null} if not found.
+	 *
+	 * @param first  the code of the first character
+	 * @param second the code of the second character
+	 *
+	 * @return the {@link BmfKerning}, or {@code null} if not found
+	 */
+	BmfKerning get(int first, int second) {
+		long key = key(first, second);
+		BmfKerning[] values = this.values;
+		long[] keys = this.keys;
+		int mask = this.mask;
+		int slot = hash(key) & mask;
+		BmfKerning value;
+		while ((value = values[slot]) != null) {
+			if (keys[slot] == key)
+				return value;
+			slot = (slot + 1) & mask;
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the kerning amount for a pair of characters, or {@code 0} if not found.
+	 *
+	 * @param first  the code of the first character
+	 * @param second the code of the second character
+	 *
+	 * @return the kerning amount
+	 */
+	int getAmount(int first, int second) {
+		BmfKerning kerning = get(first, second);
+		return kerning == null ? 0 : kerning.getAmount();
+	}
+
+	/**
+	 * Puts a kerning into this index, replacing any kerning with the same pair.
+	 *
+	 * @param kerning the kerning to put
+	 */
+	void put(BmfKerning kerning) {
+		if (size >= (values.length >> 1) + (values.length >> 2))
+			resize(values.length << 1);
+		long key = key(kerning.getFirst(), kerning.getSecond());
+		int slot = hash(key) & mask;
+		while (values[slot] != null) {
+			if (keys[slot] == key) {
+				values[slot] = kerning;
+				return;
+			}
+			slot = (slot + 1) & mask;
+		}
+		keys[slot] = key;
+		values[slot] = kerning;
+		size++;
+	}
+
+	/**
+	 * Removes the specified kerning from this index if it is the one stored for its pair.
+	 *
+	 * @param kerning the kerning to remove
+	 *
+	 * @return {@code true} if the kerning was removed, {@code false} otherwise
+	 */
+	boolean remove(BmfKerning kerning) {
+		long key = key(kerning.getFirst(), kerning.getSecond());
+		int slot = hash(key) & mask;
+		while (values[slot] != null) {
+			if (keys[slot] == key) {
+				if (values[slot] != kerning)
+					return false;
+				shift(slot);
+				size--;
+				return true;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the number of slots of the hash table.
+	 *
+	 * @return the capacity
+	 */
+	int capacity() {
+		return values.length;
+	}
+
+	/**
+	 * Returns the kerning stored in the specified slot of the hash table.
+	 *
+	 * @param slot the slot
+	 *
+	 * @return the {@link BmfKerning}, or {@code null} if the slot is empty
+	 */
+	BmfKerning slot(int slot) {
+		return values[slot];
+	}
+
+	/**
+	 * Removes all pairs from this index.
+	 */
+	void clear() {
+		Arrays.fill(values, null);
+		size = 0;
+	}
+
+	private void shift(int slot) {
+		int mask = this.mask;
+		int next = (slot + 1) & mask;
+		while (values[next] != null) {
+			int home = hash(keys[next]) & mask;
+			if (((next - home) & mask) >= ((next - slot) & mask)) {
+				keys[slot] = keys[next];
+				values[slot] = values[next];
+				slot = next;
+			}
+			next = (next + 1) & mask;
+		}
+		values[slot] = null;
+	}
+
+	private void resize(int capacity) {
+		long[] oldKeys = keys;
+		BmfKerning[] oldValues = values;
+		keys = new long[capacity];
+		values = new BmfKerning[capacity];
+		mask = capacity - 1;
+		for (int i = 0; i < oldValues.length; i++)
+			if (oldValues[i] != null) {
+				int slot = hash(oldKeys[i]) & mask;
+				while (values[slot] != null)
+					slot = (slot + 1) & mask;
+				keys[slot] = oldKeys[i];
+				values[slot] = oldValues[i];
+			}
+	}
+
+}
@@ -0,0 +1,203 @@
+package com.kaba4cow.bmffont;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * An immutable snapshot of the kernings of a {@link BmfFontView}, grouped by the first character of each pair. For every first
+ * character the second characters are stored in ascending order in a primitive array, with the amounts in a parallel array, so
+ * all pairs starting with a character can be visited without hashing or allocating. Pairs are looked up by a binary search on
+ * the first character followed by a linear scan of short rows or a binary search of long ones.
+ */
+public final class BmfKerningTable {
+
+	private static final int LINEAR_SCAN_LIMIT = 8;
+
+	private final int[] firsts;
+
+	private final int[] offsets;
+
+	private final int[] seconds;
+
+	private final int[] amounts;
+
+	/**
+	 * Creates a new kerning table containing a snapshot of all kernings of the specified font. If the font contains several
+	 * kernings for the same pair, the one used by {@link BmfFontView#getKerning(int, int)} is taken.
+	 *
+	 * @param font the font to take the kernings from
+	 */
+	public BmfKerningTable(BmfFontView font) {
+		Objects.requireNonNull(font, "Font must not be null");
+		BmfKerningIndex index = BmfKerningIndex.of(font);
+		int size = index.size();
+		long[] keys = new long[size];
+		int count = 0;
+		for (int slot = 0; slot < index.capacity(); slot++) {
+			BmfKerning kerning = index.slot(slot);
+			if (Objects.nonNull(kerning))
+				keys[count++] = key(kerning.getFirst(), kerning.getSecond());
+		}
+		Arrays.sort(keys);
+		int rows = 0;
+		for (int i = 0; i < size; i++)
+			if (i == 0 || first(keys[i]) != first(keys[i - 1]))
+				rows++;
+		this.firsts = new int[rows];
+		this.offsets = new int[rows + 1];
+		this.seconds = new int[size];
+		this.amounts = new int[size];
+		int row = -1;
+		for (int i = 0; i < size; i++) {
+			int first = first(keys[i]);
+			if (row < 0 || firsts[row] != first) {
+				firsts[++row] = first;
+				offsets[row] = i;
+			}
+			seconds[i] = second(keys[i]);
+			amounts[i] = index.getAmount(first, seconds[i]);
+		}
+		offsets[rows] = size;
+	}
+
+	private static long key(int first, int second) {
+		return ((long) first << 32) | ((second ^ Integer.MIN_VALUE) & 0xFFFFFFFFL);
+	}
+
+	private static int first(long key) {
+		return (int) (key >> 32);
+	}
+
+	private static int second(long key) {
+		return (int) key ^ Integer.MIN_VALUE;
+	}
+
+	/**
+	 * Returns the number of kerning pairs in this table.
+	 *
+	 * @return the number of pairs
+	 */
+	public int size() {
+		return seconds.length;
+	}
+
+	/**
+	 * Returns the number of distinct first characters in this table.
+	 *
+	 * @return the number of first characters
+	 */
+	public int getFirstCount() {
+		return firsts.length;
+	}
+
+	/**
+	 * Returns the code of the first character at the specified index, in ascending order of codes.
+	 *
+	 * @param index the index between {@code 0} and {@link #getFirstCount()}
+	 *
+	 * @return the character code
+	 */
+	public int getFirst(int index) {
+		return firsts[index];
+	}
+
+	/**
+	 * Returns the number of pairs starting with the specified character.
+	 *
+	 * @param first the code of the first character
+	 *
+	 * @return the number of pairs
+	 */
+	public int countSeconds(int first) {
+		int row = Arrays.binarySearch(firsts, first);
+		return row < 0 ? 0 : offsets[row + 1] - offsets[row];
+	}
+
+	/**
+	 * Returns the kerning amount for a pair of characters.
+	 *
+	 * @param first  the code of the first character
+	 * @param second the code of the second character
+	 *
+	 * @return the kerning amount, or {@code 0} if the pair has no kerning
+	 */
+	public int getAmount(int first, int second) {
+		int row = Arrays.binarySearch(firsts, first);
+		if (row < 0)
+			return 0;
+		int from = offsets[row];
+		int to = offsets[row + 1];
+		if (to - from <= LINEAR_SCAN_LIMIT) {
+			for (int i = from; i < to; i++)
+				if (seconds[i] >= second)
+					return seconds[i] == second ? amounts[i] : 0;
+			return 0;
+		}
+		int i = Arrays.binarySearch(seconds, from, to, second);
+		return i < 0 ? 0 : amounts[i];
+	}
+
+	/**
+	 * Passes every pair starting with the specified character to the specified consumer, in ascending order of the second
+	 * character.
+	 *
+	 * @param first    the code of the first character
+	 * @param consumer the consumer to receive the second characters and amounts
+	 *
+	 * @return the number of pairs passed to the consumer
+	 */
+	public int forEachSecond(int first, KerningConsumer consumer) {
+		Objects.requireNonNull(consumer, "Consumer must not be null");
+		int row = Arrays.binarySearch(firsts, first);
+		if (row < 0)
+			return 0;
+		int from = offsets[row];
+		int to = offsets[row + 1];
+		for (int i = from; i < to; i++)
+			consumer.accept(seconds[i], amounts[i]);
+		return to - from;
+	}
+
+	/**
+	 * Copies the second characters and amounts of all pairs starting with the specified character into the specified arrays,
+	 * in ascending order of the second character. At most as many pairs as fit into both arrays are copied.
+	 *
+	 * @param first   the code of the first character
+	 * @param seconds the array to receive the codes of the second characters
+	 * @param amounts the array to receive the kerning amounts
+	 *
+	 * @return the number of pairs copied
+	 */
+	public int getSeconds(int first, int[] seconds, int[] amounts) {
+		int row = Arrays.binarySearch(firsts, first);
+		if (row < 0)
+			return 0;
+		int from = offsets[row];
+		int count = Math.min(offsets[row + 1] - from, Math.min(seconds.length, amounts.length));
+		System.arraycopy(this.seconds, from, seconds, 0, count);
+		System.arraycopy(this.amounts, from, amounts, 0, count);
+		return count;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("BmfKerningTable [pairs=%s, firsts=%s]", seconds.length, firsts.length);
+	}
+
+	/**
+	 * Receives the kerning pairs of a first character.
+	 */
+	@FunctionalInterface
+	public interface KerningConsumer {
+
+		/**
+		 * Accepts a kerning pair.
+		 *
+		 * @param second the code of the second character
+		 * @param amount the kerning amount
+		 */
+		void accept(int second, int amount);
+
+	}
+
+}
@@ -0,0 +1,305 @@
+package com.kaba4cow.bmffont;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A least-recently-used cache of laid out {@link BmfTextRun}s, keyed by the font, the text, the maximum width and the alignment.
+ * The cache is bounded both by the number of runs and by their total {@linkplain BmfTextRun#getWeight() weight}; when either
+ * bound is exceeded the least recently used runs are evicted. Fonts are compared by identity, so the runs of a font have to be
+ * {@linkplain #invalidate(BmfFont) invalidated} after the font is modified.
+ * <p>
+ * The cache is thread-safe. It is divided into a number of segments, each guarded by its own lock and holding an equal share
+ * of the bounds, so that render threads working on different strings rarely contend. Looking up a cached run does not
+ * allocate.
+ */
+public class BmfLayoutCache {
+
+	private final Segment[] segments;
+
+	private final int mask;
+
+	/**
+	 * Creates a new cache with a single segment.
+	 *
+	 * @param maxSize   the maximum number of runs
+	 * @param maxWeight the maximum total weight of the runs
+	 */
+	public BmfLayoutCache(int maxSize, long maxWeight) {
+		this(maxSize, maxWeight, 1);
+	}
+
+	/**
+	 * Creates a new cache divided into the specified number of segments, which is rounded up to a power of two.
+	 *
+	 * @param maxSize     the maximum number of runs
+	 * @param maxWeight   the maximum total weight of the runs
+	 * @param concurrency the expected number of threads using the cache concurrently
+	 */
+	public BmfLayoutCache(int maxSize, long maxWeight, int concurrency) {
+		if (maxSize < 1)
+			throw new IllegalArgumentException("Maximum size must be positive");
+		if (maxWeight < 1L)
+			throw new IllegalArgumentException("Maximum weight must be positive");
+		if (concurrency < 1)
+			throw new IllegalArgumentException("Concurrency must be positive");
+		int count = Integer.highestOneBit(Math.min(concurrency, 1 << 16) * 2 - 1);
+		count = Math.min(count, Integer.highestOneBit(maxSize));
+		this.segments = new Segment[count];
+		for (int i = 0; i < count; i++)
+			segments[i] = new Segment((maxSize + count - 1) / count, (maxWeight + count - 1) / count);
+		this.mask = count - 1;
+	}
+
+	/**
+	 * Returns the run of the specified text, laying it out with {@link BmfTextLayout} if it is not cached.
+	 *
+	 * @param font      the font to lay out the text with
+	 * @param text      the text to lay out
+	 * @param maxWidth  the width of the text box that lines are wrapped at, or {@code 0} to not wrap lines
+	 * @param alignment the alignment of the lines within the box
+	 *
+	 * @return the {@link BmfTextRun}
+	 */
+	public BmfTextRun get(BmfFontView font, CharSequence text, int maxWidth, BmfTextAlignment alignment) {
+		Objects.requireNonNull(font, "Font must not be null");
+		Objects.requireNonNull(text, "Text must not be null");
+		Objects.requireNonNull(alignment, "Alignment must not be null");
+		int hash = Key.hash(font, text, maxWidth, alignment);
+		Segment segment = segments[(hash ^ hash >>> 16) & mask];
+		synchronized (segment) {
+			Key probe = segment.probe.set(font, text, maxWidth, alignment, hash);
+			BmfTextRun run = segment.runs.get(probe);
+			probe.set(null, null, 0, null, 0);
+			if (Objects.nonNull(run)) {
+				segment.hits++;
+				return run;
+			}
+			segment.misses++;
+		}
+		BmfTextRun run = layout(font, text, maxWidth, alignment);
+		Key key = new Key().set(font, text.toString(), maxWidth, alignment, hash);
+		synchronized (segment) {
+			BmfTextRun existing = segment.runs.putIfAbsent(key, run);
+			if (Objects.nonNull(existing))
+				return existing;
+			segment.weight += run.getWeight();
+			segment.evict();
+		}
+		return run;
+	}
+
+	private static BmfTextRun layout(BmfFontView font, CharSequence text, int maxWidth, BmfTextAlignment alignment) {
+		BmfTextLayout layout = new BmfTextLayout(font);
+		BmfLineBreaker lineBreaker = new BmfLineBreaker(font);
+		int length = text.length();
+		int lines = lineBreaker.breakLines(text, 0, length, maxWidth);
+		float[] quads = new float[layout.countQuads(text, 0, length) * BmfTextLayout.QUAD_STRIDE];
+		int count = layout.layout(text, lineBreaker, 0.0f, 0.0f, maxWidth, alignment, quads, 0);
+		if (count * BmfTextLayout.QUAD_STRIDE < quads.length)
+			quads = Arrays.copyOf(quads, count * BmfTextLayout.QUAD_STRIDE);
+		return new BmfTextRun(quads, count, lineBreaker.getMaxLineWidth(), lines * font.getLineHeight());
+	}
+
+	/**
+	 * Removes all runs of the specified font.
+	 *
+	 * @param font the font whose runs to remove
+	 */
+	public void invalidate(BmfFontView font) {
+		for (Segment segment : segments)
+			synchronized (segment) {
+				Iterator<Map.Entry<Key, BmfTextRun>> iterator = segment.runs.entrySet().iterator();
+				while (iterator.hasNext()) {
+					Map.Entry<Key, BmfTextRun> entry = iterator.next();
+					if (entry.getKey().font == font) {
+						segment.weight -= entry.getValue().getWeight();
+						iterator.remove();
+					}
+				}
+			}
+	}
+
+	/**
+	 * Removes all runs. The counters are not reset.
+	 */
+	public void clear() {
+		for (Segment segment : segments)
+			synchronized (segment) {
+				segment.runs.clear();
+				segment.weight = 0L;
+			}
+	}
+
+	/**
+	 * Returns the number of cached runs.
+	 *
+	 * @return the number of runs
+	 */
+	public int size() {
+		int size = 0;
+		for (Segment segment : segments)
+			synchronized (segment) {
+				size += segment.runs.size();
+			}
+		return size;
+	}
+
+	/**
+	 * Returns the total weight of the cached runs.
+	 *
+	 * @return the total weight
+	 */
+	public long getWeight() {
+		long weight = 0L;
+		for (Segment segment : segments)
+			synchronized (segment) {
+				weight += segment.weight;
+			}
+		return weight;
+	}
+
+	/**
+	 * Returns the number of lookups that found a cached run.
+	 *
+	 * @return the number of hits
+	 */
+	public long getHitCount() {
+		long hits = 0L;
+		for (Segment segment : segments)
+			synchronized (segment) {
+				hits += segment.hits;
+			}
+		return hits;
+	}
+
+	/**
+	 * Returns the number of lookups that had to lay out the text.
+	 *
+	 * @return the number of misses
+	 */
+	public long getMissCount() {
+		long misses = 0L;
+		for (Segment segment : segments)
+			synchronized (segment) {
+				misses += segment.misses;
+			}
+		return misses;
+	}
+
+	/**
+	 * Returns the number of runs evicted to keep the cache within its bounds.
+	 *
+	 * @return the number of evictions
+	 */
+	public long getEvictionCount() {
+		long evictions = 0L;
+		for (Segment segment : segments)
+			synchronized (segment) {
+				evictions += segment.evictions;
+			}
+		return evictions;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("BmfLayoutCache [size=%s, weight=%s, hits=%s, misses=%s, evictions=%s]", size(), getWeight(),
+				getHitCount(), getMissCount(), getEvictionCount());
+	}
+
+	private static final class Segment {
+
+		private final LinkedHashMap<Key, BmfTextRun> runs;
+
+		private final Key probe;
+
+		private final int maxSize;
+
+		private final long maxWeight;
+
+		private long weight;
+
+		private long hits;
+
+		private long misses;
+
+		private long evictions;
+
+		private Segment(int maxSize, long maxWeight) {
+			this.runs = new LinkedHashMap<>(16, 0.75f, true);
+			this.probe = new Key();
+			this.maxSize = maxSize;
+			this.maxWeight = maxWeight;
+		}
+
+		private void evict() {
+			Iterator<BmfTextRun> iterator = runs.values().iterator();
+			while ((runs.size() > maxSize || weight > maxWeight) && iterator.hasNext()) {
+				weight -= iterator.next().getWeight();
+				iterator.remove();
+				evictions++;
+			}
+		}
+
+	}
+
+	private static final class Key {
+
+		private BmfFontView font;
+
+		private CharSequence text;
+
+		private int maxWidth;
+
+		private BmfTextAlignment alignment;
+
+		private int hash;
+
+		private static int hash(BmfFontView font, CharSequence text, int maxWidth, BmfTextAlignment alignment) {
+			int hash = System.identityHashCode(font);
+			for (int i = 0, length = text.length(); i < length; i++)
+				hash = 31 * hash + text.charAt(i);
+			hash = 31 * hash + maxWidth;
+			return 31 * hash + alignment.ordinal();
+		}
+
+		private Key set(BmfFontView font, CharSequence text, int maxWidth, BmfTextAlignment alignment, int hash) {
+			this.font = font;
+			this.text = text;
+			this.maxWidth = maxWidth;
+			this.alignment = alignment;
+			this.hash = hash;
+			return this;
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object object) {
+			if (this == object)
+				return true;
+			if (!(object instanceof Key))
+				return false;
+			Key other = (Key) object;
+			if (hash != other.hash || font != other.font || maxWidth != other.maxWidth || alignment != other.alignment)
+				return false;
+			CharSequence text = this.text;
+			CharSequence otherText = other.text;
+			int length = text.length();
+			if (length != otherText.length())
+				return false;
+			for (int i = 0; i < length; i++)
+				if (text.charAt(i) != otherText.charAt(i))
+					return false;
+			return true;
+		}
+
+	}
+
+}
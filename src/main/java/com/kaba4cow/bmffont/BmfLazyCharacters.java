@@ -0,0 +1,221 @@
+package com.kaba4cow.bmffont;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * The pending characters and kernings of a lazily parsed text font. Only the code and the byte offset of each {@code char} line
+ * and the offset of each {@code kerning} line are kept; characters are decoded from the underlying buffer one at a time when
+ * they are first requested, and kernings are decoded all at once. Decoded characters are kept and published through an atomic
+ * array, so {@link #contains(int)} and {@link #get(int)} may be called without a lock; all other methods are called by the
+ * owning {@link BmfFont} only while it holds its lock.
+ */
+final class BmfLazyCharacters {
+
+	private static final BmfCharacter PENDING = new BmfCharacter(-1);
+
+	private final BmfByteBufferTokenizer tokenizer;
+
+	private final int[] codes;
+
+	private final int[] offsets;
+
+	private final int[] kerningOffsets;
+
+	private final AtomicReferenceArray<BmfCharacter> characters;
+
+	private int pending;
+
+	private BmfCharacter decoded;
+
+	private final BmfParseListener decoder = new BmfParseListener() {
+
+		@Override
+		public void onChar(int id, int x, int y, int width, int height, int offsetX, int offsetY, int advance, int page,
+				int channel) {
+			decoded = BmfFontBuilder.createCharacter(id, x, y, width, height, offsetX, offsetY, advance, page, channel);
+		}
+
+	};
+
+	/**
+	 * Creates new pending characters and kernings.
+	 *
+	 * @param buffer         the buffer containing the text font data
+	 * @param entries        the character entries, each with the code in the high and the line offset in the low 32 bits
+	 * @param entryCount     the number of character entries
+	 * @param kerningOffsets the offsets of the kerning lines
+	 */
+	BmfLazyCharacters(ByteBuffer buffer, long[] entries, int entryCount, int[] kerningOffsets) {
+		this.tokenizer = new BmfByteBufferTokenizer(buffer);
+		Arrays.sort(entries, 0, entryCount);
+		int[] codes = new int[entryCount];
+		int[] offsets = new int[entryCount];
+		int count = 0;
+		for (int i = 0; i < entryCount; i++) {
+			int code = (int) (entries[i] >> 32);
+			if (count > 0 && codes[count - 1] == code)
+				count--;
+			codes[count] = code;
+			offsets[count] = (int) entries[i];
+			count++;
+		}
+		this.codes = Arrays.copyOf(codes, count);
+		this.offsets = Arrays.copyOf(offsets, count);
+		this.kerningOffsets = kerningOffsets;
+		this.characters = new AtomicReferenceArray<>(count);
+		for (int i = 0; i < count; i++)
+			characters.set(i, PENDING);
+		this.pending = count;
+	}
+
+	/**
+	 * Returns the number of characters that have not been decoded or removed yet.
+	 *
+	 * @return the number of pending characters
+	 */
+	int size() {
+		return pending;
+	}
+
+	/**
+	 * Returns the number of kerning lines.
+	 *
+	 * @return the number of kernings
+	 */
+	int kerningCount() {
+		return kerningOffsets.length;
+	}
+
+	/**
+	 * Checks whether a character with the specified code is pending.
+	 *
+	 * @param code the character code
+	 *
+	 * @return {@code true} if the character is pending, {@code false} otherwise
+	 */
+	boolean contains(int code) {
+		int index = Arrays.binarySearch(codes, code);
+		return index >= 0 && characters.get(index) == PENDING;
+	}
+
+	/**
+	 * Returns the character with the specified code if it has already been decoded.
+	 *
+	 * @param code the character code
+	 *
+	 * @return the decoded {@link BmfCharacter}, or {@code null} if the character is pending, removed or unknown
+	 */
+	BmfCharacter get(int code) {
+		int index = Arrays.binarySearch(codes, code);
+		if (index < 0)
+			return null;
+		BmfCharacter character = characters.get(index);
+		return character == PENDING ? null : character;
+	}
+
+	/**
+	 * Decodes the pending character with the specified code and removes it from the pending characters. If the line of the
+	 * character is malformed, the character stays pending and every call throws again.
+	 *
+	 * @param code the character code
+	 *
+	 * @return the decoded {@link BmfCharacter}, or {@code null} if the character is not pending
+	 *
+	 * @throws UncheckedIOException if the line of the character is malformed
+	 */
+	BmfCharacter take(int code) {
+		int index = Arrays.binarySearch(codes, code);
+		if (index < 0 || characters.get(index) != PENDING)
+			return null;
+		BmfCharacter character = decode(offsets[index]);
+		characters.set(index, character);
+		pending--;
+		return character;
+	}
+
+	/**
+	 * Removes the character with the specified code from the pending characters without decoding it.
+	 *
+	 * @param code the character code
+	 */
+	void remove(int code) {
+		int index = Arrays.binarySearch(codes, code);
+		if (index >= 0 && characters.getAndSet(index, null) == PENDING)
+			pending--;
+	}
+
+	/**
+	 * Passes the code of each pending character to the specified consumer, in ascending order.
+	 *
+	 * @param action the consumer to pass the codes to
+	 */
+	void forEachCode(IntConsumer action) {
+		for (int index = 0; index < codes.length; index++)
+			if (characters.get(index) == PENDING)
+				action.accept(codes[index]);
+	}
+
+	/**
+	 * Decodes all pending characters and passes each of them to the specified consumer.
+	 *
+	 * @param action the consumer to pass the decoded characters to
+	 *
+	 * @throws UncheckedIOException if the line of a character is malformed
+	 */
+	void takeAll(Consumer<BmfCharacter> action) {
+		for (int index = 0; index < codes.length; index++)
+			if (characters.get(index) == PENDING) {
+				BmfCharacter character = decode(offsets[index]);
+				characters.set(index, character);
+				pending--;
+				action.accept(character);
+			}
+	}
+
+	/**
+	 * Decodes all kernings and adds them to the specified font.
+	 *
+	 * @param target the font to add the kernings to
+	 *
+	 * @throws UncheckedIOException if a kerning line is malformed
+	 */
+	void takeKernings(BmfFont target) {
+		BmfParseListener listener = new BmfParseListener() {
+
+			@Override
+			public void onKerning(int first, int second, int amount) {
+				target.putKerning(new BmfKerning(first, second).setAmount(amount));
+			}
+
+		};
+		try {
+			for (int offset : kerningOffsets) {
+				tokenizer.seek(offset);
+				tokenizer.nextTag();
+				BmfParser.parseKerning(tokenizer, listener);
+			}
+		} catch (IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
+	}
+
+	private BmfCharacter decode(int offset) {
+		try {
+			tokenizer.seek(offset);
+			tokenizer.nextTag();
+			BmfParser.parseCharacter(tokenizer, decoder);
+			BmfCharacter character = decoded;
+			decoded = null;
+			return character;
+		} catch (IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
+	}
+
+}
@@ -0,0 +1,242 @@
+package com.kaba4cow.bmffont;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Breaks text into lines that fit a maximum width, using the advance values and kernings of a {@link BmfFontView}. Lines are
+ * broken greedily: line feeds always end a line, carriage returns are ignored, and a line that would grow wider than the maximum
+ * width is broken after its last run of spaces or, if it has none, before the character that does not fit. Spaces at a wrapped
+ * line break are not part of either line, and trailing spaces never count towards the width of a line.
+ * <p>
+ * The lines of the last call to {@link #breakLines(CharSequence, int, int, int)} are kept in primitive arrays that are reused by
+ * later calls, so breaking lines does not allocate once the arrays are large enough. A line breaker may be used by one thread
+ * at a time.
+ */
+public class BmfLineBreaker {
+
+	private final BmfFontView font;
+
+	private int[] starts;
+
+	private int[] ends;
+
+	private int[] widths;
+
+	private int lineCount;
+
+	private int lastCode;
+
+	/**
+	 * Creates a new line breaker for the specified font.
+	 *
+	 * @param font the font to measure text with
+	 */
+	public BmfLineBreaker(BmfFontView font) {
+		this.font = Objects.requireNonNull(font, "Font must not be null");
+		this.starts = new int[8];
+		this.ends = new int[8];
+		this.widths = new int[8];
+		this.lineCount = 0;
+	}
+
+	/**
+	 * Breaks a range of the specified text into lines.
+	 *
+	 * @param text     the text to break
+	 * @param start    the start index, inclusive
+	 * @param end      the end index, exclusive
+	 * @param maxWidth the maximum width of a line in pixels, or {@code 0} to only break lines at line feeds
+	 *
+	 * @return the number of lines, which is at least {@code 1}
+	 */
+	public int breakLines(CharSequence text, int start, int end, int maxWidth) {
+		BmfFontView font = this.font;
+		lineCount = 0;
+		int lineStart = start;
+		int x = 0;
+		int contentWidth = 0;
+		int previous = -1;
+		boolean inSpaces = false;
+		int breakEnd = -1;
+		int breakWidth = 0;
+		int breakNext = -1;
+		int index = start;
+		while (index < end) {
+			int code = Character.codePointAt(text, index);
+			int next = index + Character.charCount(code);
+			if (code == '\n') {
+				addLine(lineStart, index, contentWidth);
+				lineStart = next;
+				x = 0;
+				contentWidth = 0;
+				previous = -1;
+				inSpaces = false;
+				breakEnd = -1;
+				index = next;
+				continue;
+			}
+			if (code == '\r') {
+				index = next;
+				continue;
+			}
+			BmfCharacter character = font.getCharacter(code);
+			if (code == ' ') {
+				if (!inSpaces && index > lineStart) {
+					breakEnd = index;
+					breakWidth = contentWidth;
+				}
+				inSpaces = true;
+				breakNext = next;
+				if (Objects.nonNull(character)) {
+					if (previous != -1)
+						x += font.getKerningAmount(previous, code);
+					x += character.getAdvance();
+					previous = code;
+				}
+				index = next;
+				continue;
+			}
+			inSpaces = false;
+			if (Objects.isNull(character)) {
+				index = next;
+				continue;
+			}
+			int advance = character.getAdvance();
+			int kerning = previous != -1 ? font.getKerningAmount(previous, code) : 0;
+			if (maxWidth > 0 && x + kerning + advance > maxWidth && contentWidth > 0) {
+				if (breakEnd > lineStart) {
+					addLine(lineStart, breakEnd, breakWidth);
+					lineStart = breakNext;
+					x = measure(text, breakNext, index);
+					previous = lastCode;
+				} else {
+					addLine(lineStart, index, contentWidth);
+					lineStart = index;
+					x = 0;
+					previous = -1;
+				}
+				breakEnd = -1;
+				kerning = previous != -1 ? font.getKerningAmount(previous, code) : 0;
+			}
+			x += kerning + advance;
+			contentWidth = x;
+			previous = code;
+			index = next;
+		}
+		addLine(lineStart, end, contentWidth);
+		return lineCount;
+	}
+
+	private int measure(CharSequence text, int start, int end) {
+		BmfFontView font = this.font;
+		int x = 0;
+		int previous = -1;
+		int index = start;
+		while (index < end) {
+			int code = Character.codePointAt(text, index);
+			index += Character.charCount(code);
+			if (code == '\r')
+				continue;
+			BmfCharacter character = BmfFont.findCharacter(font, code);
+			if (Objects.isNull(character))
+				continue;
+			if (previous != -1)
+				x += BmfFont.findKerningAmount(font, previous, code);
+			x += character.getAdvance();
+			previous = code;
+		}
+		lastCode = previous;
+		return x;
+	}
+
+	private void addLine(int start, int end, int width) {
+		if (lineCount == starts.length) {
+			int capacity = lineCount << 1;
+			starts = Arrays.copyOf(starts, capacity);
+			ends = Arrays.copyOf(ends, capacity);
+			widths = Arrays.copyOf(widths, capacity);
+		}
+		starts[lineCount] = start;
+		ends[lineCount] = end;
+		widths[lineCount] = width;
+		lineCount++;
+	}
+
+	/**
+	 * Returns the number of lines of the last call to {@link #breakLines(CharSequence, int, int, int)}.
+	 *
+	 * @return the number of lines
+	 */
+	public int getLineCount() {
+		return lineCount;
+	}
+
+	/**
+	 * Returns the start index of the specified line in the text.
+	 *
+	 * @param line the line index
+	 *
+	 * @return the start index, inclusive
+	 */
+	public int getLineStart(int line) {
+		return starts[line];
+	}
+
+	/**
+	 * Returns the end index of the specified line in the text.
+	 *
+	 * @param line the line index
+	 *
+	 * @return the end index, exclusive
+	 */
+	public int getLineEnd(int line) {
+		return ends[line];
+	}
+
+	/**
+	 * Returns the width of the specified line, without trailing spaces.
+	 *
+	 * @param line the line index
+	 *
+	 * @return the width in pixels
+	 */
+	public int getLineWidth(int line) {
+		return widths[line];
+	}
+
+	/**
+	 * Returns the width of the widest line.
+	 *
+	 * @return the width in pixels
+	 */
+	public int getMaxLineWidth() {
+		int width = 0;
+		for (int line = 0; line < lineCount; line++)
+			width = Math.max(width, widths[line]);
+		return width;
+	}
+
+	/**
+	 * Copies the start indices, end indices and widths of the lines into the specified arrays, each of which must have room for
+	 * {@link #getLineCount()} values.
+	 *
+	 * @param starts the array to receive the start indices, or {@code null}
+	 * @param ends   the array to receive the end indices, or {@code null}
+	 * @param widths the array to receive the widths, or {@code null}
+	 */
+	public void getLines(int[] starts, int[] ends, int[] widths) {
+		if (Objects.nonNull(starts))
+			System.arraycopy(this.starts, 0, starts, 0, lineCount);
+		if (Objects.nonNull(ends))
+			System.arraycopy(this.ends, 0, ends, 0, lineCount);
+		if (Objects.nonNull(widths))
+			System.arraycopy(this.widths, 0, widths, 0, lineCount);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("BmfLineBreaker [font=%s, lineCount=%s]", font.getFace(), lineCount);
+	}
+
+}
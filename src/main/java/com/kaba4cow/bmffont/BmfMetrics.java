@@ -0,0 +1,59 @@
+package com.kaba4cow.bmffont;
+
+/**
+ * Receives instrumentation events from {@link BmfParser} and {@link BmfFont}, for monitoring how fonts are parsed and used. All
+ * methods do nothing by default, so an implementation only overrides the events it needs. A parser reports to the metrics set
+ * with {@link BmfParser#setMetrics(BmfMetrics)} and a font reports to the metrics set with
+ * {@link BmfFont#setMetrics(BmfMetrics)}; both default to {@link #NONE}, whose calls the JIT compiler inlines to nothing.
+ * <p>
+ * Events may be reported from any thread that parses or uses a font, so implementations shared between threads must be
+ * thread-safe. {@link BmfCountingMetrics} is a thread-safe implementation that keeps counters in memory.
+ */
+public interface BmfMetrics {
+
+	/**
+	 * Metrics that ignore all events.
+	 */
+	BmfMetrics NONE = new BmfMetrics() {};
+
+	/**
+	 * Called when a font has been parsed.
+	 *
+	 * @param bytes         the number of bytes parsed, or the number of characters for {@link java.io.Reader} and
+	 *                          {@link String} sources
+	 * @param durationNanos the duration of the parse in nanoseconds
+	 * @param characters    the number of characters in the parsed font
+	 * @param kernings      the number of kernings in the parsed font
+	 */
+	default void onParse(long bytes, long durationNanos, int characters, int kernings) {}
+
+	/**
+	 * Called before {@link #onParse(long, long, int, int)} when text data has been parsed, with the number of lines of each tag.
+	 * Lines of lazily parsed data are counted when they are pre-scanned.
+	 *
+	 * @param infoLines    the number of {@code info} lines
+	 * @param commonLines  the number of {@code common} lines
+	 * @param pageLines    the number of {@code page} lines
+	 * @param charLines    the number of {@code char} lines
+	 * @param kerningLines the number of {@code kerning} lines
+	 * @param otherLines   the number of lines with other tags, such as {@code chars} and {@code kernings}
+	 */
+	default void onTextLines(int infoLines, int commonLines, int pageLines, int charLines, int kerningLines, int otherLines) {}
+
+	/**
+	 * Called when a character is requested from a font that does not contain it.
+	 *
+	 * @param code the code of the missing character
+	 */
+	default void onMissingCharacter(int code) {}
+
+	/**
+	 * Called when the kerning of a pair of characters is requested from a font.
+	 *
+	 * @param first  the code of the first character
+	 * @param second the code of the second character
+	 * @param hit    {@code true} if the font contains a kerning for the pair, {@code false} otherwise
+	 */
+	default void onKerningLookup(int first, int second, boolean hit) {}
+
+}
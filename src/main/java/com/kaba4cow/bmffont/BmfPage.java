@@ -0,0 +1,110 @@
+package com.kaba4cow.bmffont;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A handle to a decoded texture page held by a {@link BmfPageCache}. Each call to one of the {@code acquire} methods of the cache
+ * returns a new handle and adds a reference to the page; closing the handle removes the reference again. Pages with no
+ * references may be evicted by the cache, so the pixels must not be used after the handle is closed.
+ * <p>
+ * The pixels are stored in a direct buffer as 8-bit RGBA values, {@link #BYTES_PER_PIXEL} bytes per pixel, row by row from the
+ * top. Images without an alpha channel, such as the 8-bit grayscale pages that store glyph coverage in their single channel,
+ * are stored as opaque pixels with their color values; {@link #hasAlpha()} tells them apart. Handles to the same page share the
+ * buffer. A handle may be used and closed from any thread.
+ */
+public final class BmfPage implements AutoCloseable {
+
+	/**
+	 * Number of bytes per pixel.
+	 */
+	public static final int BYTES_PER_PIXEL = BmfImageReader.BYTES_PER_PIXEL;
+
+	private final BmfPageCache cache;
+
+	private final BmfPageCache.Entry entry;
+
+	private final AtomicBoolean closed;
+
+	BmfPage(BmfPageCache cache, BmfPageCache.Entry entry) {
+		this.cache = cache;
+		this.entry = entry;
+		this.closed = new AtomicBoolean(false);
+	}
+
+	/**
+	 * Returns the canonical path of the image file of this page.
+	 *
+	 * @return the path
+	 */
+	public Path getPath() {
+		return entry.path;
+	}
+
+	/**
+	 * Returns the width of this page.
+	 *
+	 * @return the width in pixels
+	 */
+	public int getWidth() {
+		return entry.width;
+	}
+
+	/**
+	 * Returns the height of this page.
+	 *
+	 * @return the height in pixels
+	 */
+	public int getHeight() {
+		return entry.height;
+	}
+
+	/**
+	 * Checks if the image of this page has an alpha channel. Pages without one store opaque pixels, and consumers take the
+	 * coverage of their glyphs from the luminance of the pixels instead.
+	 *
+	 * @return {@code true} if the image has an alpha channel, {@code false} otherwise
+	 */
+	public boolean hasAlpha() {
+		return entry.alpha;
+	}
+
+	/**
+	 * Returns a new read-only view of the pixels of this page, positioned at the first pixel.
+	 *
+	 * @return the pixels
+	 *
+	 * @throws IllegalStateException if this handle is closed
+	 */
+	public ByteBuffer getPixels() {
+		if (closed.get())
+			throw new IllegalStateException(String.format("Page handle of %s is closed", entry.path));
+		return entry.pixels.asReadOnlyBuffer();
+	}
+
+	/**
+	 * Checks if this handle is closed.
+	 *
+	 * @return {@code true} if the handle is closed, {@code false} otherwise
+	 */
+	public boolean isClosed() {
+		return closed.get();
+	}
+
+	/**
+	 * Removes the reference of this handle from the page. Closing a handle more than once has no effect.
+	 */
+	@Override
+	public void close() {
+		if (closed.compareAndSet(false, true))
+			cache.release(entry);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("BmfPage [path=%s, width=%s, height=%s, alpha=%s, closed=%s]", entry.path, entry.width,
+				entry.height, entry.alpha, closed.get());
+	}
+
+}
@@ -0,0 +1,234 @@
+package com.kaba4cow.bmffont;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A cache of decoded texture pages shared between fonts. Page file names of a {@link BmfFont} are resolved relative to the
+ * directory of its font file, and pages are keyed by the canonical path of their image file, so fonts that share an atlas share
+ * a single decoded copy. Images are decoded into direct buffers: TGA images by a built-in decoder, and PNG and any other format
+ * supported by {@link javax.imageio.ImageIO} with {@code ImageIO}.
+ * <p>
+ * Pages are handed out as reference-counted {@link BmfPage} handles. A page without references stays cached until the total
+ * size of the cached pages exceeds the byte budget, at which point the least recently acquired pages without references are
+ * evicted. Referenced pages are never evicted, so the total size may exceed the budget while they are in use. The memory of an
+ * evicted page is freed when its buffer is garbage collected.
+ * <p>
+ * A cache may be shared between threads. Images are decoded outside of the lock, so a page that several threads request at the
+ * same time may be decoded more than once, but only one copy is kept.
+ */
+public class BmfPageCache {
+
+	private final long maxBytes;
+
+	private final Map<Path, Entry> entries;
+
+	private long bytes;
+
+	/**
+	 * Creates a new page cache with the specified byte budget.
+	 *
+	 * @param maxBytes the maximum total size of the cached pages in bytes, beyond which pages without references are evicted
+	 *
+	 * @throws IllegalArgumentException if {@code maxBytes} is negative
+	 */
+	public BmfPageCache(long maxBytes) {
+		if (maxBytes < 0L)
+			throw new IllegalArgumentException("Maximum bytes must not be negative");
+		this.maxBytes = maxBytes;
+		this.entries = new LinkedHashMap<>(16, 0.75f, true);
+		this.bytes = 0L;
+	}
+
+	/**
+	 * Acquires the specified texture page of a font. The file name of the page is resolved relative to the directory of the font
+	 * file.
+	 *
+	 * @param fontFile the path of the font file
+	 * @param font     the font
+	 * @param page     the page ID
+	 *
+	 * @return a new handle to the page
+	 *
+	 * @throws IOException if the image cannot be read or decoded
+	 */
+	public BmfPage acquire(Path fontFile, BmfFont font, int page) throws IOException {
+		Objects.requireNonNull(fontFile, "Font file Path must not be null");
+		Objects.requireNonNull(font, "Font must not be null");
+		if (page < 0 || page >= font.getPages().size())
+			throw new IllegalArgumentException(
+					String.format("Page %s out of range for %s pages", page, font.getPages().size()));
+		return acquire(resolve(fontFile, font.getPage(page)));
+	}
+
+	/**
+	 * Acquires all texture pages of a font, as by {@link #acquire(Path, BmfFont, int)}. If any page cannot be acquired, the
+	 * pages acquired so far are released.
+	 *
+	 * @param fontFile the path of the font file
+	 * @param font     the font
+	 *
+	 * @return new handles to the pages, indexed by page ID
+	 *
+	 * @throws IOException if an image cannot be read or decoded
+	 */
+	public BmfPage[] acquireAll(Path fontFile, BmfFont font) throws IOException {
+		Objects.requireNonNull(fontFile, "Font file Path must not be null");
+		Objects.requireNonNull(font, "Font must not be null");
+		BmfPage[] pages = new BmfPage[font.getPages().size()];
+		try {
+			for (int page = 0; page < pages.length; page++)
+				pages[page] = acquire(resolve(fontFile, font.getPage(page)));
+		} catch (IOException | RuntimeException exception) {
+			for (BmfPage page : pages)
+				if (Objects.nonNull(page))
+					page.close();
+			throw exception;
+		}
+		return pages;
+	}
+
+	/**
+	 * Acquires the page stored in the specified image file, decoding it if it is not cached.
+	 *
+	 * @param image the path of the image file
+	 *
+	 * @return a new handle to the page
+	 *
+	 * @throws IOException if the image cannot be read or decoded
+	 */
+	public BmfPage acquire(Path image) throws IOException {
+		Objects.requireNonNull(image, "Image Path must not be null");
+		Path path = image.toRealPath();
+		synchronized (this) {
+			Entry entry = entries.get(path);
+			if (Objects.nonNull(entry)) {
+				entry.references++;
+				return new BmfPage(this, entry);
+			}
+		}
+		int[] dimensions = new int[3];
+		ByteBuffer pixels = BmfImageReader.read(path, dimensions);
+		synchronized (this) {
+			Entry entry = entries.get(path);
+			if (Objects.isNull(entry)) {
+				entry = new Entry(path, dimensions[BmfImageReader.WIDTH], dimensions[BmfImageReader.HEIGHT],
+						dimensions[BmfImageReader.ALPHA] != 0, pixels);
+				entries.put(path, entry);
+				bytes += pixels.capacity();
+			}
+			entry.references++;
+			evict(maxBytes);
+			return new BmfPage(this, entry);
+		}
+	}
+
+	private static Path resolve(Path fontFile, String page) {
+		Path directory = fontFile.toAbsolutePath().getParent();
+		return Objects.isNull(directory) ? fontFile.getFileSystem().getPath(page) : directory.resolve(page);
+	}
+
+	synchronized void release(Entry entry) {
+		entry.references--;
+		if (entry.references == 0)
+			evict(maxBytes);
+	}
+
+	private void evict(long budget) {
+		Iterator<Entry> iterator = entries.values().iterator();
+		while (bytes > budget && iterator.hasNext()) {
+			Entry entry = iterator.next();
+			if (entry.references == 0) {
+				iterator.remove();
+				bytes -= entry.pixels.capacity();
+			}
+		}
+	}
+
+	/**
+	 * Removes all pages without references from this cache.
+	 */
+	public synchronized void clear() {
+		evict(-1L);
+	}
+
+	/**
+	 * Returns the number of cached pages, including pages without references.
+	 *
+	 * @return the number of pages
+	 */
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Returns the total size of the pixels of the cached pages.
+	 *
+	 * @return the size in bytes
+	 */
+	public synchronized long getBytes() {
+		return bytes;
+	}
+
+	/**
+	 * Returns the byte budget of this cache.
+	 *
+	 * @return the maximum total size in bytes
+	 */
+	public long getMaxBytes() {
+		return maxBytes;
+	}
+
+	/**
+	 * Returns the number of references to the cached page stored in the specified image file.
+	 *
+	 * @param image the path of the image file
+	 *
+	 * @return the number of references, or {@code -1} if the page is not cached
+	 *
+	 * @throws IOException if the path cannot be resolved
+	 */
+	public int getReferenceCount(Path image) throws IOException {
+		Path path = Objects.requireNonNull(image, "Image Path must not be null").toRealPath();
+		synchronized (this) {
+			Entry entry = entries.get(path);
+			return Objects.isNull(entry) ? -1 : entry.references;
+		}
+	}
+
+	@Override
+	public synchronized String toString() {
+		return String.format("BmfPageCache [pages=%s, bytes=%s, maxBytes=%s]", entries.size(), bytes, maxBytes);
+	}
+
+	static final class Entry {
+
+		final Path path;
+
+		final int width;
+
+		final int height;
+
+		final boolean alpha;
+
+		final ByteBuffer pixels;
+
+		int references;
+
+		private Entry(Path path, int width, int height, boolean alpha, ByteBuffer pixels) {
+			this.path = path;
+			this.width = width;
+			this.height = height;
+			this.alpha = alpha;
+			this.pixels = pixels;
+			this.references = 0;
+		}
+
+	}
+
+}
@@ -0,0 +1,76 @@
+package com.kaba4cow.bmffont;
+
+/**
+ * Receives the contents of BMFont data as they are parsed, one tag or record at a time, without an intermediate
+ * {@link BmfFont}. All methods do nothing by default, so implementations only override the events they need. Values are passed
+ * as primitives; properties that are missing from the data are passed as {@code 0}, {@code false} or empty strings and arrays
+ * of the default length.
+ *
+ * @see BmfPushParser
+ */
+public interface BmfParseListener {
+
+	/**
+	 * Called for the {@code info} tag or block.
+	 *
+	 * @param face        the font face name
+	 * @param size        the font size
+	 * @param bold        whether the font is bold
+	 * @param italic      whether the font is italic
+	 * @param charset     the character set name
+	 * @param unicode     whether the font uses Unicode
+	 * @param stretchH    the horizontal stretch percentage
+	 * @param smooth      whether smoothing is enabled
+	 * @param antiAliased whether anti-aliasing is enabled
+	 * @param padding     the padding values (up, right, down, left)
+	 * @param spacing     the spacing values (horizontal, vertical)
+	 */
+	default void onInfo(String face, int size, boolean bold, boolean italic, String charset, boolean unicode, int stretchH,
+			boolean smooth, boolean antiAliased, int[] padding, int[] spacing) {}
+
+	/**
+	 * Called for the {@code common} tag or block.
+	 *
+	 * @param lineHeight the line height
+	 * @param base       the base value
+	 * @param scaleW     the width of the texture pages
+	 * @param scaleH     the height of the texture pages
+	 * @param packed     whether the characters are packed into the texture channels
+	 */
+	default void onCommon(int lineHeight, int base, int scaleW, int scaleH, boolean packed) {}
+
+	/**
+	 * Called for each texture page.
+	 *
+	 * @param id   the page ID
+	 * @param file the page file name
+	 */
+	default void onPage(int id, String file) {}
+
+	/**
+	 * Called for each character.
+	 *
+	 * @param id      the character code
+	 * @param x       the X coordinate in the texture
+	 * @param y       the Y coordinate in the texture
+	 * @param width   the width in the texture
+	 * @param height  the height in the texture
+	 * @param offsetX the X rendering offset
+	 * @param offsetY the Y rendering offset
+	 * @param advance the advance value
+	 * @param page    the texture page index
+	 * @param channel the texture channel
+	 */
+	default void onChar(int id, int x, int y, int width, int height, int offsetX, int offsetY, int advance, int page,
+			int channel) {}
+
+	/**
+	 * Called for each kerning pair.
+	 *
+	 * @param first  the code of the first character
+	 * @param second the code of the second character
+	 * @param amount the kerning amount
+	 */
+	default void onKerning(int first, int second, int amount) {}
+
+}
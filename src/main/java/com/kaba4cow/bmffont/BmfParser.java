@@ -1,25 +1,61 @@
 package com.kaba4cow.bmffont;
 
-import java.io.BufferedReader;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.FilterReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.PushbackReader;
 import java.io.Reader;
 import java.io.StringReader;
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
 import java.util.Objects;
 
-import com.kaba4cow.stringview.StringView;
-
 /**
- * A utility class for reading BMFont data from {@link Reader}s, {@link InputStream}s or {@link String}s and converting it to
- * {@link BmfFont} objects.
+ * A utility class for reading BMFont data from {@link Reader}s, {@link InputStream}s, {@link ByteBuffer}s, files or
+ * {@link String}s and converting it to {@link BmfFont} objects. The format of the data is detected automatically: XML data is
+ * recognized by its leading {@code <} and read with a streaming StAX reader, binary data is recognized by its {@code BMF} header
+ * and is supported by all sources except {@link Reader}s and {@link String}s, and any other data is read as text. Files are
+ * memory-mapped and parsed directly from their bytes. To receive the contents without creating a {@link BmfFont}, use a
+ * {@link BmfPushParser}.
  */
 public class BmfParser {
 
+	private static final int HEADER_SIZE = 256;
+	private static final int TAG_COUNT = BmfTokenizer.TAG_KERNING + 1;
+
+	private static volatile BmfMetrics metrics = BmfMetrics.NONE;
+
 	private BmfParser() {}
 
+	/**
+	 * Returns the metrics that parses are reported to.
+	 *
+	 * @return the metrics, {@link BmfMetrics#NONE} by default
+	 */
+	public static BmfMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * Sets the metrics that parses are reported to. Each call to one of the {@code parse} and {@code parseLazy} methods reports
+	 * the number of bytes parsed, the duration and the number of characters and kernings of the parsed font, and text data
+	 * additionally reports its number of lines per tag.
+	 *
+	 * @param metrics the metrics to report to, or {@link BmfMetrics#NONE} to stop reporting
+	 */
+	public static void setMetrics(BmfMetrics metrics) {
+		BmfParser.metrics = Objects.requireNonNull(metrics, "Metrics must not be null");
+	}
+
 	/**
 	 * Reads the BMFont data from the specified {@link Reader} and converts its contents to an {@link BmfFont} object. If the
 	 * {@code target} is not {@code null} its contents are cleared using {@link BmfFont#clearCharacters()},
@@ -35,77 +71,35 @@ public class BmfParser {
 	 */
 	public static BmfFont parse(Reader source, BmfFont target) throws IOException {
 		Objects.requireNonNull(source, "Source Reader must not be null");
-		if (Objects.isNull(target))
-			target = new BmfFont();
-		else
-			target.clearCharacters().clearKernings().clearPages();
-		try (BufferedReader reader = new BufferedReader(source)) {
-			String line = null;
-			while (Objects.nonNull(line = reader.readLine())) {
-				Map<String, StringView> map = parseLine(line);
-				switch (map.get("header").asString()) {
-					case "info":
-						target.setFace(map.get("face").asString());
-						target.setSize(map.get("size").asInt());
-						target.setBold(map.get("bold").asInt() != 0);
-						target.setItalic(map.get("italic").asInt() != 0);
-						target.setCharset(map.get("charset").asString());
-						target.setUnicode(map.get("unicode").asInt() != 0);
-						target.setStretchH(map.get("stretchH").asInt());
-						target.setSmooth(map.get("smooth").asInt() != 0);
-						target.setAntiAliased(map.get("aa").asInt() != 0);
-						target.setPadding(map.get("padding").asArrayView().asIntArray(","));
-						target.setSpacing(map.get("spacing").asArrayView().asIntArray(","));
-						break;
-					case "common":
-						target.setLineHeight(map.get("lineHeight").asInt());
-						target.setBase(map.get("base").asInt());
-						BmfDimensions scaleDimensions = target.getScaleDimensions();
-						scaleDimensions.setWidth(map.get("scaleW").asInt());
-						scaleDimensions.setHeight(map.get("scaleH").asInt());
-						target.setPacked(map.get("packed").asInt() != 0);
-						break;
-					case "page":
-						target.addPage(map.get("id").asInt(), map.get("file").asString());
-						break;
-					case "char":
-						BmfCharacter character = new BmfCharacter(map.get("id").asInt());
-
-						BmfCoordinates textureCoordinates = character.getTextureCoordinates();
-						textureCoordinates.setX(map.get("x").asInt());
-						textureCoordinates.setY(map.get("y").asInt());
-
-						BmfDimensions textureDimensions = character.getTextureDimensions();
-						textureDimensions.setWidth(map.get("width").asInt());
-						textureDimensions.setHeight(map.get("height").asInt());
-
-						BmfCoordinates offsetCoordinates = character.getOffsetCoordinates();
-						offsetCoordinates.setX(map.get("xoffset").asInt());
-						offsetCoordinates.setY(map.get("yoffset").asInt());
-
-						character.setAdvance(map.get("xadvance").asInt());
-						character.setPage(map.get("page").asInt());
-						character.setChannel(map.get("chnl").asInt());
-
-						target.addCharacter(character);
-						break;
-					case "kerning":
-						BmfKerning kerning = new BmfKerning(map.get("first").asInt(), map.get("second").asInt());
-						kerning.setAmount(map.get("amount").asInt());
-						target.addKerning(kerning);
-						break;
-					default:
-						break;
-				}
+		BmfMetrics metrics = BmfParser.metrics;
+		if (metrics == BmfMetrics.NONE)
+			return read(source, target, metrics);
+		long start = System.nanoTime();
+		CountingReader reader = new CountingReader(source);
+		return record(metrics, read(reader, target, metrics), reader.count, start);
+	}
+
+	private static BmfFont read(Reader source, BmfFont target, BmfMetrics metrics) throws IOException {
+		target = prepare(target);
+		try (PushbackReader reader = new PushbackReader(source)) {
+			int c;
+			while ((c = reader.read()) == ' ' || c == '\t' || c == '\r' || c == '\n' || c == '\uFEFF')
+				continue;
+			if (c != -1)
+				reader.unread(c);
+			if (c == '<') {
+				BmfXmlReader.read(reader, new BmfFontBuilder(target));
+				return target;
 			}
-			return target;
+			return read(new BmfReaderTokenizer(reader), target, metrics);
 		}
 	}
 
 	/**
-	 * Reads the BMFont data from the specified {@link InputStream} and converts its contents to an {@link BmfFont} object. If
-	 * the {@code target} is not {@code null} its contents are cleared using {@link BmfFont#clearCharacters()},
-	 * {@link BmfFont#clearKernings()} and {@link BmfFont#clearPages()}
+	 * Reads the BMFont data from the specified {@link InputStream} and converts its contents to an {@link BmfFont} object. The
+	 * XML and binary formats are detected automatically, any other data is read as text. If the {@code target} is not
+	 * {@code null} its contents are cleared using {@link BmfFont#clearCharacters()}, {@link BmfFont#clearKernings()} and
+	 * {@link BmfFont#clearPages()}
 	 * 
 	 * @param source the {@link InputStream} to read the BMFont data from
 	 * @param target the {@link BmfFont} to convert the BMFont data to, or {@code null}
@@ -117,7 +111,39 @@ public class BmfParser {
 	 */
 	public static BmfFont parse(InputStream source, BmfFont target) throws IOException {
 		Objects.requireNonNull(source, "Source InputStream must not be null");
-		return parse(new InputStreamReader(source), target);
+		BmfMetrics metrics = BmfParser.metrics;
+		if (metrics == BmfMetrics.NONE)
+			return read(source, target, metrics);
+		long start = System.nanoTime();
+		CountingInputStream stream = new CountingInputStream(source);
+		return record(metrics, read(stream, target, metrics), stream.count, start);
+	}
+
+	private static BmfFont read(InputStream source, BmfFont target, BmfMetrics metrics) throws IOException {
+		BufferedInputStream input = new BufferedInputStream(source);
+		input.mark(HEADER_SIZE);
+		byte[] header = new byte[HEADER_SIZE];
+		int read = 0;
+		int count;
+		while (read < header.length && (count = input.read(header, read, header.length - read)) > 0)
+			read += count;
+		input.reset();
+		ByteBuffer headerBuffer = ByteBuffer.wrap(header, 0, read);
+		if (BmfXmlReader.isXml(headerBuffer))
+			try (InputStream stream = input) {
+				target = prepare(target);
+				BmfXmlReader.read(stream, new BmfFontBuilder(target));
+				return target;
+			}
+		if (!BmfBinaryReader.isBinary(headerBuffer))
+			return read(new InputStreamReader(input), target, metrics);
+		try (InputStream stream = input) {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			byte[] buffer = new byte[8192];
+			while ((count = stream.read(buffer)) > 0)
+				bytes.write(buffer, 0, count);
+			return read(ByteBuffer.wrap(bytes.toByteArray()), target, metrics);
+		}
 	}
 
 	/**
@@ -138,36 +164,467 @@ public class BmfParser {
 		return parse(new StringReader(source), target);
 	}
 
-	private static Map<String, StringView> parseLine(String line) {
-		if (line.trim().isEmpty())
-			return new LinkedHashMap<>();
-		String[] values = line.trim().split(" ", 2);
-		Map<String, StringView> map = new LinkedHashMap<>();
-		map.put("header", new StringView(values[0]));
-		String pairs = values[1];
-		StringBuilder currentKey = new StringBuilder();
-		StringBuilder currentValue = new StringBuilder();
-		boolean quotes = false;
-		boolean readingValue = false;
-		for (char c : pairs.toCharArray())
-			if (c == '\"')
-				quotes = !quotes;
-			else if (c == ' ' && !quotes) {
-				if (readingValue) {
-					map.put(currentKey.toString(), new StringView(currentValue.toString()));
-					currentKey.setLength(0);
-					currentValue.setLength(0);
-					readingValue = false;
+	/**
+	 * Reads the BMFont data from the remaining bytes of the specified {@link ByteBuffer} and converts its contents to an
+	 * {@link BmfFont} object. The text, binary and XML formats are supported. The position of the buffer is not changed. If the
+	 * {@code target} is not {@code null} its contents are cleared using {@link BmfFont#clearCharacters()},
+	 * {@link BmfFont#clearKernings()} and {@link BmfFont#clearPages()}
+	 * 
+	 * @param source the {@link ByteBuffer} to read the BMFont data from
+	 * @param target the {@link BmfFont} to convert the BMFont data to, or {@code null}
+	 * 
+	 * @return the {@link BmfFont} containing the data, either the passed one or a newly created one if {@code target} is
+	 *             {@code null}
+	 * 
+	 * @throws IOException if the data is malformed
+	 */
+	public static BmfFont parse(ByteBuffer source, BmfFont target) throws IOException {
+		Objects.requireNonNull(source, "Source ByteBuffer must not be null");
+		BmfMetrics metrics = BmfParser.metrics;
+		if (metrics == BmfMetrics.NONE)
+			return read(source, target, metrics);
+		long start = System.nanoTime();
+		int bytes = source.remaining();
+		return record(metrics, read(source, target, metrics), bytes, start);
+	}
+
+	private static BmfFont read(ByteBuffer source, BmfFont target, BmfMetrics metrics) throws IOException {
+		target = prepare(target);
+		if (BmfBinaryReader.isBinary(source)) {
+			BmfBinaryReader.read(source, new BmfFontBuilder(target));
+			return target;
+		}
+		if (BmfXmlReader.isXml(source)) {
+			BmfXmlReader.read(source, new BmfFontBuilder(target));
+			return target;
+		}
+		return read(new BmfByteBufferTokenizer(source), target, metrics);
+	}
+
+	/**
+	 * Memory-maps the remainder of the specified {@link FileChannel}, starting at its current position, and converts the BMFont
+	 * data to an {@link BmfFont} object without decoding it to characters first. The channel is not closed. If the
+	 * {@code target} is not {@code null} its contents are cleared using {@link BmfFont#clearCharacters()},
+	 * {@link BmfFont#clearKernings()} and {@link BmfFont#clearPages()}
+	 * 
+	 * @param source the {@link FileChannel} to read the BMFont data from
+	 * @param target the {@link BmfFont} to convert the BMFont data to, or {@code null}
+	 * 
+	 * @return the {@link BmfFont} containing the data, either the passed one or a newly created one if {@code target} is
+	 *             {@code null}
+	 * 
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static BmfFont parse(FileChannel source, BmfFont target) throws IOException {
+		Objects.requireNonNull(source, "Source FileChannel must not be null");
+		long position = source.position();
+		MappedByteBuffer buffer = source.map(MapMode.READ_ONLY, position, source.size() - position);
+		return parse(buffer, target);
+	}
+
+	/**
+	 * Memory-maps the file at the specified {@link Path} and converts its BMFont data to an {@link BmfFont} object without
+	 * decoding it to characters first. If the {@code target} is not {@code null} its contents are cleared using
+	 * {@link BmfFont#clearCharacters()}, {@link BmfFont#clearKernings()} and {@link BmfFont#clearPages()}
+	 * 
+	 * @param source the {@link Path} of the file to read the BMFont data from
+	 * @param target the {@link BmfFont} to convert the BMFont data to, or {@code null}
+	 * 
+	 * @return the {@link BmfFont} containing the data, either the passed one or a newly created one if {@code target} is
+	 *             {@code null}
+	 * 
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static BmfFont parse(Path source, BmfFont target) throws IOException {
+		Objects.requireNonNull(source, "Source Path must not be null");
+		try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+			return parse(channel, target);
+		}
+	}
+
+	/**
+	 * Reads the BMFont data from the remaining bytes of the specified {@link ByteBuffer} lazily. Text data is only pre-scanned
+	 * for the codes and offsets of its {@code char} lines and the offsets of its {@code kerning} lines; each character is
+	 * decoded when it is first requested from the font and all kernings are decoded when they are first accessed. The buffer
+	 * must not be modified while the font has pending characters or kernings. The pre-scan does not validate {@code char} and
+	 * {@code kerning} lines; a malformed line is reported by an {@link java.io.UncheckedIOException} thrown from the font
+	 * operation that decodes it, such as {@link BmfFont#getCharacter(int)}. Binary and XML data are read eagerly, as by
+	 * {@link #parse(ByteBuffer, BmfFont)}. If the {@code target} is not {@code null} its contents are cleared using
+	 * {@link BmfFont#clearCharacters()}, {@link BmfFont#clearKernings()} and {@link BmfFont#clearPages()}
+	 * 
+	 * @param source the {@link ByteBuffer} to read the BMFont data from
+	 * @param target the {@link BmfFont} to convert the BMFont data to, or {@code null}
+	 * 
+	 * @return the {@link BmfFont} containing the data, either the passed one or a newly created one if {@code target} is
+	 *             {@code null}
+	 * 
+	 * @throws IOException if the data is malformed
+	 */
+	public static BmfFont parseLazy(ByteBuffer source, BmfFont target) throws IOException {
+		Objects.requireNonNull(source, "Source ByteBuffer must not be null");
+		BmfMetrics metrics = BmfParser.metrics;
+		if (metrics == BmfMetrics.NONE)
+			return readLazy(source, target, metrics);
+		long start = System.nanoTime();
+		int bytes = source.remaining();
+		return record(metrics, readLazy(source, target, metrics), bytes, start);
+	}
+
+	private static BmfFont readLazy(ByteBuffer source, BmfFont target, BmfMetrics metrics) throws IOException {
+		if (BmfBinaryReader.isBinary(source) || BmfXmlReader.isXml(source))
+			return read(source, target, metrics);
+		target = prepare(target);
+		BmfParseListener listener = new BmfFontBuilder(target);
+		ByteBuffer buffer = source.duplicate();
+		BmfByteBufferTokenizer tokenizer = new BmfByteBufferTokenizer(buffer);
+		long[] entries = new long[256];
+		int entryCount = 0;
+		int[] kerningOffsets = new int[64];
+		int kerningCount = 0;
+		int[] lines = new int[TAG_COUNT];
+		int position = buffer.position();
+		int limit = buffer.limit();
+		if (limit - position >= 3 && buffer.get(position) == (byte) 0xEF && buffer.get(position + 1) == (byte) 0xBB
+				&& buffer.get(position + 2) == (byte) 0xBF)
+			position += 3;
+		while (position < limit) {
+			int start = position;
+			while (position < limit && isBlank(buffer.get(position)))
+				position++;
+			if (startsWithTag(buffer, position, limit, "char")) {
+				if (entryCount == entries.length)
+					entries = Arrays.copyOf(entries, entryCount << 1);
+				entries[entryCount++] = (long) scanId(buffer, position, limit) << 32 | start;
+				lines[BmfTokenizer.TAG_CHAR]++;
+			} else if (startsWithTag(buffer, position, limit, "kerning")) {
+				if (kerningCount == kerningOffsets.length)
+					kerningOffsets = Arrays.copyOf(kerningOffsets, kerningCount << 1);
+				kerningOffsets[kerningCount++] = start;
+				lines[BmfTokenizer.TAG_KERNING]++;
+			} else if (position < limit && buffer.get(position) != '\n' && buffer.get(position) != '\r') {
+				tokenizer.seek(start);
+				int tag = tokenizer.nextTag();
+				if (tag != BmfTokenizer.TAG_END)
+					lines[tag]++;
+				if (tag == BmfTokenizer.TAG_INFO || tag == BmfTokenizer.TAG_COMMON || tag == BmfTokenizer.TAG_PAGE)
+					parseTag(tag, tokenizer, listener);
+			}
+			while (position < limit && buffer.get(position) != '\n')
+				position++;
+			position++;
+		}
+		target.setLazyCharacters(
+				new BmfLazyCharacters(buffer, entries, entryCount, Arrays.copyOf(kerningOffsets, kerningCount)));
+		reportLines(metrics, lines);
+		return target;
+	}
+
+	/**
+	 * Memory-maps the file at the specified {@link Path} and reads its BMFont data lazily, as by
+	 * {@link #parseLazy(ByteBuffer, BmfFont)}. The mapping stays valid while the font has pending characters or kernings, and
+	 * malformed {@code char} and {@code kerning} lines are reported by an {@link java.io.UncheckedIOException} when they are
+	 * decoded. If the {@code target} is not {@code null} its contents are cleared using {@link BmfFont#clearCharacters()},
+	 * {@link BmfFont#clearKernings()} and {@link BmfFont#clearPages()}
+	 * 
+	 * @param source the {@link Path} of the file to read the BMFont data from
+	 * @param target the {@link BmfFont} to convert the BMFont data to, or {@code null}
+	 * 
+	 * @return the {@link BmfFont} containing the data, either the passed one or a newly created one if {@code target} is
+	 *             {@code null}
+	 * 
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static BmfFont parseLazy(Path source, BmfFont target) throws IOException {
+		Objects.requireNonNull(source, "Source Path must not be null");
+		try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+			return parseLazy(channel.map(MapMode.READ_ONLY, 0L, channel.size()), target);
+		}
+	}
+
+	private static boolean isBlank(byte b) {
+		return b == ' ' || b == '\t';
+	}
+
+	private static boolean startsWithTag(ByteBuffer buffer, int position, int limit, String tag) {
+		int end = position + tag.length();
+		if (end >= limit || buffer.get(end) != ' ' && buffer.get(end) != '\t')
+			return false;
+		for (int i = 0; i < tag.length(); i++)
+			if (buffer.get(position + i) != tag.charAt(i))
+				return false;
+		return true;
+	}
+
+	private static int scanId(ByteBuffer buffer, int position, int limit) throws IOException {
+		while (position + 3 < limit && buffer.get(position) != '\n') {
+			if (buffer.get(position) == 'i' && buffer.get(position + 1) == 'd' && buffer.get(position + 2) == '='
+					&& isBlank(buffer.get(position - 1))) {
+				position += 3;
+				boolean negative = buffer.get(position) == '-';
+				if (negative)
+					position++;
+				int value = 0;
+				int digits = 0;
+				byte b;
+				while (position < limit && (b = buffer.get(position)) >= '0' && b <= '9') {
+					value = value * 10 + b - '0';
+					position++;
+					digits++;
 				}
-			} else if (!readingValue && c != '=')
-				currentKey.append(c);
-			else if (c == '=')
-				readingValue = true;
-			else
-				currentValue.append(c);
-		if (currentKey.length() > 0 && currentValue.length() > 0)
-			map.put(currentKey.toString(), new StringView(currentValue.toString()));
-		return map;
+				if (digits == 0)
+					break;
+				return negative ? -value : value;
+			}
+			position++;
+		}
+		throw new IOException(String.format("Missing character id at offset %s", position));
+	}
+
+	private static BmfFont prepare(BmfFont target) {
+		if (Objects.isNull(target))
+			return new BmfFont();
+		return target.clearCharacters().clearKernings().clearPages();
+	}
+
+	private static BmfFont read(BmfTokenizer tokenizer, BmfFont target, BmfMetrics metrics) throws IOException {
+		BmfParseListener listener = new BmfFontBuilder(target);
+		int[] lines = new int[TAG_COUNT];
+		int tag;
+		while ((tag = tokenizer.nextTag()) != BmfTokenizer.TAG_END) {
+			lines[tag]++;
+			parseTag(tag, tokenizer, listener);
+		}
+		reportLines(metrics, lines);
+		return target;
+	}
+
+	private static void reportLines(BmfMetrics metrics, int[] lines) {
+		metrics.onTextLines(lines[BmfTokenizer.TAG_INFO], lines[BmfTokenizer.TAG_COMMON], lines[BmfTokenizer.TAG_PAGE],
+				lines[BmfTokenizer.TAG_CHAR], lines[BmfTokenizer.TAG_KERNING], lines[BmfTokenizer.TAG_UNKNOWN]);
+	}
+
+	private static BmfFont record(BmfMetrics metrics, BmfFont font, long bytes, long start) {
+		metrics.onParse(bytes, System.nanoTime() - start, font.getCharacterCount(), font.getKerningCount());
+		return font;
+	}
+
+	/**
+	 * Parses the attributes of the current line of the specified tokenizer and reports them to the listener. Lines with unknown
+	 * tags are ignored.
+	 *
+	 * @param tag       the tag of the current line, as returned by {@link BmfTokenizer#nextTag()}
+	 * @param tokenizer the tokenizer positioned after the tag
+	 * @param listener  the listener to report to
+	 *
+	 * @throws IOException if an attribute value is malformed
+	 */
+	static void parseTag(int tag, BmfTokenizer tokenizer, BmfParseListener listener) throws IOException {
+		switch (tag) {
+			case BmfTokenizer.TAG_INFO:
+				parseInfo(tokenizer, listener);
+				break;
+			case BmfTokenizer.TAG_COMMON:
+				parseCommon(tokenizer, listener);
+				break;
+			case BmfTokenizer.TAG_PAGE:
+				parsePage(tokenizer, listener);
+				break;
+			case BmfTokenizer.TAG_CHAR:
+				parseCharacter(tokenizer, listener);
+				break;
+			case BmfTokenizer.TAG_KERNING:
+				parseKerning(tokenizer, listener);
+				break;
+			default:
+				break;
+		}
+	}
+
+	private static void parseInfo(BmfTokenizer tokenizer, BmfParseListener listener) throws IOException {
+		String face = "";
+		int size = 0;
+		boolean bold = false;
+		boolean italic = false;
+		String charset = "";
+		boolean unicode = false;
+		int stretchH = 0;
+		boolean smooth = false;
+		boolean antiAliased = false;
+		int[] padding = null;
+		int[] spacing = null;
+		while (tokenizer.nextAttribute())
+			if (tokenizer.isKey("face"))
+				face = tokenizer.stringValue();
+			else if (tokenizer.isKey("size"))
+				size = tokenizer.intValue();
+			else if (tokenizer.isKey("bold"))
+				bold = tokenizer.intValue() != 0;
+			else if (tokenizer.isKey("italic"))
+				italic = tokenizer.intValue() != 0;
+			else if (tokenizer.isKey("charset"))
+				charset = tokenizer.stringValue();
+			else if (tokenizer.isKey("unicode"))
+				unicode = tokenizer.intValue() != 0;
+			else if (tokenizer.isKey("stretchH"))
+				stretchH = tokenizer.intValue();
+			else if (tokenizer.isKey("smooth"))
+				smooth = tokenizer.intValue() != 0;
+			else if (tokenizer.isKey("aa"))
+				antiAliased = tokenizer.intValue() != 0;
+			else if (tokenizer.isKey("padding"))
+				padding = tokenizer.intArrayValue();
+			else if (tokenizer.isKey("spacing"))
+				spacing = tokenizer.intArrayValue();
+		listener.onInfo(face, size, bold, italic, charset, unicode, stretchH, smooth, antiAliased,
+				Objects.isNull(padding) ? new int[4] : padding, Objects.isNull(spacing) ? new int[2] : spacing);
+	}
+
+	private static void parseCommon(BmfTokenizer tokenizer, BmfParseListener listener) throws IOException {
+		int lineHeight = 0;
+		int base = 0;
+		int scaleW = 0;
+		int scaleH = 0;
+		boolean packed = false;
+		while (tokenizer.nextAttribute())
+			if (tokenizer.isKey("lineHeight"))
+				lineHeight = tokenizer.intValue();
+			else if (tokenizer.isKey("base"))
+				base = tokenizer.intValue();
+			else if (tokenizer.isKey("scaleW"))
+				scaleW = tokenizer.intValue();
+			else if (tokenizer.isKey("scaleH"))
+				scaleH = tokenizer.intValue();
+			else if (tokenizer.isKey("packed"))
+				packed = tokenizer.intValue() != 0;
+		listener.onCommon(lineHeight, base, scaleW, scaleH, packed);
+	}
+
+	private static void parsePage(BmfTokenizer tokenizer, BmfParseListener listener) throws IOException {
+		int id = 0;
+		String file = "";
+		while (tokenizer.nextAttribute())
+			if (tokenizer.isKey("id"))
+				id = tokenizer.intValue();
+			else if (tokenizer.isKey("file"))
+				file = tokenizer.stringValue();
+		listener.onPage(id, file);
+	}
+
+	static void parseCharacter(BmfTokenizer tokenizer, BmfParseListener listener) throws IOException {
+		int id = 0;
+		int x = 0;
+		int y = 0;
+		int width = 0;
+		int height = 0;
+		int offsetX = 0;
+		int offsetY = 0;
+		int advance = 0;
+		int page = 0;
+		int channel = 0;
+		while (tokenizer.nextAttribute())
+			if (tokenizer.isKey("id"))
+				id = tokenizer.intValue();
+			else if (tokenizer.isKey("x"))
+				x = tokenizer.intValue();
+			else if (tokenizer.isKey("y"))
+				y = tokenizer.intValue();
+			else if (tokenizer.isKey("width"))
+				width = tokenizer.intValue();
+			else if (tokenizer.isKey("height"))
+				height = tokenizer.intValue();
+			else if (tokenizer.isKey("xoffset"))
+				offsetX = tokenizer.intValue();
+			else if (tokenizer.isKey("yoffset"))
+				offsetY = tokenizer.intValue();
+			else if (tokenizer.isKey("xadvance"))
+				advance = tokenizer.intValue();
+			else if (tokenizer.isKey("page"))
+				page = tokenizer.intValue();
+			else if (tokenizer.isKey("chnl"))
+				channel = tokenizer.intValue();
+		listener.onChar(id, x, y, width, height, offsetX, offsetY, advance, page, channel);
+	}
+
+	static void parseKerning(BmfTokenizer tokenizer, BmfParseListener listener) throws IOException {
+		int first = 0;
+		int second = 0;
+		int amount = 0;
+		while (tokenizer.nextAttribute())
+			if (tokenizer.isKey("first"))
+				first = tokenizer.intValue();
+			else if (tokenizer.isKey("second"))
+				second = tokenizer.intValue();
+			else if (tokenizer.isKey("amount"))
+				amount = tokenizer.intValue();
+		listener.onKerning(first, second, amount);
+	}
+
+	private static final class CountingReader extends FilterReader {
+
+		private long count;
+
+		private CountingReader(Reader source) {
+			super(source);
+			this.count = 0L;
+		}
+
+		@Override
+		public int read() throws IOException {
+			int c = super.read();
+			if (c != -1)
+				count++;
+			return c;
+		}
+
+		@Override
+		public int read(char[] buffer, int offset, int length) throws IOException {
+			int read = super.read(buffer, offset, length);
+			if (read > 0)
+				count += read;
+			return read;
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			long skipped = super.skip(n);
+			count += skipped;
+			return skipped;
+		}
+
+	}
+
+	private static final class CountingInputStream extends FilterInputStream {
+
+		private long count;
+
+		private CountingInputStream(InputStream source) {
+			super(source);
+			this.count = 0L;
+		}
+
+		@Override
+		public int read() throws IOException {
+			int b = super.read();
+			if (b != -1)
+				count++;
+			return b;
+		}
+
+		@Override
+		public int read(byte[] buffer, int offset, int length) throws IOException {
+			int read = super.read(buffer, offset, length);
+			if (read > 0)
+				count += read;
+			return read;
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			long skipped = super.skip(n);
+			count += skipped;
+			return skipped;
+		}
+
 	}
 
 }
@@ -0,0 +1,319 @@
+package com.kaba4cow.bmffont;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * An incremental BMFont parser that accepts the data in chunks of any size as they arrive and reports its contents to a
+ * {@link BmfParseListener}. The format is detected from the first bytes, as by {@link BmfParser}. Text lines and binary
+ * character and kerning records are reported as soon as they are complete, and only an incomplete line or record is kept
+ * between chunks. XML data cannot be parsed incrementally: it is buffered until {@link #finish()} and then streamed to the
+ * listener in document order.
+ * A parser reads a single font and is not thread-safe.
+ */
+public class BmfPushParser {
+
+	private static final int FORMAT_UNKNOWN = 0;
+	private static final int FORMAT_TEXT = 1;
+	private static final int FORMAT_BINARY = 2;
+	private static final int FORMAT_XML = 3;
+
+	private static final int BLOCK_HEADER_SIZE = 5;
+
+	private final BmfParseListener listener;
+
+	private final LineTokenizer tokenizer;
+
+	private byte[] data;
+
+	private ByteBuffer buffer;
+
+	private int start;
+
+	private int end;
+
+	private int format;
+
+	private boolean headerRead;
+
+	private int blockType;
+
+	private int blockRemaining;
+
+	private boolean finished;
+
+	/**
+	 * Creates a new parser reporting to the specified listener.
+	 *
+	 * @param listener the listener to report to
+	 */
+	public BmfPushParser(BmfParseListener listener) {
+		this.listener = Objects.requireNonNull(listener, "Listener must not be null");
+		this.tokenizer = new LineTokenizer();
+		this.data = new byte[256];
+		this.buffer = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+		this.start = 0;
+		this.end = 0;
+		this.format = FORMAT_UNKNOWN;
+		this.headerRead = false;
+		this.blockType = -1;
+		this.blockRemaining = 0;
+		this.finished = false;
+	}
+
+	/**
+	 * Parses the remaining bytes of the specified chunk. The position of the chunk is moved to its limit.
+	 *
+	 * @param chunk the next chunk of the data
+	 *
+	 * @return a reference to this object
+	 *
+	 * @throws IOException if the data is malformed
+	 */
+	public BmfPushParser feed(ByteBuffer chunk) throws IOException {
+		Objects.requireNonNull(chunk, "Chunk must not be null");
+		checkNotFinished();
+		if (format == FORMAT_TEXT) {
+			feedText(chunk, chunk.position(), chunk.limit());
+			chunk.position(chunk.limit());
+			return this;
+		}
+		int length = chunk.remaining();
+		ensureCapacity(length);
+		chunk.get(data, end, length);
+		end += length;
+		process(false);
+		return this;
+	}
+
+	/**
+	 * Parses a range of the specified byte array.
+	 *
+	 * @param chunk  the array containing the next chunk of the data
+	 * @param offset the offset of the chunk in the array
+	 * @param length the length of the chunk
+	 *
+	 * @return a reference to this object
+	 *
+	 * @throws IOException if the data is malformed
+	 */
+	public BmfPushParser feed(byte[] chunk, int offset, int length) throws IOException {
+		Objects.requireNonNull(chunk, "Chunk must not be null");
+		return feed(ByteBuffer.wrap(chunk, offset, length));
+	}
+
+	/**
+	 * Parses all bytes of the specified stream until its end is reached, reading them in chunks. The stream is not closed and
+	 * {@link #finish()} is not called.
+	 *
+	 * @param source the stream to read from
+	 *
+	 * @return a reference to this object
+	 *
+	 * @throws IOException if an I/O error occurs or the data is malformed
+	 */
+	public BmfPushParser feed(InputStream source) throws IOException {
+		Objects.requireNonNull(source, "Source InputStream must not be null");
+		byte[] chunk = new byte[8192];
+		ByteBuffer wrapped = ByteBuffer.wrap(chunk);
+		int count;
+		while ((count = source.read(chunk)) >= 0) {
+			wrapped.clear().limit(count);
+			feed(wrapped);
+		}
+		return this;
+	}
+
+	/**
+	 * Signals the end of the data and parses anything still pending, such as a last line without a line terminator or
+	 * buffered XML data. The parser cannot be fed afterwards.
+	 *
+	 * @throws IOException if the data is malformed or truncated
+	 */
+	public void finish() throws IOException {
+		checkNotFinished();
+		finished = true;
+		process(true);
+		switch (format) {
+			case FORMAT_TEXT:
+				if (tokenizer.length > 0)
+					parseLine();
+				break;
+			case FORMAT_BINARY:
+				if (!headerRead)
+					throw new IOException("Missing binary BMFont header");
+				if (blockType >= 0)
+					throw new IOException(String.format("Truncated binary BMFont block %s", blockType));
+				break;
+			case FORMAT_XML:
+				BmfXmlReader.read(ByteBuffer.wrap(data, start, end - start), listener);
+				break;
+			default:
+				break;
+		}
+		data = null;
+		buffer = null;
+	}
+
+	private void checkNotFinished() {
+		if (finished)
+			throw new IllegalStateException("Parser is already finished");
+	}
+
+	private void ensureCapacity(int length) {
+		if (data.length - end >= length)
+			return;
+		int pending = end - start;
+		byte[] target = data;
+		if (data.length - pending < length) {
+			int capacity = data.length;
+			while (capacity - pending < length)
+				capacity <<= 1;
+			target = new byte[capacity];
+		}
+		System.arraycopy(data, start, target, 0, pending);
+		data = target;
+		buffer = ByteBuffer.wrap(target).order(ByteOrder.LITTLE_ENDIAN);
+		start = 0;
+		end = pending;
+	}
+
+	private void process(boolean last) throws IOException {
+		if (format == FORMAT_UNKNOWN && !detect(last))
+			return;
+		if (format == FORMAT_TEXT) {
+			feedText(buffer, start, end);
+			start = end;
+		} else if (format == FORMAT_BINARY)
+			processBinary();
+	}
+
+	private boolean detect(boolean last) {
+		int position = start;
+		if (end - position >= 3 && data[position] == 'B' && data[position + 1] == 'M' && data[position + 2] == 'F') {
+			format = FORMAT_BINARY;
+			return true;
+		}
+		if (end - position < 4 && !last)
+			return false;
+		if (end - position >= 3 && data[position] == (byte) 0xEF && data[position + 1] == (byte) 0xBB
+				&& data[position + 2] == (byte) 0xBF)
+			position += 3;
+		while (position < end && (data[position] == ' ' || data[position] == '\t' || data[position] == '\r'
+				|| data[position] == '\n'))
+			position++;
+		if (position == end && !last)
+			return false;
+		if (position < end && data[position] == '<')
+			format = FORMAT_XML;
+		else {
+			format = FORMAT_TEXT;
+			start = position;
+		}
+		return true;
+	}
+
+	private void feedText(ByteBuffer source, int position, int limit) throws IOException {
+		LineTokenizer tokenizer = this.tokenizer;
+		while (position < limit) {
+			byte b = source.get(position++);
+			if (b == '\n')
+				parseLine();
+			else if (b != '\r')
+				tokenizer.append((char) (b & 0xFF));
+		}
+	}
+
+	private void parseLine() throws IOException {
+		tokenizer.ready = true;
+		int tag = tokenizer.nextTag();
+		if (tag != BmfTokenizer.TAG_END)
+			BmfParser.parseTag(tag, tokenizer, listener);
+		tokenizer.length = 0;
+	}
+
+	private void processBinary() throws IOException {
+		ByteBuffer buffer = this.buffer;
+		if (!headerRead) {
+			if (end - start < 4)
+				return;
+			buffer.limit(end).position(start);
+			BmfBinaryReader.readHeader(buffer);
+			start += 4;
+			headerRead = true;
+		}
+		while (true) {
+			buffer.limit(end);
+			if (blockType < 0) {
+				if (end - start < BLOCK_HEADER_SIZE)
+					return;
+				blockType = data[start] & 0xFF;
+				blockRemaining = buffer.getInt(start + 1);
+				if (blockRemaining < 0)
+					throw new IOException(String.format("Truncated binary BMFont block %s", blockType));
+				start += BLOCK_HEADER_SIZE;
+			}
+			if (blockType == BmfBinaryReader.BLOCK_CHARS || blockType == BmfBinaryReader.BLOCK_KERNINGS) {
+				boolean characters = blockType == BmfBinaryReader.BLOCK_CHARS;
+				int recordSize = characters ? BmfBinaryReader.CHAR_SIZE : BmfBinaryReader.KERNING_SIZE;
+				buffer.position(start);
+				while (blockRemaining >= recordSize && end - start >= recordSize) {
+					if (characters)
+						BmfBinaryReader.readCharacter(buffer, listener);
+					else
+						BmfBinaryReader.readKerning(buffer, listener);
+					start += recordSize;
+					blockRemaining -= recordSize;
+				}
+				if (blockRemaining < recordSize) {
+					int skipped = Math.min(blockRemaining, end - start);
+					start += skipped;
+					blockRemaining -= skipped;
+				}
+				if (blockRemaining > 0)
+					return;
+			} else {
+				if (end - start < blockRemaining)
+					return;
+				buffer.limit(start + blockRemaining).position(start);
+				BmfBinaryReader.readBlock(blockType, buffer, start + blockRemaining, listener);
+				start += blockRemaining;
+			}
+			blockType = -1;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return String.format("BmfPushParser [listener=%s, finished=%s]", listener, finished);
+	}
+
+	/**
+	 * A {@link BmfTokenizer} over a single line that is assembled by the parser from the chunks.
+	 */
+	private static final class LineTokenizer extends BmfTokenizer {
+
+		private boolean ready;
+
+		@Override
+		protected boolean readLine() {
+			boolean line = ready;
+			ready = false;
+			return line;
+		}
+
+		@Override
+		protected String createString(int start, int end) {
+			byte[] bytes = new byte[end - start];
+			for (int i = 0; i < bytes.length; i++)
+				bytes[i] = (byte) line[start + i];
+			return new String(bytes, StandardCharsets.UTF_8);
+		}
+
+	}
+
+}
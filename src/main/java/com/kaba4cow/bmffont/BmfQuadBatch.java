@@ -0,0 +1,322 @@
+package com.kaba4cow.bmffont;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Writes the glyph quads of many strings at once into vertex buffers, grouped by texture page. Each visible character becomes
+ * four vertices of {@link #FLOATS_PER_VERTEX} floats ({@code x, y, u, v}) in the order top-left, top-right, bottom-right,
+ * bottom-left, and all quads of a page are written contiguously, so each page can be drawn with a single call. Strings are laid
+ * out as by {@link BmfTextLayout}.
+ * <p>
+ * A batch takes a snapshot of the metrics, normalized texture coordinates and kernings of the font when it is created, so later
+ * changes to the font are not reflected. Writing does not allocate. A batch may be used by one thread at a time.
+ */
+public class BmfQuadBatch {
+
+	/**
+	 * Number of floats per vertex.
+	 */
+	public static final int FLOATS_PER_VERTEX = 4;
+	/**
+	 * Number of vertices per quad.
+	 */
+	public static final int VERTICES_PER_QUAD = 4;
+	/**
+	 * Number of floats per quad.
+	 */
+	public static final int FLOATS_PER_QUAD = FLOATS_PER_VERTEX * VERTICES_PER_QUAD;
+	/**
+	 * Number of bytes per quad.
+	 */
+	public static final int BYTES_PER_QUAD = FLOATS_PER_QUAD * Float.BYTES;
+
+	private static final int X0 = 0;
+	private static final int Y0 = 1;
+	private static final int X1 = 2;
+	private static final int Y1 = 3;
+	private static final int U0 = 4;
+	private static final int V0 = 5;
+	private static final int U1 = 6;
+	private static final int V1 = 7;
+	private static final int STRIDE = 8;
+
+	private static final int DENSE_SIZE = 256;
+
+	private final int[] ids;
+
+	private final int[] dense;
+
+	private final float[] data;
+
+	private final int[] advances;
+
+	private final int[] pages;
+
+	private final int pageCount;
+
+	private final int lineHeight;
+
+	private final BmfKerningTable kerningTable;
+
+	private FloatBuffer floatTarget;
+
+	private ByteBuffer byteTarget;
+
+	/**
+	 * Creates a new batch for the specified font.
+	 *
+	 * @param font the font to take the glyphs from
+	 */
+	public BmfQuadBatch(BmfFontView font) {
+		Objects.requireNonNull(font, "Font must not be null");
+		BmfDimensions scaleDimensions = font.getScaleDimensions();
+		float scaleU = scaleDimensions.getWidth() > 0 ? 1.0f / scaleDimensions.getWidth() : 0.0f;
+		float scaleV = scaleDimensions.getHeight() > 0 ? 1.0f / scaleDimensions.getHeight() : 0.0f;
+		int size = font.getCharacterMap().size();
+		this.ids = new int[size];
+		this.dense = new int[DENSE_SIZE];
+		Arrays.fill(dense, -1);
+		this.data = new float[size * STRIDE];
+		this.advances = new int[size];
+		this.pages = new int[size];
+		int pageCount = font.getPages().size();
+		int index = 0;
+		for (BmfCharacter character : font.getCharacters()) {
+			int id = character.getId();
+			ids[index] = id;
+			if (id >= 0 && id < DENSE_SIZE)
+				dense[id] = index;
+			BmfCoordinates textureCoordinates = character.getTextureCoordinates();
+			BmfDimensions textureDimensions = character.getTextureDimensions();
+			BmfCoordinates offsetCoordinates = character.getOffsetCoordinates();
+			int width = textureDimensions.getWidth();
+			int height = textureDimensions.getHeight();
+			int u = textureCoordinates.getX();
+			int v = textureCoordinates.getY();
+			int offset = index * STRIDE;
+			data[offset + X0] = offsetCoordinates.getX();
+			data[offset + Y0] = offsetCoordinates.getY();
+			data[offset + X1] = offsetCoordinates.getX() + width;
+			data[offset + Y1] = offsetCoordinates.getY() + height;
+			data[offset + U0] = u * scaleU;
+			data[offset + V0] = v * scaleV;
+			data[offset + U1] = (u + width) * scaleU;
+			data[offset + V1] = (v + height) * scaleV;
+			advances[index] = character.getAdvance();
+			boolean visible = width > 0 && height > 0 && character.getPage() >= 0;
+			pages[index] = visible ? character.getPage() : -1;
+			if (visible)
+				pageCount = Math.max(pageCount, character.getPage() + 1);
+			index++;
+		}
+		this.pageCount = pageCount;
+		this.lineHeight = font.getLineHeight();
+		this.kerningTable = new BmfKerningTable(font);
+	}
+
+	/**
+	 * Returns the number of texture pages, which is the length of the page list of the font or, if larger, one more than the
+	 * highest page index of a visible character.
+	 *
+	 * @return the number of pages
+	 */
+	public int getPageCount() {
+		return pageCount;
+	}
+
+	/**
+	 * Counts the quads that writing the specified strings produces on each page. Line feeds and carriage returns never produce
+	 * a quad, even if the font has a visible character for them.
+	 *
+	 * @param texts      the strings to count the quads of
+	 * @param count      the number of strings to take from {@code texts}
+	 * @param pageCounts the array to receive the number of quads per page, with a length of at least {@link #getPageCount()}
+	 *
+	 * @return the total number of quads
+	 */
+	public int countQuads(CharSequence[] texts, int count, int[] pageCounts) {
+		Arrays.fill(pageCounts, 0, pageCount, 0);
+		int total = 0;
+		for (int i = 0; i < count; i++) {
+			CharSequence text = texts[i];
+			int length = text.length();
+			int index = 0;
+			while (index < length) {
+				int code = Character.codePointAt(text, index);
+				index += Character.charCount(code);
+				if (code == '\n' || code == '\r')
+					continue;
+				int glyph = indexOf(code);
+				if (glyph >= 0 && pages[glyph] >= 0) {
+					pageCounts[pages[glyph]]++;
+					total++;
+				}
+			}
+		}
+		return total;
+	}
+
+	/**
+	 * Lays out the specified strings and writes their quads into the specified buffer, starting at its position, grouped by
+	 * page. The position of the buffer is advanced past the written quads.
+	 *
+	 * @param texts       the strings to write
+	 * @param origins     the origins of the strings, as {@code x, y} pairs
+	 * @param count       the number of strings to take from {@code texts}
+	 * @param vertices    the buffer to write the vertices to
+	 * @param pageOffsets the array to receive the index of the first quad of each page, relative to the initial position, with
+	 *                        a length of at least {@link #getPageCount()} {@code + 1}; the last entry receives the total
+	 *                        number of quads
+	 *
+	 * @return the number of quads written
+	 *
+	 * @throws BufferOverflowException if the buffer does not have room for all quads
+	 */
+	public int write(CharSequence[] texts, float[] origins, int count, FloatBuffer vertices, int[] pageOffsets) {
+		Objects.requireNonNull(vertices, "Vertices FloatBuffer must not be null");
+		int total = prepare(texts, count, pageOffsets);
+		if (vertices.remaining() < total * FLOATS_PER_QUAD)
+			throw new BufferOverflowException();
+		floatTarget = vertices;
+		try {
+			emit(texts, origins, count, pageOffsets, vertices.position());
+		} finally {
+			floatTarget = null;
+		}
+		vertices.position(vertices.position() + total * FLOATS_PER_QUAD);
+		return total;
+	}
+
+	/**
+	 * Lays out the specified strings and writes their quads into the specified buffer, starting at its position, grouped by
+	 * page. Floats are written in the byte order of the buffer, which should usually be {@link java.nio.ByteOrder#nativeOrder()}
+	 * for buffers passed to graphics APIs. The position of the buffer is advanced past the written quads.
+	 *
+	 * @param texts       the strings to write
+	 * @param origins     the origins of the strings, as {@code x, y} pairs
+	 * @param count       the number of strings to take from {@code texts}
+	 * @param vertices    the buffer to write the vertices to
+	 * @param pageOffsets the array to receive the index of the first quad of each page, relative to the initial position, with
+	 *                        a length of at least {@link #getPageCount()} {@code + 1}; the last entry receives the total
+	 *                        number of quads
+	 *
+	 * @return the number of quads written
+	 *
+	 * @throws BufferOverflowException if the buffer does not have room for all quads
+	 */
+	public int write(CharSequence[] texts, float[] origins, int count, ByteBuffer vertices, int[] pageOffsets) {
+		Objects.requireNonNull(vertices, "Vertices ByteBuffer must not be null");
+		int total = prepare(texts, count, pageOffsets);
+		if (vertices.remaining() < total * BYTES_PER_QUAD)
+			throw new BufferOverflowException();
+		byteTarget = vertices;
+		try {
+			emit(texts, origins, count, pageOffsets, vertices.position());
+		} finally {
+			byteTarget = null;
+		}
+		vertices.position(vertices.position() + total * BYTES_PER_QUAD);
+		return total;
+	}
+
+	private int prepare(CharSequence[] texts, int count, int[] pageOffsets) {
+		Objects.requireNonNull(texts, "Texts must not be null");
+		Objects.requireNonNull(pageOffsets, "Page offsets must not be null");
+		if (pageOffsets.length <= pageCount)
+			throw new IllegalArgumentException(
+					String.format("Page offsets must have room for %s entries, got %s", pageCount + 1, pageOffsets.length));
+		int total = countQuads(texts, count, pageOffsets);
+		int start = 0;
+		for (int page = 0; page < pageCount; page++) {
+			int quads = pageOffsets[page];
+			pageOffsets[page] = start;
+			start += quads;
+		}
+		pageOffsets[pageCount] = total;
+		return total;
+	}
+
+	private void emit(CharSequence[] texts, float[] origins, int count, int[] pageOffsets, int base) {
+		int lineHeight = this.lineHeight;
+		for (int i = 0; i < count; i++) {
+			CharSequence text = texts[i];
+			float originX = origins[i << 1];
+			float originY = origins[(i << 1) + 1];
+			int length = text.length();
+			int penX = 0;
+			int penY = 0;
+			int previous = -1;
+			int index = 0;
+			while (index < length) {
+				int code = Character.codePointAt(text, index);
+				index += Character.charCount(code);
+				if (code == '\n') {
+					penX = 0;
+					penY += lineHeight;
+					previous = -1;
+					continue;
+				}
+				if (code == '\r')
+					continue;
+				int glyph = indexOf(code);
+				if (glyph < 0)
+					continue;
+				if (previous != -1)
+					penX += kerningTable.getAmount(previous, code);
+				int page = pages[glyph];
+				if (page >= 0)
+					put(base, pageOffsets[page]++, glyph, originX + penX, originY + penY);
+				penX += advances[glyph];
+				previous = code;
+			}
+		}
+		for (int page = pageCount; page > 0; page--)
+			pageOffsets[page] = pageOffsets[page - 1];
+		pageOffsets[0] = 0;
+	}
+
+	private void put(int base, int quad, int glyph, float x, float y) {
+		float[] data = this.data;
+		int offset = glyph * STRIDE;
+		float x0 = x + data[offset + X0];
+		float y0 = y + data[offset + Y0];
+		float x1 = x + data[offset + X1];
+		float y1 = y + data[offset + Y1];
+		float u0 = data[offset + U0];
+		float v0 = data[offset + V0];
+		float u1 = data[offset + U1];
+		float v1 = data[offset + V1];
+		FloatBuffer floats = floatTarget;
+		if (Objects.nonNull(floats)) {
+			int index = base + quad * FLOATS_PER_QUAD;
+			floats.put(index, x0).put(index + 1, y0).put(index + 2, u0).put(index + 3, v0);
+			floats.put(index + 4, x1).put(index + 5, y0).put(index + 6, u1).put(index + 7, v0);
+			floats.put(index + 8, x1).put(index + 9, y1).put(index + 10, u1).put(index + 11, v1);
+			floats.put(index + 12, x0).put(index + 13, y1).put(index + 14, u0).put(index + 15, v1);
+		} else {
+			ByteBuffer bytes = byteTarget;
+			int index = base + quad * BYTES_PER_QUAD;
+			bytes.putFloat(index, x0).putFloat(index + 4, y0).putFloat(index + 8, u0).putFloat(index + 12, v0);
+			bytes.putFloat(index + 16, x1).putFloat(index + 20, y0).putFloat(index + 24, u1).putFloat(index + 28, v0);
+			bytes.putFloat(index + 32, x1).putFloat(index + 36, y1).putFloat(index + 40, u1).putFloat(index + 44, v1);
+			bytes.putFloat(index + 48, x0).putFloat(index + 52, y1).putFloat(index + 56, u0).putFloat(index + 60, v1);
+		}
+	}
+
+	private int indexOf(int code) {
+		if (code >= 0 && code < DENSE_SIZE)
+			return dense[code];
+		int index = Arrays.binarySearch(ids, code);
+		return index < 0 ? -1 : index;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("BmfQuadBatch [glyphs=%s, pages=%s]", ids.length, pageCount);
+	}
+
+}
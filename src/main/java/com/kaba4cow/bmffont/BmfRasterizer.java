@@ -0,0 +1,431 @@
+package com.kaba4cow.bmffont;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+/**
+ * Renders text into pixel arrays on the CPU by copying glyph rectangles from the decoded texture pages of a {@link BmfFontView}.
+ * Text is laid out as by {@link BmfTextLayout}, and each glyph is composited over the target with source-over blending, either
+ * into 32-bit ARGB pixels or into 8-bit alpha values.
+ * <p>
+ * The channel of a character selects where its coverage is stored on the page: a glyph stored in a single channel, as in
+ * packed fonts, takes its coverage from that channel and is drawn in the text color, while a glyph stored in all channels takes
+ * its coverage from the alpha channel and its color from the page, multiplied by the text color. On pages without an alpha
+ * channel, such as 8-bit grayscale pages, the coverage that would come from the alpha channel is taken from the luminance of the
+ * pixels instead, and the glyph is drawn in the text color.
+ * <p>
+ * A rasterizer takes a snapshot of the metrics, kernings and glyph pixels of the font when it is created, so later changes to
+ * the font or its pages are not reflected, and the pages may be closed once it is created. The glyph pixels are kept in heap
+ * arrays, one coverage byte per pixel plus an {@code int} color per pixel for glyphs stored in all channels, so glyph rows are
+ * read without going through the page buffers. Rendering does not modify the rasterizer, so independent strings may be
+ * rendered by any number of threads at the same time, for example with {@link #renderImages(CharSequence[], int)}.
+ */
+public class BmfRasterizer {
+
+	private static final int COVERAGE = 0;
+	private static final int COLORS = 1;
+	private static final int WIDTH = 2;
+	private static final int HEIGHT = 3;
+	private static final int OFFSET_X = 4;
+	private static final int OFFSET_Y = 5;
+	private static final int ADVANCE = 6;
+	private static final int STRIDE = 7;
+
+	private static final int CHANNEL_ALL = -1;
+	private static final int CHANNEL_ALPHA = 3;
+
+	private static final int DENSE_SIZE = 256;
+
+	private static final long[] RECIPROCALS = createReciprocals();
+
+	private final int[] ids;
+
+	private final int[] dense;
+
+	private final int[] glyphs;
+
+	private final byte[] coverage;
+
+	private final int[] colors;
+
+	private final int lineHeight;
+
+	private final BmfKerningTable kerningTable;
+
+	/**
+	 * Creates a new rasterizer for the specified font and its decoded texture pages. Characters on missing or {@code null}
+	 * pages are laid out but not drawn.
+	 *
+	 * @param font  the font to take the glyphs from
+	 * @param pages the pages of the font, indexed by page ID
+	 *
+	 * @throws IllegalStateException if a page handle is closed
+	 */
+	public BmfRasterizer(BmfFontView font, BmfPage... pages) {
+		Objects.requireNonNull(font, "Font must not be null");
+		Objects.requireNonNull(pages, "Pages must not be null");
+		ByteBuffer[] pixels = new ByteBuffer[pages.length];
+		for (int page = 0; page < pages.length; page++)
+			if (Objects.nonNull(pages[page]))
+				pixels[page] = pages[page].getPixels();
+		int size = font.getCharacterMap().size();
+		this.ids = new int[size];
+		this.dense = new int[DENSE_SIZE];
+		Arrays.fill(dense, -1);
+		this.glyphs = new int[size * STRIDE];
+		int coverageSize = 0;
+		int colorsSize = 0;
+		int maxGlyphWidth = 0;
+		int index = 0;
+		for (BmfCharacter character : font.getCharacters()) {
+			int id = character.getId();
+			ids[index] = id;
+			if (id >= 0 && id < DENSE_SIZE)
+				dense[id] = index;
+			BmfCoordinates textureCoordinates = character.getTextureCoordinates();
+			BmfDimensions textureDimensions = character.getTextureDimensions();
+			BmfCoordinates offsetCoordinates = character.getOffsetCoordinates();
+			int page = character.getPage();
+			int width = 0;
+			int height = 0;
+			if (page >= 0 && page < pages.length && Objects.nonNull(pixels[page])) {
+				width = Math.max(Math.min(textureDimensions.getWidth(),
+						pages[page].getWidth() - Math.max(textureCoordinates.getX(), 0)), 0);
+				height = Math.max(Math.min(textureDimensions.getHeight(),
+						pages[page].getHeight() - Math.max(textureCoordinates.getY(), 0)), 0);
+			}
+			boolean allChannels = channelOffset(character.getChannel()) == CHANNEL_ALL && width > 0 && pages[page].hasAlpha();
+			int offset = index * STRIDE;
+			glyphs[offset + COVERAGE] = coverageSize;
+			glyphs[offset + COLORS] = allChannels ? colorsSize : -1;
+			glyphs[offset + WIDTH] = width;
+			glyphs[offset + HEIGHT] = height;
+			glyphs[offset + OFFSET_X] = offsetCoordinates.getX();
+			glyphs[offset + OFFSET_Y] = offsetCoordinates.getY();
+			glyphs[offset + ADVANCE] = character.getAdvance();
+			coverageSize += width * height;
+			if (allChannels)
+				colorsSize += width * height;
+			maxGlyphWidth = Math.max(maxGlyphWidth, width);
+			index++;
+		}
+		this.coverage = new byte[coverageSize];
+		this.colors = new int[colorsSize];
+		byte[] row = new byte[maxGlyphWidth * BmfPage.BYTES_PER_PIXEL];
+		index = 0;
+		for (BmfCharacter character : font.getCharacters()) {
+			int offset = index++ * STRIDE;
+			int width = glyphs[offset + WIDTH];
+			int height = glyphs[offset + HEIGHT];
+			if (width == 0 || height == 0)
+				continue;
+			BmfPage page = pages[character.getPage()];
+			ByteBuffer source = pixels[character.getPage()];
+			int channel = channelOffset(character.getChannel());
+			boolean luminance = !page.hasAlpha() && (channel == CHANNEL_ALL || channel == CHANNEL_ALPHA);
+			int sourceX = Math.max(character.getTextureCoordinates().getX(), 0);
+			int sourceY = Math.max(character.getTextureCoordinates().getY(), 0);
+			for (int line = 0; line < height; line++) {
+				source.position(((sourceY + line) * page.getWidth() + sourceX) * BmfPage.BYTES_PER_PIXEL);
+				source.get(row, 0, width * BmfPage.BYTES_PER_PIXEL);
+				int target = glyphs[offset + COVERAGE] + line * width;
+				if (luminance)
+					for (int i = 0, s = 0; i < width; i++, s += BmfPage.BYTES_PER_PIXEL)
+						coverage[target + i] = (byte) BmfImageReader.luminance(row, s);
+				else if (channel == CHANNEL_ALL) {
+					int colorsTarget = glyphs[offset + COLORS] + line * width;
+					for (int i = 0, s = 0; i < width; i++, s += BmfPage.BYTES_PER_PIXEL) {
+						coverage[target + i] = row[s + CHANNEL_ALPHA];
+						colors[colorsTarget + i] = (row[s] & 0xFF) << 16 | (row[s + 1] & 0xFF) << 8 | row[s + 2] & 0xFF;
+					}
+				} else
+					for (int i = 0, s = channel; i < width; i++, s += BmfPage.BYTES_PER_PIXEL)
+						coverage[target + i] = row[s];
+			}
+		}
+		this.lineHeight = font.getLineHeight();
+		this.kerningTable = new BmfKerningTable(font);
+	}
+
+	private static long[] createReciprocals() {
+		long[] reciprocals = new long[256];
+		for (int value = 1; value < reciprocals.length; value++)
+			reciprocals[value] = ((1L << 32) + value - 1) / value;
+		return reciprocals;
+	}
+
+	private static int channelOffset(int channel) {
+		switch (channel) {
+			case 1:
+				return 2;
+			case 2:
+				return 1;
+			case 4:
+				return 0;
+			case 8:
+				return 3;
+			default:
+				return CHANNEL_ALL;
+		}
+	}
+
+	/**
+	 * Measures the width of the widest line of the specified text.
+	 *
+	 * @param text the text to measure
+	 *
+	 * @return the width in pixels
+	 */
+	public int measureWidth(CharSequence text) {
+		int width = 0;
+		int penX = 0;
+		int previous = -1;
+		int length = text.length();
+		int index = 0;
+		while (index < length) {
+			int code = Character.codePointAt(text, index);
+			index += Character.charCount(code);
+			if (code == '\n') {
+				width = Math.max(width, penX);
+				penX = 0;
+				previous = -1;
+				continue;
+			}
+			if (code == '\r')
+				continue;
+			int glyph = indexOf(code);
+			if (glyph < 0)
+				continue;
+			if (previous != -1)
+				penX += kerningTable.getAmount(previous, code);
+			penX += glyphs[glyph * STRIDE + ADVANCE];
+			previous = code;
+		}
+		return Math.max(width, penX);
+	}
+
+	/**
+	 * Measures the height of the specified text, which is the number of lines multiplied by the line height of the font.
+	 *
+	 * @param text the text to measure
+	 *
+	 * @return the height in pixels
+	 */
+	public int measureHeight(CharSequence text) {
+		int lines = 1;
+		int length = text.length();
+		for (int index = 0; index < length; index++)
+			if (text.charAt(index) == '\n')
+				lines++;
+		return lines * lineHeight;
+	}
+
+	/**
+	 * Renders the specified text into an array of ARGB pixels, clipped to its bounds.
+	 *
+	 * @param text   the text to render
+	 * @param x      the X coordinate of the origin
+	 * @param y      the Y coordinate of the origin, which is the top of the first line
+	 * @param color  the text color as an ARGB value
+	 * @param target the pixels to render to, as non-premultiplied ARGB values stored row by row
+	 * @param width  the width of the target in pixels
+	 * @param height the height of the target in pixels
+	 */
+	public void render(CharSequence text, int x, int y, int color, int[] target, int width, int height) {
+		Objects.requireNonNull(target, "Target must not be null");
+		render(text, x, y, color, target, null, width, height);
+	}
+
+	/**
+	 * Renders the coverage of the specified text into an array of 8-bit alpha values, clipped to its bounds.
+	 *
+	 * @param text   the text to render
+	 * @param x      the X coordinate of the origin
+	 * @param y      the Y coordinate of the origin, which is the top of the first line
+	 * @param target the alpha values to render to, stored row by row
+	 * @param width  the width of the target in pixels
+	 * @param height the height of the target in pixels
+	 */
+	public void render(CharSequence text, int x, int y, byte[] target, int width, int height) {
+		Objects.requireNonNull(target, "Target must not be null");
+		render(text, x, y, 0xFFFFFFFF, null, target, width, height);
+	}
+
+	/**
+	 * Renders the specified text into a new transparent image of the size of the text.
+	 *
+	 * @param text  the text to render
+	 * @param color the text color as an ARGB value
+	 *
+	 * @return the image, of type {@link BufferedImage#TYPE_INT_ARGB}
+	 */
+	public BufferedImage renderImage(CharSequence text, int color) {
+		int width = Math.max(measureWidth(text), 1);
+		int height = Math.max(measureHeight(text), 1);
+		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		int[] target = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+		render(text, 0, 0, color, target, null, width, height);
+		return image;
+	}
+
+	/**
+	 * Renders each of the specified strings into a new image, as by {@link #renderImage(CharSequence, int)}, in parallel on the
+	 * common fork-join pool.
+	 *
+	 * @param texts the strings to render
+	 * @param color the text color as an ARGB value
+	 *
+	 * @return the images, in the order of the strings
+	 */
+	public BufferedImage[] renderImages(CharSequence[] texts, int color) {
+		Objects.requireNonNull(texts, "Texts must not be null");
+		BufferedImage[] images = new BufferedImage[texts.length];
+		IntStream.range(0, texts.length).parallel().forEach(index -> images[index] = renderImage(texts[index], color));
+		return images;
+	}
+
+	private void render(CharSequence text, int x, int y, int color, int[] argb, byte[] alpha, int width, int height) {
+		Objects.requireNonNull(text, "Text must not be null");
+		int[] glyphs = this.glyphs;
+		int penX = 0;
+		int penY = 0;
+		int previous = -1;
+		int length = text.length();
+		int index = 0;
+		while (index < length) {
+			int code = Character.codePointAt(text, index);
+			index += Character.charCount(code);
+			if (code == '\n') {
+				penX = 0;
+				penY += lineHeight;
+				previous = -1;
+				continue;
+			}
+			if (code == '\r')
+				continue;
+			int glyph = indexOf(code);
+			if (glyph < 0)
+				continue;
+			if (previous != -1)
+				penX += kerningTable.getAmount(previous, code);
+			int offset = glyph * STRIDE;
+			if (glyphs[offset + WIDTH] > 0 && glyphs[offset + HEIGHT] > 0)
+				blit(offset, x + penX + glyphs[offset + OFFSET_X], y + penY + glyphs[offset + OFFSET_Y], color, argb, alpha,
+						width, height);
+			penX += glyphs[offset + ADVANCE];
+			previous = code;
+		}
+	}
+
+	private void blit(int offset, int targetX, int targetY, int color, int[] argb, byte[] alpha, int width, int height) {
+		int[] glyphs = this.glyphs;
+		int stride = glyphs[offset + WIDTH];
+		int sourceX = 0;
+		int sourceY = 0;
+		int glyphWidth = stride;
+		int glyphHeight = glyphs[offset + HEIGHT];
+		if (targetX < 0) {
+			sourceX = -targetX;
+			glyphWidth += targetX;
+			targetX = 0;
+		}
+		if (targetY < 0) {
+			sourceY = -targetY;
+			glyphHeight += targetY;
+			targetY = 0;
+		}
+		glyphWidth = Math.min(glyphWidth, width - targetX);
+		glyphHeight = Math.min(glyphHeight, height - targetY);
+		if (glyphWidth <= 0 || glyphHeight <= 0)
+			return;
+		int source = sourceY * stride + sourceX;
+		int target = targetY * width + targetX;
+		if (Objects.nonNull(alpha))
+			blitAlpha(glyphs[offset + COVERAGE] + source, stride, alpha, target, width, glyphWidth, glyphHeight);
+		else if (glyphs[offset + COLORS] < 0)
+			blitCoverage(glyphs[offset + COVERAGE] + source, stride, color, argb, target, width, glyphWidth, glyphHeight);
+		else
+			blitColors(glyphs[offset + COVERAGE] + source, glyphs[offset + COLORS] + source, stride, color, argb, target, width,
+					glyphWidth, glyphHeight);
+	}
+
+	private void blitAlpha(int source, int stride, byte[] alpha, int target, int width, int glyphWidth, int glyphHeight) {
+		byte[] coverage = this.coverage;
+		for (int line = 0; line < glyphHeight; line++, source += stride, target += width)
+			for (int i = 0; i < glyphWidth; i++) {
+				int value = coverage[source + i] & 0xFF;
+				if (value != 0)
+					alpha[target + i] = (byte) (value + multiply(alpha[target + i] & 0xFF, 255 - value));
+			}
+	}
+
+	private void blitCoverage(int source, int stride, int color, int[] argb, int target, int width, int glyphWidth,
+			int glyphHeight) {
+		byte[] coverage = this.coverage;
+		int colorA = color >>> 24;
+		int colorR = color >> 16 & 0xFF;
+		int colorG = color >> 8 & 0xFF;
+		int colorB = color & 0xFF;
+		for (int line = 0; line < glyphHeight; line++, source += stride, target += width)
+			for (int i = 0; i < glyphWidth; i++) {
+				int value = multiply(coverage[source + i] & 0xFF, colorA);
+				if (value != 0)
+					argb[target + i] = blend(argb[target + i], value, colorR, colorG, colorB);
+			}
+	}
+
+	private void blitColors(int source, int colorsSource, int stride, int color, int[] argb, int target, int width,
+			int glyphWidth, int glyphHeight) {
+		byte[] coverage = this.coverage;
+		int[] colors = this.colors;
+		int colorA = color >>> 24;
+		int colorR = color >> 16 & 0xFF;
+		int colorG = color >> 8 & 0xFF;
+		int colorB = color & 0xFF;
+		for (int line = 0; line < glyphHeight; line++, source += stride, colorsSource += stride, target += width)
+			for (int i = 0; i < glyphWidth; i++) {
+				int value = multiply(coverage[source + i] & 0xFF, colorA);
+				if (value != 0) {
+					int pixel = colors[colorsSource + i];
+					argb[target + i] = blend(argb[target + i], value, multiply(pixel >> 16 & 0xFF, colorR),
+							multiply(pixel >> 8 & 0xFF, colorG), multiply(pixel & 0xFF, colorB));
+				}
+			}
+	}
+
+	private static int multiply(int a, int b) {
+		int product = a * b + 128;
+		return (product + (product >>> 8)) >>> 8;
+	}
+
+	private static int blend(int destination, int alpha, int red, int green, int blue) {
+		int destinationAlpha = destination >>> 24;
+		if (alpha == 255 || destinationAlpha == 0)
+			return alpha << 24 | red << 16 | green << 8 | blue;
+		int weight = multiply(destinationAlpha, 255 - alpha);
+		int outAlpha = alpha + weight;
+		long reciprocal = RECIPROCALS[outAlpha];
+		int outRed = (int) ((red * alpha + (destination >> 16 & 0xFF) * weight) * reciprocal >>> 32);
+		int outGreen = (int) ((green * alpha + (destination >> 8 & 0xFF) * weight) * reciprocal >>> 32);
+		int outBlue = (int) ((blue * alpha + (destination & 0xFF) * weight) * reciprocal >>> 32);
+		return outAlpha << 24 | outRed << 16 | outGreen << 8 | outBlue;
+	}
+
+	private int indexOf(int code) {
+		if (code >= 0 && code < DENSE_SIZE)
+			return dense[code];
+		int index = Arrays.binarySearch(ids, code);
+		return index < 0 ? -1 : index;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("BmfRasterizer [glyphs=%s, coverageBytes=%s, colorPixels=%s]", ids.length, coverage.length,
+				colors.length);
+	}
+
+}
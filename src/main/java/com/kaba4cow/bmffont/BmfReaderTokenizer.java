@@ -0,0 +1,53 @@
+package com.kaba4cow.bmffont;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * A {@link BmfTokenizer} that reads lines from a {@link Reader} through a reusable chunk buffer.
+ */
+final class BmfReaderTokenizer extends BmfTokenizer {
+
+	private final Reader reader;
+
+	private final char[] buffer;
+
+	private int bufferPosition;
+
+	private int bufferLimit;
+
+	/**
+	 * Creates a new tokenizer reading from the specified {@link Reader}.
+	 *
+	 * @param reader the {@link Reader} to read from
+	 */
+	BmfReaderTokenizer(Reader reader) {
+		this.reader = reader;
+		this.buffer = new char[8192];
+		this.bufferPosition = 0;
+		this.bufferLimit = 0;
+	}
+
+	@Override
+	protected boolean readLine() throws IOException {
+		length = 0;
+		boolean read = false;
+		while (true) {
+			if (bufferPosition == bufferLimit) {
+				bufferLimit = reader.read(buffer, 0, buffer.length);
+				bufferPosition = 0;
+				if (bufferLimit <= 0) {
+					bufferLimit = 0;
+					return read;
+				}
+			}
+			read = true;
+			char c = buffer[bufferPosition++];
+			if (c == '\n')
+				return true;
+			if (c != '\r')
+				append(c);
+		}
+	}
+
+}
@@ -0,0 +1,100 @@
+package com.kaba4cow.bmffont;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A utility class for creating subsets of {@link BmfFont} objects that only contain a given set of characters. A subset keeps
+ * the properties of the source font, the requested characters that the source font contains and the kernings whose first and
+ * second characters are both kept. Texture pages that no kept character refers to are dropped and the page indices of the
+ * characters are remapped accordingly. The source font is not modified, and requested characters that it does not contain are
+ * not reported to its metrics.
+ */
+public class BmfSubsetter {
+
+	private BmfSubsetter() {}
+
+	/**
+	 * Creates a subset of the specified font containing the characters used in the specified text. Surrogate pairs are
+	 * combined into single code points.
+	 *
+	 * @param font the font to create the subset of
+	 * @param text the text whose characters to keep
+	 *
+	 * @return the created subset
+	 */
+	public static BmfFont subset(BmfFont font, CharSequence text) {
+		Objects.requireNonNull(text, "Text must not be null");
+		BitSet codes = new BitSet();
+		int length = text.length();
+		for (int i = 0; i < length;) {
+			int code = Character.codePointAt(text, i);
+			codes.set(code);
+			i += Character.charCount(code);
+		}
+		return subset(font, codes);
+	}
+
+	/**
+	 * Creates a subset of the specified font containing the characters whose codes are set in the specified bit set.
+	 *
+	 * @param font  the font to create the subset of
+	 * @param codes the codes of the characters to keep
+	 *
+	 * @return the created subset
+	 */
+	public static BmfFont subset(BmfFont font, BitSet codes) {
+		Objects.requireNonNull(font, "Font must not be null");
+		Objects.requireNonNull(codes, "Codes must not be null");
+		List<String> pages = font.getPages();
+		BitSet kept = new BitSet();
+		BitSet usedPages = new BitSet(pages.size());
+		BmfFont subset = new BmfFont();
+		if (codes.cardinality() < font.getCharacterCount()) {
+			for (int code = codes.nextSetBit(0); code >= 0; code = codes.nextSetBit(code + 1)) {
+				BmfCharacter character = BmfFont.findCharacter(font, code);
+				if (Objects.nonNull(character))
+					keep(character, subset, kept, usedPages);
+			}
+		} else
+			for (BmfCharacter character : font.getCharacters())
+				if (character.getId() >= 0 && codes.get(character.getId()))
+					keep(character, subset, kept, usedPages);
+
+		int[] pageMap = new int[pages.size()];
+		int pageCount = 0;
+		for (int page = 0; page < pageMap.length; page++)
+			if (usedPages.get(page)) {
+				subset.addPage(pageCount, pages.get(page));
+				pageMap[page] = pageCount++;
+			}
+		for (BmfCharacter character : subset.getCharacters()) {
+			int page = character.getPage();
+			if (page >= 0 && page < pageMap.length)
+				character.setPage(pageMap[page]);
+		}
+
+		for (BmfKerning kerning : font.getKernings()) {
+			int first = kerning.getFirst();
+			int second = kerning.getSecond();
+			if (first >= 0 && second >= 0 && kept.get(first) && kept.get(second))
+				subset.addKerning(new BmfKerning(first, second).setAmount(kerning.getAmount()));
+		}
+
+		return subset.copyProperties(font);
+	}
+
+	private static void keep(BmfCharacter character, BmfFont subset, BitSet kept, BitSet usedPages) {
+		BmfCoordinates textureCoordinates = character.getTextureCoordinates();
+		BmfDimensions textureDimensions = character.getTextureDimensions();
+		BmfCoordinates offsetCoordinates = character.getOffsetCoordinates();
+		subset.addCharacter(BmfFontBuilder.createCharacter(character.getId(), textureCoordinates.getX(),
+				textureCoordinates.getY(), textureDimensions.getWidth(), textureDimensions.getHeight(), offsetCoordinates.getX(),
+				offsetCoordinates.getY(), character.getAdvance(), character.getPage(), character.getChannel()));
+		kept.set(character.getId());
+		if (character.getPage() >= 0)
+			usedPages.set(character.getPage());
+	}
+
+}
@@ -0,0 +1,40 @@
+package com.kaba4cow.bmffont;
+
+/**
+ * The horizontal alignment of lines of text within the width of a text box.
+ */
+public enum BmfTextAlignment {
+
+	/**
+	 * Lines start at the left edge of the box.
+	 */
+	LEFT,
+	/**
+	 * Lines are centered in the box.
+	 */
+	CENTER,
+	/**
+	 * Lines end at the right edge of the box.
+	 */
+	RIGHT;
+
+	/**
+	 * Returns the horizontal offset of a line of the specified width within a box of the specified width.
+	 *
+	 * @param boxWidth  the width of the box
+	 * @param lineWidth the width of the line
+	 *
+	 * @return the offset of the line from the left edge of the box
+	 */
+	public float offset(int boxWidth, int lineWidth) {
+		switch (this) {
+			case CENTER:
+				return (boxWidth - lineWidth) * 0.5f;
+			case RIGHT:
+				return boxWidth - lineWidth;
+			default:
+				return 0.0f;
+		}
+	}
+
+}
@@ -0,0 +1,334 @@
+package com.kaba4cow.bmffont;
+
+import java.util.Objects;
+
+/**
+ * Measures and lays out text using the metrics of a {@link BmfFontView}. Text is advanced character by character using the
+ * advance values of the characters and the kerning between them. Line feeds start a new line {@link BmfFontView#getLineHeight()}
+ * pixels below the previous one and carriage returns are ignored, even if the font has a character for them. Characters missing
+ * from the font are skipped.
+ * <p>
+ * Layout output is written to a caller-provided {@code float} array as one quad of {@link #QUAD_STRIDE} values per visible
+ * character, so neither measuring nor laying out text allocates. The Y axis points down and the origin is the top of the first
+ * line.
+ */
+public class BmfTextLayout {
+
+	/**
+	 * Offset of the left edge of a quad, in pixels.
+	 */
+	public static final int QUAD_X = 0;
+	/**
+	 * Offset of the top edge of a quad, in pixels.
+	 */
+	public static final int QUAD_Y = 1;
+	/**
+	 * Offset of the width of a quad, in pixels.
+	 */
+	public static final int QUAD_WIDTH = 2;
+	/**
+	 * Offset of the height of a quad, in pixels.
+	 */
+	public static final int QUAD_HEIGHT = 3;
+	/**
+	 * Offset of the left texture coordinate of a quad, normalized to the texture width.
+	 */
+	public static final int QUAD_U0 = 4;
+	/**
+	 * Offset of the top texture coordinate of a quad, normalized to the texture height.
+	 */
+	public static final int QUAD_V0 = 5;
+	/**
+	 * Offset of the right texture coordinate of a quad, normalized to the texture width.
+	 */
+	public static final int QUAD_U1 = 6;
+	/**
+	 * Offset of the bottom texture coordinate of a quad, normalized to the texture height.
+	 */
+	public static final int QUAD_V1 = 7;
+	/**
+	 * Offset of the texture page index of a quad.
+	 */
+	public static final int QUAD_PAGE = 8;
+	/**
+	 * Number of values per quad.
+	 */
+	public static final int QUAD_STRIDE = 9;
+
+	private final BmfFontView font;
+
+	private final BmfLineBreaker lineBreaker;
+
+	/**
+	 * Creates a new text layout for the specified font.
+	 *
+	 * @param font the font to lay out text with
+	 */
+	public BmfTextLayout(BmfFontView font) {
+		this.font = Objects.requireNonNull(font, "Font must not be null");
+		this.lineBreaker = new BmfLineBreaker(font);
+	}
+
+	/**
+	 * Returns the font this layout uses.
+	 *
+	 * @return the font
+	 */
+	public BmfFontView getFont() {
+		return font;
+	}
+
+	/**
+	 * Measures the width of the widest line of the specified text.
+	 *
+	 * @param text the text to measure
+	 *
+	 * @return the width in pixels
+	 */
+	public int measureWidth(CharSequence text) {
+		return measureWidth(text, 0, text.length());
+	}
+
+	/**
+	 * Measures the width of the widest line of a range of the specified text.
+	 *
+	 * @param text  the text to measure
+	 * @param start the start index, inclusive
+	 * @param end   the end index, exclusive
+	 *
+	 * @return the width in pixels
+	 */
+	public int measureWidth(CharSequence text, int start, int end) {
+		BmfFontView font = this.font;
+		int width = 0;
+		int x = 0;
+		int previous = -1;
+		int index = start;
+		while (index < end) {
+			int code = Character.codePointAt(text, index);
+			index += Character.charCount(code);
+			if (code == '\n') {
+				width = Math.max(width, x);
+				x = 0;
+				previous = -1;
+				continue;
+			}
+			if (code == '\r')
+				continue;
+			BmfCharacter character = font.getCharacter(code);
+			if (character == null)
+				continue;
+			if (previous != -1)
+				x += font.getKerningAmount(previous, code);
+			x += character.getAdvance();
+			previous = code;
+		}
+		return Math.max(width, x);
+	}
+
+	/**
+	 * Measures the height of the specified text, which is the number of lines multiplied by the line height of the font.
+	 *
+	 * @param text the text to measure
+	 *
+	 * @return the height in pixels
+	 */
+	public int measureHeight(CharSequence text) {
+		return measureHeight(text, 0, text.length());
+	}
+
+	/**
+	 * Measures the height of a range of the specified text, which is the number of lines multiplied by the line height of the
+	 * font.
+	 *
+	 * @param text  the text to measure
+	 * @param start the start index, inclusive
+	 * @param end   the end index, exclusive
+	 *
+	 * @return the height in pixels
+	 */
+	public int measureHeight(CharSequence text, int start, int end) {
+		int lines = 1;
+		for (int index = start; index < end; index++)
+			if (text.charAt(index) == '\n')
+				lines++;
+		return lines * font.getLineHeight();
+	}
+
+	/**
+	 * Counts the quads that laying out a range of the specified text produces, which is the number of characters that are
+	 * present in the font and have a non-empty texture region. Line feeds and carriage returns are not counted. Missing
+	 * characters are not reported to the metrics of the font, since laying out the text reports them.
+	 *
+	 * @param text  the text to count the quads of
+	 * @param start the start index, inclusive
+	 * @param end   the end index, exclusive
+	 *
+	 * @return the number of quads
+	 */
+	public int countQuads(CharSequence text, int start, int end) {
+		BmfFontView font = this.font;
+		int count = 0;
+		int index = start;
+		while (index < end) {
+			int code = Character.codePointAt(text, index);
+			index += Character.charCount(code);
+			if (code == '\n' || code == '\r')
+				continue;
+			BmfCharacter character = BmfFont.findCharacter(font, code);
+			if (character != null && isVisible(character))
+				count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Lays out the specified text at the origin and writes its quads to the specified array.
+	 *
+	 * @param text  the text to lay out
+	 * @param quads the array to write the quads to, with room for at least {@link #countQuads(CharSequence, int, int)} quads
+	 *
+	 * @return the number of quads written
+	 */
+	public int layout(CharSequence text, float[] quads) {
+		return layout(text, 0, text.length(), 0.0f, 0.0f, quads, 0);
+	}
+
+	/**
+	 * Lays out a range of the specified text starting at the specified position and writes its quads to the specified array.
+	 *
+	 * @param text   the text to lay out
+	 * @param start  the start index, inclusive
+	 * @param end    the end index, exclusive
+	 * @param x      the X coordinate of the origin
+	 * @param y      the Y coordinate of the origin
+	 * @param quads  the array to write the quads to
+	 * @param offset the index in {@code quads} to write the first quad at
+	 *
+	 * @return the number of quads written
+	 */
+	public int layout(CharSequence text, int start, int end, float x, float y, float[] quads, int offset) {
+		return layout(text, start, end, x, y, quads, offset, true);
+	}
+
+	private int layout(CharSequence text, int start, int end, float x, float y, float[] quads, int offset, boolean report) {
+		BmfFontView font = this.font;
+		BmfDimensions scaleDimensions = font.getScaleDimensions();
+		float scaleU = scaleDimensions.getWidth() > 0 ? 1.0f / scaleDimensions.getWidth() : 0.0f;
+		float scaleV = scaleDimensions.getHeight() > 0 ? 1.0f / scaleDimensions.getHeight() : 0.0f;
+		int lineHeight = font.getLineHeight();
+		int penX = 0;
+		int penY = 0;
+		int previous = -1;
+		int count = 0;
+		int index = start;
+		while (index < end) {
+			int code = Character.codePointAt(text, index);
+			index += Character.charCount(code);
+			if (code == '\n') {
+				penX = 0;
+				penY += lineHeight;
+				previous = -1;
+				continue;
+			}
+			if (code == '\r')
+				continue;
+			BmfCharacter character = report ? font.getCharacter(code) : BmfFont.findCharacter(font, code);
+			if (character == null)
+				continue;
+			if (previous != -1)
+				penX += report ? font.getKerningAmount(previous, code) : BmfFont.findKerningAmount(font, previous, code);
+			if (isVisible(character)) {
+				BmfCoordinates textureCoordinates = character.getTextureCoordinates();
+				BmfDimensions textureDimensions = character.getTextureDimensions();
+				BmfCoordinates offsetCoordinates = character.getOffsetCoordinates();
+				int width = textureDimensions.getWidth();
+				int height = textureDimensions.getHeight();
+				int u = textureCoordinates.getX();
+				int v = textureCoordinates.getY();
+				int quad = offset + count * QUAD_STRIDE;
+				quads[quad + QUAD_X] = x + penX + offsetCoordinates.getX();
+				quads[quad + QUAD_Y] = y + penY + offsetCoordinates.getY();
+				quads[quad + QUAD_WIDTH] = width;
+				quads[quad + QUAD_HEIGHT] = height;
+				quads[quad + QUAD_U0] = u * scaleU;
+				quads[quad + QUAD_V0] = v * scaleV;
+				quads[quad + QUAD_U1] = (u + width) * scaleU;
+				quads[quad + QUAD_V1] = (v + height) * scaleV;
+				quads[quad + QUAD_PAGE] = character.getPage();
+				count++;
+			}
+			penX += character.getAdvance();
+			previous = code;
+		}
+		return count;
+	}
+
+	/**
+	 * Lays out a range of the specified text in a box of the specified width and writes its quads to the specified array. Lines
+	 * longer than the box are wrapped by a {@link BmfLineBreaker} and each line is aligned within the box. Wrapping reuses a line
+	 * breaker owned by this layout, so this method may be used by one thread at a time.
+	 *
+	 * @param text      the text to lay out
+	 * @param start     the start index, inclusive
+	 * @param end       the end index, exclusive
+	 * @param x         the X coordinate of the left edge of the box
+	 * @param y         the Y coordinate of the top edge of the box
+	 * @param maxWidth  the width of the box, or {@code 0} to not wrap lines and align them within the width of the widest line
+	 * @param alignment the alignment of the lines within the box
+	 * @param quads     the array to write the quads to
+	 * @param offset    the index in {@code quads} to write the first quad at
+	 *
+	 * @return the number of quads written
+	 */
+	public int layout(CharSequence text, int start, int end, float x, float y, int maxWidth, BmfTextAlignment alignment,
+			float[] quads, int offset) {
+		Objects.requireNonNull(alignment, "Alignment must not be null");
+		if (maxWidth <= 0 && alignment == BmfTextAlignment.LEFT)
+			return layout(text, start, end, x, y, quads, offset);
+		BmfLineBreaker lineBreaker = this.lineBreaker;
+		lineBreaker.breakLines(text, start, end, maxWidth);
+		return layout(text, lineBreaker, x, y, maxWidth, alignment, quads, offset);
+	}
+
+	/**
+	 * Lays out the lines of the last call to {@link BmfLineBreaker#breakLines(CharSequence, int, int, int)} of the specified line
+	 * breaker and writes their quads to the specified array. Breaking the lines already reported missing characters and kerning
+	 * lookups to the metrics of the font, so laying them out does not report them again.
+	 *
+	 * @param text        the text the lines were broken from
+	 * @param lineBreaker the line breaker holding the lines
+	 * @param x           the X coordinate of the left edge of the box
+	 * @param y           the Y coordinate of the top edge of the box
+	 * @param maxWidth    the width of the box, or {@code 0} to align the lines within the width of the widest line
+	 * @param alignment   the alignment of the lines within the box
+	 * @param quads       the array to write the quads to
+	 * @param offset      the index in {@code quads} to write the first quad at
+	 *
+	 * @return the number of quads written
+	 */
+	int layout(CharSequence text, BmfLineBreaker lineBreaker, float x, float y, int maxWidth, BmfTextAlignment alignment,
+			float[] quads, int offset) {
+		int boxWidth = maxWidth > 0 ? maxWidth : lineBreaker.getMaxLineWidth();
+		int lineHeight = font.getLineHeight();
+		int count = 0;
+		for (int line = 0; line < lineBreaker.getLineCount(); line++) {
+			float lineX = x + alignment.offset(boxWidth, lineBreaker.getLineWidth(line));
+			count += layout(text, lineBreaker.getLineStart(line), lineBreaker.getLineEnd(line), lineX, y, quads,
+					offset + count * QUAD_STRIDE, false);
+			y += lineHeight;
+		}
+		return count;
+	}
+
+	private static boolean isVisible(BmfCharacter character) {
+		BmfDimensions textureDimensions = character.getTextureDimensions();
+		return textureDimensions.getWidth() > 0 && textureDimensions.getHeight() > 0;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("BmfTextLayout [font=%s]", font.getFace());
+	}
+
+}
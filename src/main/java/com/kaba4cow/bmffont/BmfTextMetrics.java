@@ -0,0 +1,153 @@
+package com.kaba4cow.bmffont;
+
+import java.util.Objects;
+
+/**
+ * Prefix sums of the pen positions of a line of text, for answering width and hit-test queries without measuring the text
+ * again. After a single pass over the text with {@link #measure(CharSequence, int, int)}, the width of any range is computed
+ * in constant time and the caret index closest to a horizontal position is found by a binary search.
+ * <p>
+ * Positions account for the advance values and kernings of a {@link BmfFontView}. Characters missing from the font, line feeds
+ * and carriage returns have no width, as in {@link BmfLineBreaker}; a carriage return does not interrupt kerning between the
+ * characters around it. The second character of a surrogate pair shares the bounds of the first. The arrays are reused by later
+ * calls, so measuring does not allocate once they are large enough. An instance may be used by one thread at a time.
+ */
+public class BmfTextMetrics {
+
+	private final BmfFontView font;
+
+	private int[] lefts;
+
+	private int[] rights;
+
+	private int start;
+
+	private int length;
+
+	/**
+	 * Creates new text metrics for the specified font.
+	 *
+	 * @param font the font to measure text with
+	 */
+	public BmfTextMetrics(BmfFontView font) {
+		this.font = Objects.requireNonNull(font, "Font must not be null");
+		this.lefts = new int[16];
+		this.rights = new int[16];
+		this.start = 0;
+		this.length = 0;
+	}
+
+	/**
+	 * Measures a range of the specified text, replacing the previous measurements. Indices passed to the queries refer to the
+	 * same text.
+	 *
+	 * @param text  the text to measure
+	 * @param start the start index, inclusive
+	 * @param end   the end index, exclusive
+	 *
+	 * @return a reference to this object
+	 */
+	public BmfTextMetrics measure(CharSequence text, int start, int end) {
+		int length = end - start;
+		if (lefts.length < length) {
+			int capacity = Math.max(length, lefts.length << 1);
+			lefts = new int[capacity];
+			rights = new int[capacity];
+		}
+		BmfFontView font = this.font;
+		int[] lefts = this.lefts;
+		int[] rights = this.rights;
+		int x = 0;
+		int previous = -1;
+		int index = start;
+		while (index < end) {
+			int code = Character.codePointAt(text, index);
+			int count = Character.charCount(code);
+			BmfCharacter character = code == '\n' || code == '\r' ? null : font.getCharacter(code);
+			int left = x;
+			if (Objects.nonNull(character)) {
+				if (previous != -1)
+					left += font.getKerningAmount(previous, code);
+				x = left + character.getAdvance();
+				previous = code;
+			} else if (code == '\n')
+				previous = -1;
+			lefts[index - start] = left;
+			rights[index - start] = x;
+			if (count == 2 && index + 1 < end) {
+				lefts[index + 1 - start] = left;
+				rights[index + 1 - start] = x;
+			}
+			index += count;
+		}
+		this.start = start;
+		this.length = length;
+		return this;
+	}
+
+	/**
+	 * Returns the width of the measured text.
+	 *
+	 * @return the width in pixels
+	 */
+	public int getWidth() {
+		return length == 0 ? 0 : rights[length - 1];
+	}
+
+	/**
+	 * Returns the width of a range of the measured text, which is the distance from the left edge of its first character to the
+	 * right edge of its last character as they are positioned in the measured text.
+	 *
+	 * @param from the start index, inclusive
+	 * @param to   the end index, exclusive
+	 *
+	 * @return the width in pixels
+	 */
+	public int width(int from, int to) {
+		if (to <= from)
+			return 0;
+		return rights[to - 1 - start] - lefts[from - start];
+	}
+
+	/**
+	 * Returns the horizontal position of the caret in front of the character at the specified index.
+	 *
+	 * @param index the index, between the start and the end of the measured range
+	 *
+	 * @return the position in pixels
+	 */
+	public int positionOf(int index) {
+		int offset = index - start;
+		if (offset >= length)
+			return getWidth();
+		return lefts[offset];
+	}
+
+	/**
+	 * Returns the caret index closest to the specified horizontal position, which is the index of the first character whose
+	 * center lies to the right of the position, or the end of the measured range.
+	 *
+	 * @param x the position in pixels
+	 *
+	 * @return the index, between the start and the end of the measured range
+	 */
+	public int indexAt(float x) {
+		float doubled = x * 2.0f;
+		int low = 0;
+		int high = length;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (lefts[middle] + rights[middle] > doubled)
+				high = middle;
+			else
+				low = middle + 1;
+		}
+		return start + low;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("BmfTextMetrics [font=%s, length=%s, width=%s]", font.getFace(), length, getWidth());
+	}
+
+}
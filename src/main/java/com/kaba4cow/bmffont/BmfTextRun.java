@@ -0,0 +1,107 @@
+package com.kaba4cow.bmffont;
+
+/**
+ * An immutable, laid out run of text, created by {@link BmfLayoutCache}. A run holds the quads of its visible characters in
+ * the format of {@link BmfTextLayout}, relative to the top-left corner of the text box, and the bounds of the text.
+ */
+public final class BmfTextRun {
+
+	private final float[] quads;
+
+	private final int quadCount;
+
+	private final int width;
+
+	private final int height;
+
+	/**
+	 * Creates a new text run.
+	 *
+	 * @param quads     the quads, which are not copied
+	 * @param quadCount the number of quads
+	 * @param width     the width of the widest line
+	 * @param height    the height of the text
+	 */
+	BmfTextRun(float[] quads, int quadCount, int width, int height) {
+		this.quads = quads;
+		this.quadCount = quadCount;
+		this.width = width;
+		this.height = height;
+	}
+
+	/**
+	 * Returns the number of quads in this run.
+	 *
+	 * @return the number of quads
+	 */
+	public int getQuadCount() {
+		return quadCount;
+	}
+
+	/**
+	 * Returns a value of a quad of this run.
+	 *
+	 * @param quad      the quad index
+	 * @param component one of the {@code QUAD_*} offsets of {@link BmfTextLayout}
+	 *
+	 * @return the value
+	 */
+	public float getQuadValue(int quad, int component) {
+		return quads[quad * BmfTextLayout.QUAD_STRIDE + component];
+	}
+
+	/**
+	 * Copies the quads of this run into the specified array, translating them by the specified offset.
+	 *
+	 * @param x      the X coordinate of the top-left corner of the text box
+	 * @param y      the Y coordinate of the top-left corner of the text box
+	 * @param target the array to copy the quads to
+	 * @param offset the index in {@code target} to write the first quad at
+	 *
+	 * @return the number of quads copied
+	 */
+	public int copyQuads(float x, float y, float[] target, int offset) {
+		System.arraycopy(quads, 0, target, offset, quadCount * BmfTextLayout.QUAD_STRIDE);
+		if (x != 0.0f || y != 0.0f) {
+			int end = offset + quadCount * BmfTextLayout.QUAD_STRIDE;
+			for (int quad = offset; quad < end; quad += BmfTextLayout.QUAD_STRIDE) {
+				target[quad + BmfTextLayout.QUAD_X] += x;
+				target[quad + BmfTextLayout.QUAD_Y] += y;
+			}
+		}
+		return quadCount;
+	}
+
+	/**
+	 * Returns the width of the widest line of this run.
+	 *
+	 * @return the width in pixels
+	 */
+	public int getWidth() {
+		return width;
+	}
+
+	/**
+	 * Returns the height of this run.
+	 *
+	 * @return the height in pixels
+	 */
+	public int getHeight() {
+		return height;
+	}
+
+	/**
+	 * Returns the estimated memory footprint of this run, which is used as its weight by {@link BmfLayoutCache}.
+	 *
+	 * @return the estimated size in bytes
+	 */
+	public int getWeight() {
+		return 32 + quads.length * Float.BYTES;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("BmfTextRun [quadCount=%s, width=%s, height=%s]", quadCount, width, height);
+	}
+
+}
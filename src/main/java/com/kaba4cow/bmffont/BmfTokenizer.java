@@ -0,0 +1,241 @@
+package com.kaba4cow.bmffont;
+
+import java.io.IOException;
+
+/**
+ * A streaming tokenizer for the text BMFont format. Lines are read one at a time into a reusable character buffer and scanned
+ * in place, so tags, keys and integer values are recognized without creating intermediate objects. Subclasses only have to
+ * supply the line contents.
+ */
+abstract class BmfTokenizer {
+
+	static final int TAG_END = -1;
+	static final int TAG_UNKNOWN = 0;
+	static final int TAG_INFO = 1;
+	static final int TAG_COMMON = 2;
+	static final int TAG_PAGE = 3;
+	static final int TAG_CHAR = 4;
+	static final int TAG_KERNING = 5;
+
+	/**
+	 * The contents of the current line, without the line terminator.
+	 */
+	protected char[] line;
+
+	/**
+	 * The number of characters in {@link #line}.
+	 */
+	protected int length;
+
+	private int position;
+
+	private int keyStart;
+	private int keyEnd;
+	private int valueStart;
+	private int valueEnd;
+
+	/**
+	 * Creates a new tokenizer with an empty line buffer.
+	 */
+	protected BmfTokenizer() {
+		this.line = new char[256];
+		this.length = 0;
+		this.position = 0;
+	}
+
+	/**
+	 * Reads the next line into {@link #line} and {@link #length}.
+	 *
+	 * @return {@code true} if a line was read, {@code false} if the input is exhausted
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	protected abstract boolean readLine() throws IOException;
+
+	/**
+	 * Creates a {@link String} from a range of the current line.
+	 *
+	 * @param start the start index, inclusive
+	 * @param end   the end index, exclusive
+	 *
+	 * @return the created string
+	 */
+	protected String createString(int start, int end) {
+		return new String(line, start, end - start);
+	}
+
+	/**
+	 * Appends a character to the current line, growing the buffer if necessary.
+	 *
+	 * @param c the character to append
+	 */
+	protected final void append(char c) {
+		if (length == line.length) {
+			char[] grown = new char[line.length << 1];
+			System.arraycopy(line, 0, grown, 0, length);
+			line = grown;
+		}
+		line[length++] = c;
+	}
+
+	/**
+	 * Advances to the next non-empty line and identifies its tag.
+	 *
+	 * @return one of the {@code TAG_*} constants, or {@link #TAG_END} if the input is exhausted
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	final int nextTag() throws IOException {
+		while (readLine()) {
+			position = 0;
+			skipWhitespace();
+			int start = position;
+			while (position < length && !isWhitespace(line[position]))
+				position++;
+			if (position == start)
+				continue;
+			if (matches(start, position, "char"))
+				return TAG_CHAR;
+			if (matches(start, position, "kerning"))
+				return TAG_KERNING;
+			if (matches(start, position, "page"))
+				return TAG_PAGE;
+			if (matches(start, position, "info"))
+				return TAG_INFO;
+			if (matches(start, position, "common"))
+				return TAG_COMMON;
+			return TAG_UNKNOWN;
+		}
+		return TAG_END;
+	}
+
+	/**
+	 * Advances to the next {@code key=value} attribute of the current line.
+	 *
+	 * @return {@code true} if an attribute was found, {@code false} if the end of the line was reached
+	 */
+	final boolean nextAttribute() {
+		while (true) {
+			skipWhitespace();
+			if (position >= length)
+				return false;
+			keyStart = position;
+			while (position < length && line[position] != '=' && !isWhitespace(line[position]))
+				position++;
+			keyEnd = position;
+			if (position >= length || line[position] != '=')
+				continue;
+			position++;
+			if (position < length && line[position] == '"') {
+				valueStart = ++position;
+				while (position < length && line[position] != '"')
+					position++;
+				valueEnd = position;
+				if (position < length)
+					position++;
+			} else {
+				valueStart = position;
+				while (position < length && !isWhitespace(line[position]))
+					position++;
+				valueEnd = position;
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * Checks whether the key of the current attribute equals the specified key.
+	 *
+	 * @param key the key to compare with
+	 *
+	 * @return {@code true} if the keys are equal, {@code false} otherwise
+	 */
+	final boolean isKey(String key) {
+		return matches(keyStart, keyEnd, key);
+	}
+
+	/**
+	 * Parses the value of the current attribute as an integer.
+	 *
+	 * @return the integer value
+	 *
+	 * @throws IOException if the value is not a valid integer
+	 */
+	final int intValue() throws IOException {
+		return parseInt(valueStart, valueEnd);
+	}
+
+	/**
+	 * Parses the value of the current attribute as a comma-separated list of integers.
+	 *
+	 * @return the integer values
+	 *
+	 * @throws IOException if the value is not a valid list of integers
+	 */
+	final int[] intArrayValue() throws IOException {
+		int count = 1;
+		for (int i = valueStart; i < valueEnd; i++)
+			if (line[i] == ',')
+				count++;
+		int[] values = new int[count];
+		int start = valueStart;
+		for (int i = 0; i < count; i++) {
+			int end = start;
+			while (end < valueEnd && line[end] != ',')
+				end++;
+			values[i] = parseInt(start, end);
+			start = end + 1;
+		}
+		return values;
+	}
+
+	/**
+	 * Returns the value of the current attribute as a {@link String}, without surrounding quotes.
+	 *
+	 * @return the string value
+	 */
+	final String stringValue() {
+		return createString(valueStart, valueEnd);
+	}
+
+	private int parseInt(int start, int end) throws IOException {
+		int index = start;
+		boolean negative = false;
+		if (index < end && (line[index] == '-' || line[index] == '+'))
+			negative = line[index++] == '-';
+		if (index == end)
+			throw invalidInteger(start, end);
+		int value = 0;
+		while (index < end) {
+			int digit = line[index++] - '0';
+			if (digit < 0 || digit > 9)
+				throw invalidInteger(start, end);
+			value = value * 10 + digit;
+		}
+		return negative ? -value : value;
+	}
+
+	private IOException invalidInteger(int start, int end) {
+		return new IOException(String.format("Invalid integer value \"%s\" for key \"%s\"", createString(start, end),
+				createString(keyStart, keyEnd)));
+	}
+
+	private boolean matches(int start, int end, String string) {
+		if (end - start != string.length())
+			return false;
+		for (int i = start; i < end; i++)
+			if (line[i] != string.charAt(i - start))
+				return false;
+		return true;
+	}
+
+	private void skipWhitespace() {
+		while (position < length && isWhitespace(line[position]))
+			position++;
+	}
+
+	private static boolean isWhitespace(char c) {
+		return c == ' ' || c == '\t';
+	}
+
+}
@@ -0,0 +1,334 @@
+package com.kaba4cow.bmffont;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A utility class for writing fonts in the text, binary (version 3) or XML BMFont formats. Any {@link BmfFontView} can be
+ * written, including a {@link BmfFont} and a {@link FrozenBmfFont}. Output is encoded directly into a reusable byte buffer and
+ * streamed to a {@link WritableByteChannel} or an {@link OutputStream}, which is not closed. Strings are written as UTF-8.
+ */
+public class BmfWriter {
+
+	private BmfWriter() {}
+
+	/**
+	 * Writes the specified font in the text format to the specified {@link OutputStream}.
+	 *
+	 * @param font   the font to write
+	 * @param target the {@link OutputStream} to write to
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static void writeText(BmfFontView font, OutputStream target) throws IOException {
+		Objects.requireNonNull(target, "Target OutputStream must not be null");
+		writeText(font, Channels.newChannel(target));
+		target.flush();
+	}
+
+	/**
+	 * Writes the specified font in the text format to the specified {@link WritableByteChannel}.
+	 *
+	 * @param font   the font to write
+	 * @param target the {@link WritableByteChannel} to write to
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static void writeText(BmfFontView font, WritableByteChannel target) throws IOException {
+		Objects.requireNonNull(font, "Font must not be null");
+		Objects.requireNonNull(target, "Target WritableByteChannel must not be null");
+		BmfByteSink sink = new BmfByteSink(target);
+
+		sink.ascii("info face=\"").utf8(font.getFace());
+		sink.ascii("\" size=").decimal(font.getSize());
+		sink.ascii(" bold=").decimal(flag(font.isBold()));
+		sink.ascii(" italic=").decimal(flag(font.isItalic()));
+		sink.ascii(" charset=\"").utf8(font.getCharset());
+		sink.ascii("\" unicode=").decimal(flag(font.isUnicode()));
+		sink.ascii(" stretchH=").decimal(font.getStretchH());
+		sink.ascii(" smooth=").decimal(flag(font.isSmooth()));
+		sink.ascii(" aa=").decimal(flag(font.isAntiAliased()));
+		writeIntArray(sink.ascii(" padding="), font.getPadding());
+		writeIntArray(sink.ascii(" spacing="), font.getSpacing());
+		sink.write('\n');
+
+		BmfDimensions scaleDimensions = font.getScaleDimensions();
+		List<String> pages = font.getPages();
+		sink.ascii("common lineHeight=").decimal(font.getLineHeight());
+		sink.ascii(" base=").decimal(font.getBase());
+		sink.ascii(" scaleW=").decimal(scaleDimensions.getWidth());
+		sink.ascii(" scaleH=").decimal(scaleDimensions.getHeight());
+		sink.ascii(" pages=").decimal(pages.size());
+		sink.ascii(" packed=").decimal(flag(font.isPacked()));
+		sink.write('\n');
+
+		for (int id = 0; id < pages.size(); id++) {
+			sink.ascii("page id=").decimal(id);
+			sink.ascii(" file=\"").utf8(pages.get(id)).ascii("\"\n");
+		}
+
+		Collection<BmfCharacter> characters = font.getCharacters();
+		sink.ascii("chars count=").decimal(characters.size()).write('\n');
+		for (BmfCharacter character : characters) {
+			sink.ascii("char id=").decimal(character.getId());
+			sink.ascii(" x=").decimal(character.getTextureCoordinates().getX());
+			sink.ascii(" y=").decimal(character.getTextureCoordinates().getY());
+			sink.ascii(" width=").decimal(character.getTextureDimensions().getWidth());
+			sink.ascii(" height=").decimal(character.getTextureDimensions().getHeight());
+			sink.ascii(" xoffset=").decimal(character.getOffsetCoordinates().getX());
+			sink.ascii(" yoffset=").decimal(character.getOffsetCoordinates().getY());
+			sink.ascii(" xadvance=").decimal(character.getAdvance());
+			sink.ascii(" page=").decimal(character.getPage());
+			sink.ascii(" chnl=").decimal(character.getChannel());
+			sink.write('\n');
+		}
+
+		Set<BmfKerning> kernings = font.getKernings();
+		if (!kernings.isEmpty()) {
+			sink.ascii("kernings count=").decimal(kernings.size()).write('\n');
+			for (BmfKerning kerning : kernings) {
+				sink.ascii("kerning first=").decimal(kerning.getFirst());
+				sink.ascii(" second=").decimal(kerning.getSecond());
+				sink.ascii(" amount=").decimal(kerning.getAmount());
+				sink.write('\n');
+			}
+		}
+		sink.flush();
+	}
+
+	/**
+	 * Writes the specified font in the binary format to the specified {@link OutputStream}.
+	 *
+	 * @param font   the font to write
+	 * @param target the {@link OutputStream} to write to
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static void writeBinary(BmfFontView font, OutputStream target) throws IOException {
+		Objects.requireNonNull(target, "Target OutputStream must not be null");
+		writeBinary(font, Channels.newChannel(target));
+		target.flush();
+	}
+
+	/**
+	 * Writes the specified font in the binary format to the specified {@link WritableByteChannel}.
+	 *
+	 * @param font   the font to write
+	 * @param target the {@link WritableByteChannel} to write to
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static void writeBinary(BmfFontView font, WritableByteChannel target) throws IOException {
+		Objects.requireNonNull(font, "Font must not be null");
+		Objects.requireNonNull(target, "Target WritableByteChannel must not be null");
+		BmfByteSink sink = new BmfByteSink(target);
+		sink.ascii("BMF").write(BmfBinaryReader.VERSION);
+
+		int[] padding = font.getPadding();
+		int[] spacing = font.getSpacing();
+		sink.write(BmfBinaryReader.BLOCK_INFO).int32(15 + BmfByteSink.utf8Length(font.getFace()));
+		sink.int16(font.getSize());
+		sink.write((font.isSmooth() ? 0x80 : 0) | (font.isUnicode() ? 0x40 : 0) | (font.isItalic() ? 0x20 : 0)
+				| (font.isBold() ? 0x10 : 0));
+		sink.write(font.isUnicode() ? 0 : BmfCharsets.id(font.getCharset()));
+		sink.int16(font.getStretchH());
+		sink.write(flag(font.isAntiAliased()));
+		for (int i = 0; i < 4; i++)
+			sink.write(valueAt(padding, i));
+		for (int i = 0; i < 2; i++)
+			sink.write(valueAt(spacing, i));
+		sink.write(0);
+		sink.utf8(font.getFace()).write(0);
+
+		BmfDimensions scaleDimensions = font.getScaleDimensions();
+		List<String> pages = font.getPages();
+		sink.write(BmfBinaryReader.BLOCK_COMMON).int32(15);
+		sink.int16(font.getLineHeight());
+		sink.int16(font.getBase());
+		sink.int16(scaleDimensions.getWidth());
+		sink.int16(scaleDimensions.getHeight());
+		sink.int16(pages.size());
+		sink.write(font.isPacked() ? 0x01 : 0);
+		sink.write(0).write(0).write(0).write(0);
+
+		if (!pages.isEmpty()) {
+			int size = 0;
+			for (String page : pages)
+				size += BmfByteSink.utf8Length(page) + 1;
+			sink.write(BmfBinaryReader.BLOCK_PAGES).int32(size);
+			for (String page : pages)
+				sink.utf8(page).write(0);
+		}
+
+		Collection<BmfCharacter> characters = font.getCharacters();
+		sink.write(BmfBinaryReader.BLOCK_CHARS).int32(characters.size() * BmfBinaryReader.CHAR_SIZE);
+		for (BmfCharacter character : characters) {
+			sink.int32(character.getId());
+			sink.int16(character.getTextureCoordinates().getX());
+			sink.int16(character.getTextureCoordinates().getY());
+			sink.int16(character.getTextureDimensions().getWidth());
+			sink.int16(character.getTextureDimensions().getHeight());
+			sink.int16(character.getOffsetCoordinates().getX());
+			sink.int16(character.getOffsetCoordinates().getY());
+			sink.int16(character.getAdvance());
+			sink.write(character.getPage());
+			sink.write(character.getChannel());
+		}
+
+		Set<BmfKerning> kernings = font.getKernings();
+		if (!kernings.isEmpty()) {
+			sink.write(BmfBinaryReader.BLOCK_KERNINGS).int32(kernings.size() * BmfBinaryReader.KERNING_SIZE);
+			for (BmfKerning kerning : kernings) {
+				sink.int32(kerning.getFirst());
+				sink.int32(kerning.getSecond());
+				sink.int16(kerning.getAmount());
+			}
+		}
+		sink.flush();
+	}
+
+	/**
+	 * Writes the specified font in the XML format to the specified {@link OutputStream}.
+	 *
+	 * @param font   the font to write
+	 * @param target the {@link OutputStream} to write to
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static void writeXml(BmfFontView font, OutputStream target) throws IOException {
+		Objects.requireNonNull(target, "Target OutputStream must not be null");
+		writeXml(font, Channels.newChannel(target));
+		target.flush();
+	}
+
+	/**
+	 * Writes the specified font in the XML format to the specified {@link WritableByteChannel}.
+	 *
+	 * @param font   the font to write
+	 * @param target the {@link WritableByteChannel} to write to
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static void writeXml(BmfFontView font, WritableByteChannel target) throws IOException {
+		Objects.requireNonNull(font, "Font must not be null");
+		Objects.requireNonNull(target, "Target WritableByteChannel must not be null");
+		BmfByteSink sink = new BmfByteSink(target);
+		sink.ascii("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<font>\n");
+
+		sink.ascii("  <info face=\"");
+		writeEscaped(sink, font.getFace());
+		sink.ascii("\" size=\"").decimal(font.getSize());
+		sink.ascii("\" bold=\"").decimal(flag(font.isBold()));
+		sink.ascii("\" italic=\"").decimal(flag(font.isItalic()));
+		sink.ascii("\" charset=\"");
+		writeEscaped(sink, font.getCharset());
+		sink.ascii("\" unicode=\"").decimal(flag(font.isUnicode()));
+		sink.ascii("\" stretchH=\"").decimal(font.getStretchH());
+		sink.ascii("\" smooth=\"").decimal(flag(font.isSmooth()));
+		sink.ascii("\" aa=\"").decimal(flag(font.isAntiAliased()));
+		writeIntArray(sink.ascii("\" padding=\""), font.getPadding());
+		writeIntArray(sink.ascii("\" spacing=\""), font.getSpacing());
+		sink.ascii("\"/>\n");
+
+		BmfDimensions scaleDimensions = font.getScaleDimensions();
+		List<String> pages = font.getPages();
+		sink.ascii("  <common lineHeight=\"").decimal(font.getLineHeight());
+		sink.ascii("\" base=\"").decimal(font.getBase());
+		sink.ascii("\" scaleW=\"").decimal(scaleDimensions.getWidth());
+		sink.ascii("\" scaleH=\"").decimal(scaleDimensions.getHeight());
+		sink.ascii("\" pages=\"").decimal(pages.size());
+		sink.ascii("\" packed=\"").decimal(flag(font.isPacked()));
+		sink.ascii("\"/>\n");
+
+		sink.ascii("  <pages>\n");
+		for (int id = 0; id < pages.size(); id++) {
+			sink.ascii("    <page id=\"").decimal(id).ascii("\" file=\"");
+			writeEscaped(sink, pages.get(id));
+			sink.ascii("\"/>\n");
+		}
+		sink.ascii("  </pages>\n");
+
+		Collection<BmfCharacter> characters = font.getCharacters();
+		sink.ascii("  <chars count=\"").decimal(characters.size()).ascii("\">\n");
+		for (BmfCharacter character : characters) {
+			sink.ascii("    <char id=\"").decimal(character.getId());
+			sink.ascii("\" x=\"").decimal(character.getTextureCoordinates().getX());
+			sink.ascii("\" y=\"").decimal(character.getTextureCoordinates().getY());
+			sink.ascii("\" width=\"").decimal(character.getTextureDimensions().getWidth());
+			sink.ascii("\" height=\"").decimal(character.getTextureDimensions().getHeight());
+			sink.ascii("\" xoffset=\"").decimal(character.getOffsetCoordinates().getX());
+			sink.ascii("\" yoffset=\"").decimal(character.getOffsetCoordinates().getY());
+			sink.ascii("\" xadvance=\"").decimal(character.getAdvance());
+			sink.ascii("\" page=\"").decimal(character.getPage());
+			sink.ascii("\" chnl=\"").decimal(character.getChannel());
+			sink.ascii("\"/>\n");
+		}
+		sink.ascii("  </chars>\n");
+
+		Set<BmfKerning> kernings = font.getKernings();
+		if (!kernings.isEmpty()) {
+			sink.ascii("  <kernings count=\"").decimal(kernings.size()).ascii("\">\n");
+			for (BmfKerning kerning : kernings) {
+				sink.ascii("    <kerning first=\"").decimal(kerning.getFirst());
+				sink.ascii("\" second=\"").decimal(kerning.getSecond());
+				sink.ascii("\" amount=\"").decimal(kerning.getAmount());
+				sink.ascii("\"/>\n");
+			}
+			sink.ascii("  </kernings>\n");
+		}
+		sink.ascii("</font>\n");
+		sink.flush();
+	}
+
+	private static int flag(boolean value) {
+		return value ? 1 : 0;
+	}
+
+	private static int valueAt(int[] array, int index) {
+		return index < array.length ? array[index] : 0;
+	}
+
+	private static void writeIntArray(BmfByteSink sink, int[] array) throws IOException {
+		for (int i = 0; i < array.length; i++) {
+			if (i > 0)
+				sink.write(',');
+			sink.decimal(array[i]);
+		}
+	}
+
+	private static void writeEscaped(BmfByteSink sink, String string) throws IOException {
+		int start = 0;
+		for (int i = 0; i < string.length(); i++) {
+			String entity;
+			switch (string.charAt(i)) {
+				case '&':
+					entity = "&amp;";
+					break;
+				case '<':
+					entity = "&lt;";
+					break;
+				case '>':
+					entity = "&gt;";
+					break;
+				case '"':
+					entity = "&quot;";
+					break;
+				case '\'':
+					entity = "&apos;";
+					break;
+				default:
+					continue;
+			}
+			sink.utf8(string.substring(start, i)).ascii(entity);
+			start = i + 1;
+		}
+		sink.utf8(start == 0 ? string : string.substring(start));
+	}
+
+}
@@ -0,0 +1,354 @@
+package com.kaba4cow.bmffont;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Decodes the XML BMFont format with a StAX stream reader and reports its contents to a {@link BmfParseListener}. Elements are
+ * reported as they are read, in document order, so memory use does not depend on the number of characters or kernings. DTDs
+ * and external entities are not supported.
+ */
+final class BmfXmlReader {
+
+	private static final XMLInputFactory FACTORY = createFactory();
+
+	private BmfXmlReader() {}
+
+	private static XMLInputFactory createFactory() {
+		XMLInputFactory factory = XMLInputFactory.newInstance();
+		factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+		factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+		return factory;
+	}
+
+	/**
+	 * Checks whether the data at the current position of the specified buffer looks like XML, that is whether its first
+	 * character after an optional UTF-8 byte order mark and whitespace is {@code <}. The position of the buffer is not changed.
+	 *
+	 * @param buffer the buffer to check
+	 *
+	 * @return {@code true} if the buffer contains XML data, {@code false} otherwise
+	 */
+	static boolean isXml(ByteBuffer buffer) {
+		int position = buffer.position();
+		int limit = buffer.limit();
+		if (limit - position >= 3 && buffer.get(position) == (byte) 0xEF && buffer.get(position + 1) == (byte) 0xBB
+				&& buffer.get(position + 2) == (byte) 0xBF)
+			position += 3;
+		while (position < limit) {
+			byte b = buffer.get(position++);
+			if (b != ' ' && b != '\t' && b != '\r' && b != '\n')
+				return b == '<';
+		}
+		return false;
+	}
+
+	/**
+	 * Decodes the XML BMFont data from the remaining bytes of the specified buffer and reports its contents to the listener. The
+	 * position of the buffer is not changed.
+	 *
+	 * @param source   the buffer to read from
+	 * @param listener the listener to report to
+	 *
+	 * @throws IOException if the data is malformed
+	 */
+	static void read(ByteBuffer source, BmfParseListener listener) throws IOException {
+		read(new ByteBufferInputStream(source.duplicate()), listener);
+	}
+
+	/**
+	 * Decodes the XML BMFont data from the specified {@link InputStream} and reports its contents to the listener.
+	 *
+	 * @param source   the {@link InputStream} to read from
+	 * @param listener the listener to report to
+	 *
+	 * @throws IOException if an I/O error occurs or the data is malformed
+	 */
+	static void read(InputStream source, BmfParseListener listener) throws IOException {
+		try {
+			read(FACTORY.createXMLStreamReader(source), listener);
+		} catch (XMLStreamException exception) {
+			throw new IOException("Malformed XML BMFont data", exception);
+		}
+	}
+
+	/**
+	 * Decodes the XML BMFont data from the specified {@link Reader} and reports its contents to the listener.
+	 *
+	 * @param source   the {@link Reader} to read from
+	 * @param listener the listener to report to
+	 *
+	 * @throws IOException if an I/O error occurs or the data is malformed
+	 */
+	static void read(Reader source, BmfParseListener listener) throws IOException {
+		try {
+			read(FACTORY.createXMLStreamReader(source), listener);
+		} catch (XMLStreamException exception) {
+			throw new IOException("Malformed XML BMFont data", exception);
+		}
+	}
+
+	private static void read(XMLStreamReader reader, BmfParseListener listener) throws XMLStreamException, IOException {
+		try {
+			while (reader.hasNext())
+				if (reader.next() == XMLStreamConstants.START_ELEMENT)
+					switch (reader.getLocalName()) {
+						case "info":
+							readInfo(reader, listener);
+							break;
+						case "common":
+							readCommon(reader, listener);
+							break;
+						case "page":
+							readPage(reader, listener);
+							break;
+						case "char":
+							readCharacter(reader, listener);
+							break;
+						case "kerning":
+							readKerning(reader, listener);
+							break;
+						default:
+							break;
+					}
+		} finally {
+			reader.close();
+		}
+	}
+
+	private static void readInfo(XMLStreamReader reader, BmfParseListener listener) throws IOException {
+		String face = "";
+		int size = 0;
+		boolean bold = false;
+		boolean italic = false;
+		String charset = "";
+		boolean unicode = false;
+		int stretchH = 0;
+		boolean smooth = false;
+		boolean antiAliased = false;
+		int[] padding = null;
+		int[] spacing = null;
+		for (int i = 0; i < reader.getAttributeCount(); i++) {
+			String value = reader.getAttributeValue(i);
+			switch (reader.getAttributeLocalName(i)) {
+				case "face":
+					face = value;
+					break;
+				case "size":
+					size = parseInt(value);
+					break;
+				case "bold":
+					bold = parseInt(value) != 0;
+					break;
+				case "italic":
+					italic = parseInt(value) != 0;
+					break;
+				case "charset":
+					charset = value;
+					break;
+				case "unicode":
+					unicode = parseInt(value) != 0;
+					break;
+				case "stretchH":
+					stretchH = parseInt(value);
+					break;
+				case "smooth":
+					smooth = parseInt(value) != 0;
+					break;
+				case "aa":
+					antiAliased = parseInt(value) != 0;
+					break;
+				case "padding":
+					padding = parseIntArray(value);
+					break;
+				case "spacing":
+					spacing = parseIntArray(value);
+					break;
+				default:
+					break;
+			}
+		}
+		listener.onInfo(face, size, bold, italic, charset, unicode, stretchH, smooth, antiAliased,
+				Objects.isNull(padding) ? new int[4] : padding, Objects.isNull(spacing) ? new int[2] : spacing);
+	}
+
+	private static void readCommon(XMLStreamReader reader, BmfParseListener listener) throws IOException {
+		int lineHeight = 0;
+		int base = 0;
+		int scaleW = 0;
+		int scaleH = 0;
+		boolean packed = false;
+		for (int i = 0; i < reader.getAttributeCount(); i++) {
+			String value = reader.getAttributeValue(i);
+			switch (reader.getAttributeLocalName(i)) {
+				case "lineHeight":
+					lineHeight = parseInt(value);
+					break;
+				case "base":
+					base = parseInt(value);
+					break;
+				case "scaleW":
+					scaleW = parseInt(value);
+					break;
+				case "scaleH":
+					scaleH = parseInt(value);
+					break;
+				case "packed":
+					packed = parseInt(value) != 0;
+					break;
+				default:
+					break;
+			}
+		}
+		listener.onCommon(lineHeight, base, scaleW, scaleH, packed);
+	}
+
+	private static void readPage(XMLStreamReader reader, BmfParseListener listener) throws IOException {
+		int id = 0;
+		String file = "";
+		for (int i = 0; i < reader.getAttributeCount(); i++) {
+			String value = reader.getAttributeValue(i);
+			switch (reader.getAttributeLocalName(i)) {
+				case "id":
+					id = parseInt(value);
+					break;
+				case "file":
+					file = value;
+					break;
+				default:
+					break;
+			}
+		}
+		listener.onPage(id, file);
+	}
+
+	private static void readCharacter(XMLStreamReader reader, BmfParseListener listener) throws IOException {
+		int id = 0;
+		int x = 0;
+		int y = 0;
+		int width = 0;
+		int height = 0;
+		int offsetX = 0;
+		int offsetY = 0;
+		int advance = 0;
+		int page = 0;
+		int channel = 0;
+		for (int i = 0; i < reader.getAttributeCount(); i++) {
+			String value = reader.getAttributeValue(i);
+			switch (reader.getAttributeLocalName(i)) {
+				case "id":
+					id = parseInt(value);
+					break;
+				case "x":
+					x = parseInt(value);
+					break;
+				case "y":
+					y = parseInt(value);
+					break;
+				case "width":
+					width = parseInt(value);
+					break;
+				case "height":
+					height = parseInt(value);
+					break;
+				case "xoffset":
+					offsetX = parseInt(value);
+					break;
+				case "yoffset":
+					offsetY = parseInt(value);
+					break;
+				case "xadvance":
+					advance = parseInt(value);
+					break;
+				case "page":
+					page = parseInt(value);
+					break;
+				case "chnl":
+					channel = parseInt(value);
+					break;
+				default:
+					break;
+			}
+		}
+		listener.onChar(id, x, y, width, height, offsetX, offsetY, advance, page, channel);
+	}
+
+	private static void readKerning(XMLStreamReader reader, BmfParseListener listener) throws IOException {
+		int first = 0;
+		int second = 0;
+		int amount = 0;
+		for (int i = 0; i < reader.getAttributeCount(); i++) {
+			String value = reader.getAttributeValue(i);
+			switch (reader.getAttributeLocalName(i)) {
+				case "first":
+					first = parseInt(value);
+					break;
+				case "second":
+					second = parseInt(value);
+					break;
+				case "amount":
+					amount = parseInt(value);
+					break;
+				default:
+					break;
+			}
+		}
+		listener.onKerning(first, second, amount);
+	}
+
+	private static final class ByteBufferInputStream extends InputStream {
+
+		private final ByteBuffer buffer;
+
+		private ByteBufferInputStream(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read() {
+			return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+		}
+
+		@Override
+		public int read(byte[] bytes, int offset, int length) {
+			if (length == 0)
+				return 0;
+			if (!buffer.hasRemaining())
+				return -1;
+			int count = Math.min(length, buffer.remaining());
+			buffer.get(bytes, offset, count);
+			return count;
+		}
+
+		@Override
+		public int available() {
+			return buffer.remaining();
+		}
+
+	}
+
+	private static int parseInt(String value) throws IOException {
+		try {
+			return Integer.parseInt(value.trim());
+		} catch (NumberFormatException exception) {
+			throw new IOException(String.format("Invalid integer value \"%s\"", value), exception);
+		}
+	}
+
+	private static int[] parseIntArray(String value) throws IOException {
+		String[] values = value.split(",");
+		int[] array = new int[values.length];
+		for (int i = 0; i < values.length; i++)
+			array[i] = parseInt(values[i]);
+		return array;
+	}
+
+}
@@ -0,0 +1,594 @@
+package com.kaba4cow.bmffont;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * An immutable snapshot of a {@link BmfFont}, created by {@link BmfFont#freeze()}. It implements the same {@link BmfFontView}
+ * read API as {@link BmfFont}, but all of its state is copied at creation and stored in final fields, so a snapshot is safely
+ * published and can be read by any number of threads without locks. The characters, kernings and metric objects it returns are
+ * immutable copies whose setters throw {@link UnsupportedOperationException}.
+ * <p>
+ * The characters are stored once, in an array sorted by code; a primitive-keyed index refers to the same objects for lookups,
+ * and the collections returned by this class are read-only views of the array. Kernings are stored the same way.
+ */
+public final class FrozenBmfFont implements BmfFontView {
+
+	private final BmfCharacter[] characters;
+
+	private final BmfCharacterIndex characterIndex;
+
+	private final Map<Integer, BmfCharacter> characterMap;
+
+	private final Set<Integer> characterCodes;
+
+	private final Collection<BmfCharacter> characterValues;
+
+	private final BmfKerning[] kernings;
+
+	private final BmfKerningIndex kerningIndex;
+
+	private final Set<BmfKerning> kerningSet;
+
+	private final List<String> pages;
+
+	private final String face;
+	private final String charset;
+
+	private final int size;
+	private final int stretchH;
+
+	private final BmfDimensions scaleDimensions;
+
+	private final int lineHeight;
+	private final int base;
+
+	private final int[] padding;
+	private final int[] spacing;
+
+	private final boolean bold;
+	private final boolean italic;
+	private final boolean unicode;
+	private final boolean smooth;
+	private final boolean antiAliased;
+	private final boolean packed;
+
+	/**
+	 * Creates a new snapshot of the specified font.
+	 *
+	 * @param font the font to take the snapshot of
+	 */
+	FrozenBmfFont(BmfFont font) {
+		Collection<BmfCharacter> characters = font.getCharacters();
+		this.characters = new BmfCharacter[characters.size()];
+		this.characterIndex = new BmfCharacterIndex();
+		int index = 0;
+		for (BmfCharacter character : characters) {
+			BmfCharacter frozen = new FrozenCharacter(character);
+			this.characters[index++] = frozen;
+			characterIndex.put(frozen);
+		}
+		this.characterMap = new CharacterMap();
+		this.characterCodes = characterMap.keySet();
+		this.characterValues = characterMap.values();
+		Set<BmfKerning> kernings = font.getKernings();
+		this.kernings = new BmfKerning[kernings.size()];
+		this.kerningIndex = new BmfKerningIndex();
+		index = 0;
+		for (BmfKerning kerning : kernings) {
+			BmfKerning frozen = new FrozenKerning(kerning);
+			this.kernings[index++] = frozen;
+			kerningIndex.put(frozen);
+		}
+		this.kerningSet = new ArraySet<>(this.kernings);
+		this.pages = Collections.unmodifiableList(new ArrayList<>(font.getPages()));
+		this.face = font.getFace();
+		this.charset = font.getCharset();
+		this.size = font.getSize();
+		this.stretchH = font.getStretchH();
+		this.scaleDimensions = new FrozenDimensions(font.getScaleDimensions());
+		this.lineHeight = font.getLineHeight();
+		this.base = font.getBase();
+		this.padding = font.getPadding().clone();
+		this.spacing = font.getSpacing().clone();
+		this.bold = font.isBold();
+		this.italic = font.isItalic();
+		this.unicode = font.isUnicode();
+		this.smooth = font.isSmooth();
+		this.antiAliased = font.isAntiAliased();
+		this.packed = font.isPacked();
+	}
+
+	/**
+	 * Returns an unmodifiable map of all characters in this font, keyed by their character codes.
+	 *
+	 * @return an unmodifiable map of character codes to {@link BmfCharacter} objects
+	 */
+	@Override
+	public Map<Integer, BmfCharacter> getCharacterMap() {
+		return characterMap;
+	}
+
+	/**
+	 * Returns an unmodifiable set of all character codes in this font.
+	 *
+	 * @return an unmodifiable set of character codes
+	 */
+	@Override
+	public Set<Integer> getCharacterCodes() {
+		return characterCodes;
+	}
+
+	/**
+	 * Returns an unmodifiable collection of all characters in this font.
+	 *
+	 * @return an unmodifiable collection of {@link BmfCharacter} objects
+	 */
+	@Override
+	public Collection<BmfCharacter> getCharacters() {
+		return characterValues;
+	}
+
+	/**
+	 * Checks if a character with the specified code exists in this font.
+	 *
+	 * @param code the character code to check
+	 *
+	 * @return {@code true} if the character exists, {@code false} otherwise
+	 */
+	@Override
+	public boolean hasCharacter(int code) {
+		return characterIndex.get(code) != null;
+	}
+
+	/**
+	 * Returns the character with the specified code, or {@code null} if not found.
+	 *
+	 * @param code the character code to get
+	 *
+	 * @return the immutable {@link BmfCharacter} object, or {@code null} if not found
+	 */
+	@Override
+	public BmfCharacter getCharacter(int code) {
+		return characterIndex.get(code);
+	}
+
+	/**
+	 * Returns an unmodifiable set of all kernings in this font.
+	 *
+	 * @return an unmodifiable set of kernings
+	 */
+	@Override
+	public Set<BmfKerning> getKernings() {
+		return kerningSet;
+	}
+
+	/**
+	 * Finds kerning for a pair of characters.
+	 *
+	 * @param first  the code of the first character
+	 * @param second the code of the second character
+	 *
+	 * @return an {@link Optional} containing the immutable kerning
+	 */
+	@Override
+	public Optional<BmfKerning> getKerning(int first, int second) {
+		return Optional.ofNullable(kerningIndex.get(first, second));
+	}
+
+	/**
+	 * Returns the kerning amount for a pair of characters without allocating.
+	 *
+	 * @param first  the code of the first character
+	 * @param second the code of the second character
+	 *
+	 * @return the kerning amount, or {@code 0} if the pair has no kerning
+	 */
+	@Override
+	public int getKerningAmount(int first, int second) {
+		return kerningIndex.getAmount(first, second);
+	}
+
+	/**
+	 * Returns the kerning index of this font.
+	 *
+	 * @return the kerning index
+	 */
+	BmfKerningIndex getKerningIndex() {
+		return kerningIndex;
+	}
+
+	/**
+	 * Returns an unmodifiable list of texture page file names.
+	 *
+	 * @return an unmodifiable list of page file names
+	 */
+	@Override
+	public List<String> getPages() {
+		return pages;
+	}
+
+	/**
+	 * Returns the file name of the texture page with the specified ID.
+	 *
+	 * @param id the page ID
+	 *
+	 * @return the page file name
+	 */
+	@Override
+	public String getPage(int id) {
+		return pages.get(id);
+	}
+
+	/**
+	 * Returns the font face name.
+	 *
+	 * @return the font face name
+	 */
+	@Override
+	public String getFace() {
+		return face;
+	}
+
+	/**
+	 * Returns the font character set.
+	 *
+	 * @return the character set
+	 */
+	@Override
+	public String getCharset() {
+		return charset;
+	}
+
+	/**
+	 * Returns the font size in pixels.
+	 *
+	 * @return the font size
+	 */
+	@Override
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * Returns the font stretch height percentage.
+	 *
+	 * @return the stretch height
+	 */
+	@Override
+	public int getStretchH() {
+		return stretchH;
+	}
+
+	/**
+	 * Returns dimensions of the texture.
+	 *
+	 * @return the immutable texture dimensions
+	 */
+	@Override
+	public BmfDimensions getScaleDimensions() {
+		return scaleDimensions;
+	}
+
+	/**
+	 * Returns the line height in pixels.
+	 *
+	 * @return the line height
+	 */
+	@Override
+	public int getLineHeight() {
+		return lineHeight;
+	}
+
+	/**
+	 * Returns the font baseline in pixels.
+	 *
+	 * @return the baseline
+	 */
+	@Override
+	public int getBase() {
+		return base;
+	}
+
+	/**
+	 * Returns a copy of the font padding values.
+	 *
+	 * @return array of padding values [up, right, down, left]
+	 */
+	@Override
+	public int[] getPadding() {
+		return padding.clone();
+	}
+
+	/**
+	 * Returns the font padding value at the specified index without copying.
+	 *
+	 * @param index the index of the value, {@code 0} to {@code 3} for up, right, down and left
+	 *
+	 * @return the padding value
+	 */
+	public int getPadding(int index) {
+		return padding[index];
+	}
+
+	/**
+	 * Returns a copy of the font spacing values.
+	 *
+	 * @return array of spacing values [horizontal, vertical]
+	 */
+	@Override
+	public int[] getSpacing() {
+		return spacing.clone();
+	}
+
+	/**
+	 * Returns the font spacing value at the specified index without copying.
+	 *
+	 * @param index the index of the value, {@code 0} for horizontal and {@code 1} for vertical
+	 *
+	 * @return the spacing value
+	 */
+	public int getSpacing(int index) {
+		return spacing[index];
+	}
+
+	/**
+	 * Returns whether the font is bold.
+	 *
+	 * @return {@code true} if bold, {@code false} otherwise
+	 */
+	@Override
+	public boolean isBold() {
+		return bold;
+	}
+
+	/**
+	 * Returns whether the font is italic.
+	 *
+	 * @return {@code true} if italic, {@code false} otherwise
+	 */
+	@Override
+	public boolean isItalic() {
+		return italic;
+	}
+
+	/**
+	 * Returns whether the font uses unicode.
+	 *
+	 * @return {@code true} if unicode, {@code false} otherwise
+	 */
+	@Override
+	public boolean isUnicode() {
+		return unicode;
+	}
+
+	/**
+	 * Returns whether smoothing is enabled.
+	 *
+	 * @return {@code true} if smoothing enabled, {@code false} otherwise
+	 */
+	@Override
+	public boolean isSmooth() {
+		return smooth;
+	}
+
+	/**
+	 * Returns whether anti-aliasing is enabled.
+	 *
+	 * @return {@code true} if anti-aliasing enabled, {@code false} otherwise
+	 */
+	@Override
+	public boolean isAntiAliased() {
+		return antiAliased;
+	}
+
+	/**
+	 * Returns whether the font texture is packed.
+	 *
+	 * @return {@code true} if packed, {@code false} otherwise
+	 */
+	@Override
+	public boolean isPacked() {
+		return packed;
+	}
+
+	@Override
+	public String toString() {
+		return String.format(
+				"FrozenBmfFont [characters=%s, kernings=%s, pages=%s, face=%s, charset=%s, size=%s, stretchH=%s, scaleDimensions=%s, lineHeight=%s, base=%s, padding=%s, spacing=%s, bold=%s, italic=%s, unicode=%s, smooth=%s, antiAliased=%s, packed=%s]",
+				characters.length, kernings.length, pages, face, charset, size, stretchH, scaleDimensions, lineHeight, base,
+				Arrays.toString(padding), Arrays.toString(spacing), bold, italic, unicode, smooth, antiAliased, packed);
+	}
+
+	private final class CharacterMap extends AbstractMap<Integer, BmfCharacter> {
+
+		private final Set<Entry<Integer, BmfCharacter>> entries = new AbstractSet<Entry<Integer, BmfCharacter>>() {
+
+			@Override
+			public Iterator<Entry<Integer, BmfCharacter>> iterator() {
+				Iterator<BmfCharacter> iterator = new ArrayIterator<>(characters);
+				return new Iterator<Entry<Integer, BmfCharacter>>() {
+
+					@Override
+					public boolean hasNext() {
+						return iterator.hasNext();
+					}
+
+					@Override
+					public Entry<Integer, BmfCharacter> next() {
+						BmfCharacter character = iterator.next();
+						return new SimpleImmutableEntry<>(character.getId(), character);
+					}
+
+				};
+			}
+
+			@Override
+			public int size() {
+				return characters.length;
+			}
+
+		};
+
+		@Override
+		public Set<Entry<Integer, BmfCharacter>> entrySet() {
+			return entries;
+		}
+
+		@Override
+		public int size() {
+			return characters.length;
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return key instanceof Integer && hasCharacter((Integer) key);
+		}
+
+		@Override
+		public BmfCharacter get(Object key) {
+			return key instanceof Integer ? getCharacter((Integer) key) : null;
+		}
+
+	}
+
+	private static final class ArraySet<T> extends AbstractSet<T> {
+
+		private final T[] values;
+
+		private ArraySet(T[] values) {
+			this.values = values;
+		}
+
+		@Override
+		public Iterator<T> iterator() {
+			return new ArrayIterator<>(values);
+		}
+
+		@Override
+		public int size() {
+			return values.length;
+		}
+
+	}
+
+	private static final class ArrayIterator<T> implements Iterator<T> {
+
+		private final T[] values;
+
+		private int index;
+
+		private ArrayIterator(T[] values) {
+			this.values = values;
+			this.index = 0;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return index < values.length;
+		}
+
+		@Override
+		public T next() {
+			if (index >= values.length)
+				throw new NoSuchElementException();
+			return values[index++];
+		}
+
+	}
+
+	private static UnsupportedOperationException immutable() {
+		return new UnsupportedOperationException("Frozen fonts are immutable");
+	}
+
+	private static final class FrozenCoordinates extends BmfCoordinates {
+
+		private FrozenCoordinates(BmfCoordinates coordinates) {
+			super.setX(coordinates.getX());
+			super.setY(coordinates.getY());
+		}
+
+		@Override
+		public BmfCoordinates setX(int x) {
+			throw immutable();
+		}
+
+		@Override
+		public BmfCoordinates setY(int y) {
+			throw immutable();
+		}
+
+	}
+
+	private static final class FrozenDimensions extends BmfDimensions {
+
+		private FrozenDimensions(BmfDimensions dimensions) {
+			super.setWidth(dimensions.getWidth());
+			super.setHeight(dimensions.getHeight());
+		}
+
+		@Override
+		public BmfDimensions setWidth(int width) {
+			throw immutable();
+		}
+
+		@Override
+		public BmfDimensions setHeight(int height) {
+			throw immutable();
+		}
+
+	}
+
+	private static final class FrozenCharacter extends BmfCharacter {
+
+		private FrozenCharacter(BmfCharacter character) {
+			super(character.getId(), new FrozenCoordinates(character.getTextureCoordinates()),
+					new FrozenDimensions(character.getTextureDimensions()),
+					new FrozenCoordinates(character.getOffsetCoordinates()));
+			super.setAdvance(character.getAdvance());
+			super.setPage(character.getPage());
+			super.setChannel(character.getChannel());
+		}
+
+		@Override
+		public BmfCharacter setAdvance(int advance) {
+			throw immutable();
+		}
+
+		@Override
+		public BmfCharacter setPage(int page) {
+			throw immutable();
+		}
+
+		@Override
+		public BmfCharacter setChannel(int channel) {
+			throw immutable();
+		}
+
+	}
+
+	private static final class FrozenKerning extends BmfKerning {
+
+		private FrozenKerning(BmfKerning kerning) {
+			super(kerning.getFirst(), kerning.getSecond());
+			super.setAmount(kerning.getAmount());
+		}
+
+		@Override
+		public BmfKerning setAmount(int amount) {
+			throw immutable();
+		}
+
+	}
+
+}
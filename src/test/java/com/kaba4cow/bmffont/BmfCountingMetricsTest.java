@@ -0,0 +1,38 @@
+package com.kaba4cow.bmffont;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class BmfCountingMetricsTest {
+
+	@Test
+	void wrappedLayoutReportsEachMissingCharacterOnce() {
+		BmfCountingMetrics metrics = new BmfCountingMetrics();
+		BmfFont font = createFont(metrics);
+		String text = "AA AéAAA";
+
+		BmfTextRun run = new BmfLayoutCache(16, 1L << 20).get(font, text, 20, BmfTextAlignment.CENTER);
+		assertEquals(6, run.getQuadCount());
+		assertEquals(1L, metrics.getMissingCharacterLookups());
+		assertEquals(1L, metrics.getMissingCharacterLookups(0xE9));
+
+		metrics.reset();
+		float[] quads = new float[6 * BmfTextLayout.QUAD_STRIDE];
+		new BmfTextLayout(font).layout(text, 0, text.length(), 0.0f, 0.0f, 20, BmfTextAlignment.RIGHT, quads, 0);
+		assertEquals(1L, metrics.getMissingCharacterLookups());
+	}
+
+	@Test
+	void subsettingDoesNotReportMissingCharacters() {
+		BmfCountingMetrics metrics = new BmfCountingMetrics();
+		BmfFont font = createFont(metrics).addCharacter(TestFonts.glyph('B', 5));
+		assertEquals(1, BmfSubsetter.subset(font, "Aé").getCharacterCount());
+		assertEquals(0L, metrics.getMissingCharacterLookups());
+	}
+
+	private static BmfFont createFont(BmfMetrics metrics) {
+		return TestFonts.simple(5, 'A').addCharacter(new BmfCharacter(' ').setAdvance(3)).setMetrics(metrics);
+	}
+
+}
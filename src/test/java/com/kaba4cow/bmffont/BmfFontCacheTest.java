@@ -0,0 +1,87 @@
+package com.kaba4cow.bmffont;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+class BmfFontCacheTest {
+
+	@Test
+	void imageKeepsKerningOrder() throws IOException {
+		BmfFont font = new BmfFont().setFace("Cache").setLineHeight(10).addPage(0, "page.png");
+		for (int code = 32; code < 64; code++)
+			font.addCharacter(new BmfCharacter(code).setAdvance(code % 9));
+		for (int first = 63; first >= 32; first--)
+			font.addKerning(new BmfKerning(first, 95 - first).setAmount(first % 5 - 2));
+		font.addKerning(new BmfKerning(40, 55).setAmount(7));
+
+		Path directory = Files.createTempDirectory("cache");
+		Path image = directory.resolve("font.fnt.cache");
+		try {
+			BmfFontCache.write(font, image, 1L, 2L);
+			BmfFont cached = BmfFontCache.read(image, 1L, 2L);
+			assertNotNull(cached);
+			assertEquals(kerningStrings(font), kerningStrings(cached));
+			assertEquals(7, cached.getKerningAmount(40, 55));
+			assertEquals(font.getCharacterCodes(), cached.getCharacterCodes());
+		} finally {
+			Files.deleteIfExists(image);
+			Files.delete(directory);
+		}
+	}
+
+	@Test
+	void loadLeavesNoTemporaryFiles() throws IOException {
+		BmfFont font = new BmfFont().setFace("Cache").setLineHeight(10).addPage(0, "page.png");
+		font.addCharacter(new BmfCharacter('A').setAdvance(5));
+		font.addKerning(new BmfKerning('A', 'A').setAmount(-1));
+
+		Path directory = Files.createTempDirectory("cache");
+		Path source = directory.resolve("font.fnt");
+		try {
+			try (OutputStream output = Files.newOutputStream(source)) {
+				BmfWriter.writeText(font, output);
+			}
+			BmfFont parsed = BmfFontCache.load(source);
+			BmfFont cached = BmfFontCache.load(source);
+			assertEquals(kerningStrings(parsed), kerningStrings(cached));
+			assertEquals(list(directory), list(source, BmfFontCache.getImagePath(source)));
+		} finally {
+			for (Path file : list(directory))
+				Files.delete(file);
+			Files.delete(directory);
+		}
+	}
+
+	private static List<Path> list(Path directory) throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.sorted().collect(Collectors.toList());
+		}
+	}
+
+	private static List<Path> list(Path... files) {
+		List<Path> list = new ArrayList<>();
+		Collections.addAll(list, files);
+		Collections.sort(list);
+		return list;
+	}
+
+	private static List<String> kerningStrings(BmfFont font) {
+		List<String> strings = new ArrayList<>();
+		for (BmfKerning kerning : font.getKernings())
+			strings.add(kerning.getFirst() + "," + kerning.getSecond() + "," + kerning.getAmount());
+		return strings;
+	}
+
+}
@@ -0,0 +1,69 @@
+package com.kaba4cow.bmffont;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class BmfFontLoaderTest {
+
+	@Test
+	void exceptionsAndLinkageErrorsAreReportedAsFailures() throws Exception {
+		String data = "info face=\"Loaded\" size=16\ncommon lineHeight=18 base=14 scaleW=64 scaleH=64 pages=1\n";
+		Map<String, Callable<InputStream>> sources = new LinkedHashMap<>();
+		sources.put("first", () -> new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8)));
+		sources.put("broken", () -> {
+			throw new NoClassDefFoundError("broken source");
+		});
+		sources.put("missing", () -> {
+			throw new FileNotFoundException("missing source");
+		});
+		sources.put("last", () -> new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8)));
+
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			ExecutionException exception = assertThrows(ExecutionException.class,
+					() -> new BmfFontLoader(executor, 1).load(sources).get(10L, TimeUnit.SECONDS));
+			assertInstanceOf(BmfFontLoadException.class, exception.getCause());
+			BmfFontLoadException failure = (BmfFontLoadException) exception.getCause();
+			assertEquals(2, failure.getFailures().size());
+			assertInstanceOf(NoClassDefFoundError.class, failure.getFailures().get("broken"));
+			assertInstanceOf(FileNotFoundException.class, failure.getFailures().get("missing"));
+			assertEquals(2, failure.getFonts().size());
+			assertEquals("Loaded", failure.getFonts().get("last").getFace());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	void otherErrorsCompleteTheFutureExceptionally() throws Exception {
+		Map<String, Callable<InputStream>> sources = new LinkedHashMap<>();
+		sources.put("broken", () -> {
+			throw new InternalError("broken source");
+		});
+
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			ExecutionException exception = assertThrows(ExecutionException.class,
+					() -> new BmfFontLoader(executor, 1).load(sources).get(10L, TimeUnit.SECONDS));
+			assertInstanceOf(InternalError.class, exception.getCause());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+}
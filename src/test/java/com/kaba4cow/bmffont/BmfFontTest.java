@@ -0,0 +1,47 @@
+package com.kaba4cow.bmffont;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+class BmfFontTest {
+
+	@Test
+	void addedKerningReplacesThePair() {
+		BmfFont font = TestFonts.simple(5, 'A', 'B');
+		BmfKerning replaced = new BmfKerning('A', 'B').setAmount(-1);
+		BmfKerning added = new BmfKerning('A', 'B').setAmount(-3);
+		font.addKerning(replaced).addKerning(new BmfKerning('B', 'A').setAmount(2)).addKerning(added);
+		assertEquals(2, font.getKernings().size());
+		assertFalse(font.getKernings().contains(replaced));
+		assertSame(added, font.getKerning('A', 'B').get());
+		assertEquals(-3, font.freeze().getKerningAmount('A', 'B'));
+
+		font.removeKerning(replaced);
+		assertEquals(-3, font.getKerningAmount('A', 'B'));
+		font.removeKerning(added);
+		assertEquals(0, font.getKerningAmount('A', 'B'));
+		assertEquals(1, font.getKernings().size());
+	}
+
+	@Test
+	void duplicateKerningLinesKeepTheLast() throws IOException {
+		String text = "common lineHeight=10 base=8 scaleW=64 scaleH=64 pages=1\n"
+				+ "kerning first=65 second=66 amount=-1\nkerning first=66 second=65 amount=2\n"
+				+ "kerning first=65 second=66 amount=-3\n";
+		ByteBuffer data = ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+		BmfFont[] fonts = { BmfParser.parse(data.duplicate(), null), BmfParser.parseLazy(data.duplicate(), null) };
+		for (BmfFont font : fonts) {
+			assertEquals(2, font.getKernings().size());
+			assertEquals(-3, font.getKerningAmount('A', 'B'));
+			assertEquals(-3, font.getKerning('A', 'B').get().getAmount());
+		}
+	}
+
+}
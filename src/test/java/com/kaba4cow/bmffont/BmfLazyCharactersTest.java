@@ -0,0 +1,89 @@
+package com.kaba4cow.bmffont;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+class BmfLazyCharactersTest {
+
+	private static final int CHARACTERS = 4000;
+
+	private static final int THREADS = 8;
+
+	@Test
+	void concurrentReadersDecodeEachCharacterOnce() throws Exception {
+		for (int round = 0; round < 20; round++) {
+			BmfFont font = BmfParser.parseLazy(createFont(), null);
+			ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+			try {
+				CountDownLatch start = new CountDownLatch(1);
+				List<Future<?>> futures = new ArrayList<>();
+				for (int thread = 0; thread < THREADS; thread++) {
+					int offset = thread;
+					futures.add(executor.submit(() -> {
+						start.await();
+						for (int i = 0; i < CHARACTERS; i++) {
+							int code = 0x4E00 + (i * 7 + offset * 997) % CHARACTERS;
+							assertTrue(font.hasCharacter(code));
+							BmfCharacter character = font.getCharacter(code);
+							assertEquals(code, character.getId());
+							assertEquals(code % 50, character.getAdvance());
+							assertEquals(-1, font.getKerningAmount(code, code + 1));
+						}
+						return null;
+					}));
+				}
+				start.countDown();
+				for (Future<?> future : futures)
+					future.get();
+			} finally {
+				executor.shutdown();
+			}
+			assertEquals(CHARACTERS, font.getCharacterMap().size());
+			assertEquals(CHARACTERS, font.getKernings().size());
+		}
+	}
+
+	@Test
+	void malformedCharacterIsReportedOnFirstAccess() throws IOException {
+		String text = "common lineHeight=10 base=8 scaleW=64 scaleH=64 pages=1\n"
+				+ "char id=65 x=0 y=0 width=4 height=4 xoffset=0 yoffset=0 xadvance=5 page=0 chnl=15\n"
+				+ "char id=66 x=0 y=0 width=four height=4 xoffset=0 yoffset=0 xadvance=5 page=0 chnl=15\n";
+		BmfFont font = BmfParser.parseLazy(ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)), null);
+		assertTrue(font.hasCharacter('B'));
+		assertEquals(5, font.getCharacter('A').getAdvance());
+		assertThrows(UncheckedIOException.class, () -> font.getCharacter('B'));
+		assertThrows(UncheckedIOException.class, () -> font.getCharacter('B'));
+		assertEquals(2, font.getCharacterCount());
+		assertThrows(UncheckedIOException.class, () -> font.getCharacters());
+	}
+
+	private static ByteBuffer createFont() throws IOException {
+		StringBuilder text = new StringBuilder();
+		text.append("info face=\"Lazy\" size=16\ncommon lineHeight=18 base=14 scaleW=256 scaleH=256 pages=1\n");
+		text.append("page id=0 file=\"lazy.png\"\nchars count=").append(CHARACTERS).append('\n');
+		for (int i = 0; i < CHARACTERS; i++) {
+			int code = 0x4E00 + i;
+			text.append("char id=").append(code).append(" x=0 y=0 width=4 height=4 xoffset=0 yoffset=0 xadvance=")
+					.append(code % 50).append(" page=0 chnl=15\n");
+		}
+		text.append("kernings count=").append(CHARACTERS).append('\n');
+		for (int i = 0; i < CHARACTERS; i++)
+			text.append("kerning first=").append(0x4E00 + i).append(" second=").append(0x4E01 + i).append(" amount=-1\n");
+		return ByteBuffer.wrap(text.toString().getBytes(StandardCharsets.UTF_8));
+	}
+
+}
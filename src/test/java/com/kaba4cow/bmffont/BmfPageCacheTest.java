@@ -0,0 +1,79 @@
+package com.kaba4cow.bmffont;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+
+class BmfPageCacheTest {
+
+	@Test
+	void grayscalePngKeepsItsValues() throws IOException {
+		BufferedImage image = new BufferedImage(2, 1, BufferedImage.TYPE_BYTE_GRAY);
+		image.getRaster().setSample(0, 0, 0, 128);
+		image.getRaster().setSample(1, 0, 0, 255);
+		Path file = Files.createTempFile("page", ".png");
+		try {
+			ImageIO.write(image, "png", file.toFile());
+			try (BmfPage page = new BmfPageCache(1024L).acquire(file)) {
+				assertFalse(page.hasAlpha());
+				ByteBuffer pixels = page.getPixels();
+				assertEquals(128, pixels.get(0) & 0xFF);
+				assertEquals(128, pixels.get(2) & 0xFF);
+				assertEquals(255, pixels.get(4) & 0xFF);
+			}
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test
+	void grayscaleTgaHasNoAlpha() throws IOException {
+		byte[] tga = new byte[18 + 2];
+		tga[2] = 3;
+		tga[12] = 2;
+		tga[14] = 1;
+		tga[16] = 8;
+		tga[17] = 0x20;
+		tga[18] = (byte) 200;
+		tga[19] = 10;
+		Path file = Files.createTempFile("page", ".tga");
+		try {
+			Files.write(file, tga);
+			try (BmfPage page = new BmfPageCache(1024L).acquire(file)) {
+				assertFalse(page.hasAlpha());
+				ByteBuffer pixels = page.getPixels();
+				assertEquals(200, pixels.get(0) & 0xFF);
+				assertEquals(10, pixels.get(5) & 0xFF);
+			}
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test
+	void argbPngHasAlpha() throws IOException {
+		BufferedImage image = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+		image.setRGB(0, 0, 0x40FF0000);
+		Path file = Files.createTempFile("page", ".png");
+		try {
+			ImageIO.write(image, "png", file.toFile());
+			try (BmfPage page = new BmfPageCache(1024L).acquire(file)) {
+				assertTrue(page.hasAlpha());
+				assertEquals(0x40, page.getPixels().get(3) & 0xFF);
+			}
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+}
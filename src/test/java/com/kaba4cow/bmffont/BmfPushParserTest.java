@@ -0,0 +1,76 @@
+package com.kaba4cow.bmffont;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class BmfPushParserTest {
+
+	@Test
+	void xmlEventsAreReportedInDocumentOrder() throws IOException {
+		String xml = "<?xml version=\"1.0\"?>\n<font>\n"
+				+ "<info face=\"Xml\" size=\"16\" bold=\"1\" padding=\"1,2,3,4\"/>\n"
+				+ "<common lineHeight=\"18\" base=\"14\" scaleW=\"64\" scaleH=\"32\" packed=\"0\"/>\n"
+				+ "<pages><page id=\"0\" file=\"a.png\"/><page id=\"1\" file=\"b.png\"/></pages>\n"
+				+ "<chars count=\"2\"><char id=\"66\" x=\"1\" y=\"2\" width=\"3\" height=\"4\" xoffset=\"5\" yoffset=\"6\""
+				+ " xadvance=\"7\" page=\"1\" chnl=\"15\"/><char id=\"65\" xadvance=\"8\"/></chars>\n"
+				+ "<kernings count=\"2\"><kerning first=\"66\" second=\"65\" amount=\"-1\"/>"
+				+ "<kerning first=\"65\" second=\"66\" amount=\"2\"/></kernings>\n</font>\n";
+		List<String> events = new ArrayList<>();
+		byte[] data = xml.getBytes(StandardCharsets.UTF_8);
+		BmfPushParser parser = new BmfPushParser(new RecordingListener(events));
+		for (int offset = 0; offset < data.length; offset += 7)
+			parser.feed(data, offset, Math.min(7, data.length - offset));
+		parser.finish();
+
+		assertEquals(Arrays.asList("info Xml 16 true [1, 2, 3, 4] [0, 0]", "common 18 14 64 32 false", "page 0 a.png",
+				"page 1 b.png", "char 66 1 2 3 4 5 6 7 1 15", "char 65 0 0 0 0 0 0 8 0 0", "kerning 66 65 -1",
+				"kerning 65 66 2"), events);
+	}
+
+	private static final class RecordingListener implements BmfParseListener {
+
+		private final List<String> events;
+
+		private RecordingListener(List<String> events) {
+			this.events = events;
+		}
+
+		@Override
+		public void onInfo(String face, int size, boolean bold, boolean italic, String charset, boolean unicode, int stretchH,
+				boolean smooth, boolean antiAliased, int[] padding, int[] spacing) {
+			events.add("info " + face + " " + size + " " + bold + " " + Arrays.toString(padding) + " "
+					+ Arrays.toString(spacing));
+		}
+
+		@Override
+		public void onCommon(int lineHeight, int base, int scaleW, int scaleH, boolean packed) {
+			events.add("common " + lineHeight + " " + base + " " + scaleW + " " + scaleH + " " + packed);
+		}
+
+		@Override
+		public void onPage(int id, String file) {
+			events.add("page " + id + " " + file);
+		}
+
+		@Override
+		public void onChar(int id, int x, int y, int width, int height, int offsetX, int offsetY, int advance, int page,
+				int channel) {
+			events.add("char " + id + " " + x + " " + y + " " + width + " " + height + " " + offsetX + " " + offsetY + " "
+					+ advance + " " + page + " " + channel);
+		}
+
+		@Override
+		public void onKerning(int first, int second, int amount) {
+			events.add("kerning " + first + " " + second + " " + amount);
+		}
+
+	}
+
+}
@@ -0,0 +1,43 @@
+package com.kaba4cow.bmffont;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.FloatBuffer;
+
+import org.junit.jupiter.api.Test;
+
+class BmfQuadBatchTest {
+
+	@Test
+	void lineFeedsProduceNoQuads() {
+		BmfQuadBatch batch = new BmfQuadBatch(TestFonts.simple(5, '\n', 'A'));
+		CharSequence[] texts = { "A\nA\n" };
+		int[] pageCounts = new int[batch.getPageCount()];
+		assertEquals(2, batch.countQuads(texts, 1, pageCounts));
+		assertEquals(2, pageCounts[0]);
+
+		FloatBuffer vertices = FloatBuffer.allocate(2 * BmfQuadBatch.FLOATS_PER_QUAD);
+		int[] pageOffsets = new int[batch.getPageCount() + 1];
+		assertEquals(2, batch.write(texts, new float[2], 1, vertices, pageOffsets));
+		assertEquals(0, vertices.remaining());
+		assertEquals(2, pageOffsets[batch.getPageCount()]);
+		assertEquals(10.0f, vertices.get(BmfQuadBatch.FLOATS_PER_QUAD + 1));
+	}
+
+	@Test
+	void carriageReturnsProduceNoQuads() {
+		BmfQuadBatch batch = new BmfQuadBatch(TestFonts.simple(5, '\r', 'A'));
+		CharSequence[] texts = { "A\r\nA\r\n" };
+		int[] pageCounts = new int[batch.getPageCount()];
+		assertEquals(2, batch.countQuads(texts, 1, pageCounts));
+		assertEquals(2, pageCounts[0]);
+
+		FloatBuffer vertices = FloatBuffer.allocate(2 * BmfQuadBatch.FLOATS_PER_QUAD);
+		int[] pageOffsets = new int[batch.getPageCount() + 1];
+		assertEquals(2, batch.write(texts, new float[2], 1, vertices, pageOffsets));
+		assertEquals(0, vertices.remaining());
+		assertEquals(0.0f, vertices.get(BmfQuadBatch.FLOATS_PER_QUAD));
+		assertEquals(10.0f, vertices.get(BmfQuadBatch.FLOATS_PER_QUAD + 1));
+	}
+
+}
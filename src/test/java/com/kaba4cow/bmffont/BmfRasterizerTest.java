@@ -0,0 +1,63 @@
+package com.kaba4cow.bmffont;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+
+class BmfRasterizerTest {
+
+	@Test
+	void grayscalePageTakesCoverageFromLuminance() throws IOException {
+		BmfRasterizer rasterizer = createRasterizer(TestFonts.simple(4, 'A'));
+		byte[] alpha = new byte[16];
+		rasterizer.render("A", 0, 0, alpha, 4, 4);
+		assertEquals(1, countInked(alpha));
+		assertEquals(200, alpha[2 * 4 + 1] & 0xFF);
+
+		int[] argb = new int[16];
+		rasterizer.render("A", 0, 0, 0xFFFF0000, argb, 4, 4);
+		assertEquals(0, argb[0]);
+		assertEquals(200 << 24 | 0xFF0000, argb[2 * 4 + 1]);
+	}
+
+	@Test
+	void carriageReturnsAreIgnored() throws IOException {
+		BmfRasterizer rasterizer = createRasterizer(TestFonts.simple(4, '\r', 'A'));
+		assertEquals(8, rasterizer.measureWidth("A\r\nAA\r"));
+
+		byte[] alpha = new byte[32];
+		rasterizer.render("\rA", 0, 0, alpha, 8, 4);
+		assertEquals(1, countInked(alpha));
+		assertEquals(200, alpha[2 * 8 + 1] & 0xFF);
+	}
+
+	private static BmfRasterizer createRasterizer(BmfFont font) throws IOException {
+		BufferedImage image = new BufferedImage(4, 4, BufferedImage.TYPE_BYTE_GRAY);
+		image.getRaster().setSample(1, 2, 0, 200);
+		Path file = Files.createTempFile("page", ".png");
+		try {
+			ImageIO.write(image, "png", file.toFile());
+			try (BmfPage page = new BmfPageCache(1024L).acquire(file)) {
+				return new BmfRasterizer(font, page);
+			}
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	private static int countInked(byte[] alpha) {
+		int inked = 0;
+		for (byte value : alpha)
+			if (value != 0)
+				inked++;
+		return inked;
+	}
+
+}
@@ -0,0 +1,53 @@
+package com.kaba4cow.bmffont;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class BmfTextLayoutTest {
+
+	@Test
+	void lineFeedsProduceNoQuads() {
+		BmfTextLayout layout = new BmfTextLayout(TestFonts.simple(5, '\n', 'A'));
+		String text = "A\nA\n";
+		int count = layout.countQuads(text, 0, text.length());
+		assertEquals(2, count);
+		float[] quads = new float[count * BmfTextLayout.QUAD_STRIDE];
+		assertEquals(count, layout.layout(text, quads));
+		assertEquals(10.0f, quads[BmfTextLayout.QUAD_STRIDE + BmfTextLayout.QUAD_Y]);
+	}
+
+	@Test
+	void carriageReturnsAreIgnored() {
+		BmfFont font = TestFonts.simple(5, '\r', 'A', ' ');
+		BmfTextLayout layout = new BmfTextLayout(font);
+		String text = "AA\r\nA A\r";
+		assertEquals(15, layout.measureWidth(text));
+		int count = layout.countQuads(text, 0, text.length());
+		assertEquals(5, count);
+		float[] quads = new float[count * BmfTextLayout.QUAD_STRIDE];
+		assertEquals(count, layout.layout(text, quads));
+		assertEquals(5.0f, quads[BmfTextLayout.QUAD_STRIDE + BmfTextLayout.QUAD_X]);
+		assertEquals(10.0f, quads[4 * BmfTextLayout.QUAD_STRIDE + BmfTextLayout.QUAD_X]);
+
+		BmfLineBreaker lineBreaker = new BmfLineBreaker(font);
+		assertEquals(2, lineBreaker.breakLines(text, 0, text.length(), 0));
+		assertEquals(10, lineBreaker.getLineWidth(0));
+		assertEquals(15, lineBreaker.getLineWidth(1));
+		assertEquals(2, lineBreaker.breakLines("AA\rA\rA", 0, 6, 10));
+		assertEquals(10, lineBreaker.getLineWidth(0));
+		assertEquals(10, lineBreaker.getLineWidth(1));
+	}
+
+	@Test
+	void metricsIgnoreCarriageReturns() {
+		BmfFont font = TestFonts.simple(5, '\r', 'A');
+		font.addKerning(new BmfKerning('A', 'A').setAmount(-1));
+		BmfTextMetrics metrics = new BmfTextMetrics(font).measure("A\rA", 0, 3);
+		assertEquals(9, metrics.getWidth());
+		assertEquals(0, metrics.width(1, 2));
+		assertEquals(4, metrics.positionOf(2));
+		assertEquals(new BmfTextLayout(font).measureWidth("A\rA"), metrics.getWidth());
+	}
+
+}
@@ -0,0 +1,124 @@
+package com.kaba4cow.bmffont;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class BmfWriterTest {
+
+	@Test
+	void textRoundTrip() throws IOException {
+		BmfFont font = createFont("Arial & Sans é中😀");
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		BmfWriter.writeText(font, output);
+		assertFontEquals(font, BmfParser.parse(ByteBuffer.wrap(output.toByteArray()), null), font.getFace());
+	}
+
+	@Test
+	void binaryRoundTrip() throws IOException {
+		BmfFont font = createFont("Arial é中😀").setCharset("ANSI");
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		BmfWriter.writeBinary(font, output);
+		assertFontEquals(font, BmfParser.parse(ByteBuffer.wrap(output.toByteArray()), null), font.getFace());
+	}
+
+	@Test
+	void xmlRoundTrip() throws IOException {
+		BmfFont font = createFont("Arial & <Sans> \"'é中😀");
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		BmfWriter.writeXml(font, output);
+		assertFontEquals(font, BmfParser.parse(ByteBuffer.wrap(output.toByteArray()), null), font.getFace());
+	}
+
+	@Test
+	void frozenFontsAreWrittenLikeTheirSource() throws IOException {
+		BmfFont font = createFont("Frozen");
+		ByteArrayOutputStream expected = new ByteArrayOutputStream();
+		BmfWriter.writeText(font, expected);
+		ByteArrayOutputStream actual = new ByteArrayOutputStream();
+		BmfWriter.writeText(font.freeze(), actual);
+		assertArrayEquals(expected.toByteArray(), actual.toByteArray());
+	}
+
+	@Test
+	void unpairedSurrogatesAreWrittenAsQuestionMarks() throws IOException {
+		BmfFont font = createFont("Bad\uD800Face").setCharset("ANSI").addPage(1, "page\uDC00_1.png");
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		BmfWriter.writeBinary(font, output);
+		BmfFont parsed = BmfParser.parse(ByteBuffer.wrap(output.toByteArray()), null);
+		assertFontEquals(font, parsed, "Bad?Face");
+		assertEquals("page?_1.png", parsed.getPage(1));
+		assertEquals(9, BmfByteSink.utf8Length("a\uD800b\uDC00c😀"));
+	}
+
+	private static BmfFont createFont(String face) {
+		BmfFont font = new BmfFont()
+				.setFace(face)
+				.setSize(32)
+				.setBold(true)
+				.setStretchH(100)
+				.setSmooth(true)
+				.setAntiAliased(true)
+				.setLineHeight(36)
+				.setBase(29)
+				.setPadding(new int[] { 1, 2, 3, 4 })
+				.setSpacing(new int[] { 1, 1 })
+				.addPage(0, "page_0.png");
+		font.getScaleDimensions().setWidth(256).setHeight(128);
+		for (int code = 32; code < 40; code++) {
+			BmfCharacter character = new BmfCharacter(code).setAdvance(code - 20).setPage(0).setChannel(15);
+			character.getTextureCoordinates().setX(code * 3).setY(code);
+			character.getTextureDimensions().setWidth(code % 7).setHeight(code % 5);
+			character.getOffsetCoordinates().setX(-1).setY(code % 3);
+			font.addCharacter(character);
+		}
+		font.addKerning(new BmfKerning(33, 34).setAmount(-2));
+		font.addKerning(new BmfKerning(35, 32).setAmount(3));
+		return font;
+	}
+
+	private static void assertFontEquals(BmfFont expected, BmfFont actual, String face) {
+		assertEquals(face, actual.getFace());
+		assertEquals(expected.getCharset(), actual.getCharset());
+		assertEquals(expected.getSize(), actual.getSize());
+		assertEquals(expected.isBold(), actual.isBold());
+		assertEquals(expected.isItalic(), actual.isItalic());
+		assertEquals(expected.isUnicode(), actual.isUnicode());
+		assertEquals(expected.getStretchH(), actual.getStretchH());
+		assertEquals(expected.isSmooth(), actual.isSmooth());
+		assertEquals(expected.isAntiAliased(), actual.isAntiAliased());
+		assertArrayEquals(expected.getPadding(), actual.getPadding());
+		assertArrayEquals(expected.getSpacing(), actual.getSpacing());
+		assertEquals(expected.getLineHeight(), actual.getLineHeight());
+		assertEquals(expected.getBase(), actual.getBase());
+		assertEquals(expected.getScaleDimensions(), actual.getScaleDimensions());
+		assertEquals(expected.isPacked(), actual.isPacked());
+		assertEquals(expected.getPages().size(), actual.getPages().size());
+		assertEquals(expected.getCharacterCodes(), actual.getCharacterCodes());
+		for (BmfCharacter character : expected.getCharacters()) {
+			BmfCharacter other = actual.getCharacter(character.getId());
+			assertEquals(character.getTextureCoordinates(), other.getTextureCoordinates());
+			assertEquals(character.getTextureDimensions(), other.getTextureDimensions());
+			assertEquals(character.getOffsetCoordinates(), other.getOffsetCoordinates());
+			assertEquals(character.getAdvance(), other.getAdvance());
+			assertEquals(character.getPage(), other.getPage());
+			assertEquals(character.getChannel(), other.getChannel());
+		}
+		assertEquals(kerningStrings(expected), kerningStrings(actual));
+	}
+
+	private static List<String> kerningStrings(BmfFont font) {
+		List<String> strings = new ArrayList<>();
+		for (BmfKerning kerning : font.getKernings())
+			strings.add(kerning.getFirst() + "," + kerning.getSecond() + "," + kerning.getAmount());
+		return strings;
+	}
+
+}
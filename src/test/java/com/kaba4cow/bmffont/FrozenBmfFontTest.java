@@ -0,0 +1,54 @@
+package com.kaba4cow.bmffont;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class FrozenBmfFontTest {
+
+	@Test
+	void snapshotKeepsCharactersAndKernings() {
+		BmfFont font = createFont();
+		FrozenBmfFont frozen = font.freeze();
+		font.removeCharacter('B').clearKernings().setLineHeight(99);
+
+		assertEquals(Arrays.asList((int) 'A', (int) 'B', 0x4E2D), new ArrayList<>(frozen.getCharacterCodes()));
+		assertEquals(3, frozen.getCharacterMap().size());
+		assertSame(frozen.getCharacter('B'), frozen.getCharacterMap().get((int) 'B'));
+		assertSame(frozen.getCharacter(0x4E2D), frozen.getCharacters().toArray()[2]);
+		assertNull(frozen.getCharacter('C'));
+		assertFalse(frozen.getCharacterMap().containsKey((int) 'C'));
+		assertEquals(-3, frozen.getKerningAmount('A', 'B'));
+		assertEquals(1, frozen.getKernings().size());
+		assertEquals(10, frozen.getLineHeight());
+	}
+
+	@Test
+	void layoutClassesAcceptSnapshots() {
+		BmfFont font = createFont();
+		FrozenBmfFont frozen = font.freeze();
+		assertEquals(new BmfTextLayout(font).measureWidth("AB中"), new BmfTextLayout(frozen).measureWidth("AB中"));
+		assertEquals(new BmfKerningTable(font).getAmount('A', 'B'), new BmfKerningTable(frozen).getAmount('A', 'B'));
+		BmfFontFamily family = new BmfFontFamily(frozen, font);
+		assertSame(frozen, family.getFontFor(0x4E2D));
+		float[] quads = new float[3 * BmfTextLayout.QUAD_STRIDE];
+		float[] frozenQuads = new float[3 * BmfTextLayout.QUAD_STRIDE];
+		assertEquals(new BmfTextLayout(font).layout("AB中", quads), new BmfTextLayout(frozen).layout("AB中", frozenQuads));
+		assertArrayEquals(quads, frozenQuads);
+	}
+
+	private static BmfFont createFont() {
+		BmfFont font = TestFonts.simple(9, 0x4E2D, 'B').addCharacter(TestFonts.glyph('A', 7));
+		font.addKerning(new BmfKerning('A', 'B').setAmount(-3));
+		return font;
+	}
+
+}
@@ -0,0 +1,40 @@
+package com.kaba4cow.bmffont;
+
+/**
+ * Hand-built fonts shared by the tests.
+ */
+final class TestFonts {
+
+	private TestFonts() {}
+
+	/**
+	 * Creates a font with a line height of {@code 10}, a single 64x64 page and a visible glyph for each of the specified codes.
+	 *
+	 * @param advance the advance of every glyph
+	 * @param codes   the codes of the glyphs
+	 *
+	 * @return the created font
+	 */
+	static BmfFont simple(int advance, int... codes) {
+		BmfFont font = new BmfFont().setLineHeight(10).addPage(0, "page.png");
+		font.getScaleDimensions().setWidth(64).setHeight(64);
+		for (int code : codes)
+			font.addCharacter(glyph(code, advance));
+		return font;
+	}
+
+	/**
+	 * Creates a visible 4x4 glyph at the origin of page {@code 0} that covers all channels.
+	 *
+	 * @param code    the character code
+	 * @param advance the advance
+	 *
+	 * @return the created glyph
+	 */
+	static BmfCharacter glyph(int code, int advance) {
+		BmfCharacter character = new BmfCharacter(code).setAdvance(advance).setChannel(15);
+		character.getTextureDimensions().setWidth(4).setHeight(4);
+		return character;
+	}
+
+}